@@ -0,0 +1,119 @@
+package com.spotify_final_project.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test against a running instance: every invocation fires {@code clients} catalog requests at once and
+ * waits for all of them, so the score is the time to serve a burst of that many concurrent clients
+ * (throughput = clients / score). Per-request p50/p99 and the number of non-200 answers (e.g. 503 from the
+ * concurrency limit) are printed after each iteration.
+ * <p>
+ * Run it once against the app started normally (platform threads) and once with
+ * {@code --spring.profiles.active=virtual-threads} on Java 21, then compare:
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.include=ConcurrentClients}. At 10k clients raise the
+ * open file limit (ulimit -n) on both sides.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentClientsBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Param({"1000", "5000", "10000"})
+    public int clients;
+
+    @Param("http://localhost:8080")
+    public String baseUrl;
+
+    @Param("/musics?limit=20")
+    public String path;
+
+    // One of the users created by DataInitializer
+    @Param("string1")
+    public String username;
+
+    @Param("string1")
+    public String password;
+
+    private HttpClient client;
+    private HttpRequest request;
+    private final ConcurrentLinkedQueue<Long> latenciesNanos = new ConcurrentLinkedQueue<>();
+    private final AtomicLong failedRequests = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+        HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("Login as " + username + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token.group(1))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).toArray();
+        latenciesNanos.clear();
+        Arrays.sort(sorted);
+        System.out.printf("%n%d requests, p50 %.1f ms, p99 %.1f ms, max %.1f ms, non-200: %d%n", sorted.length,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0),
+                failedRequests.getAndSet(0));
+    }
+
+    @Benchmark
+    public int burst() {
+        List<CompletableFuture<Integer>> responses = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            long start = System.nanoTime();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latenciesNanos.add(System.nanoTime() - start);
+                        int status = error == null ? response.statusCode() : -1;
+                        if (status != 200) {
+                            failedRequests.incrementAndGet();
+                        }
+                        return status;
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return responses.size();
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.spotify_final_project.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.spotify_final_project.config.JwtBasedAuthentication;
+import com.spotify_final_project.config.JwtProperties;
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.repository.UserRepository;
+import com.spotify_final_project.service.JwtService;
+import com.spotify_final_project.service.PrincipalCacheService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-request cost of the JWT filter (principal cache hit) with the old System.out debugging versus SLF4J
+ * behind an AsyncAppender, at INFO (debug statements disabled) and DEBUG. All output goes to /dev/null so the
+ * numbers reflect formatting, locking and the write syscall rather than a terminal. Run with -t 8 to see stdout lock contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    @Param({"INFO", "DEBUG"})
+    public String filterLogLevel;
+
+    private LegacyJwtFilter legacyFilter;
+    private JwtBasedAuthentication filter;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final FilterChain chain = (req, res) -> { };
+
+    private PrintStream originalOut;
+    private OutputStream devNull;
+
+    @Setup
+    public void setUp() throws IOException {
+        JwtService jwtService = new JwtService(new JwtProperties("01234567890123456789012345678901", 3_600_000L, "k1", Map.of()));
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("user1");
+        user.setEmail("user1@example.com");
+        user.setRole(Role.LISTENER);
+        user.setStatus(AccountStatus.ACTIVE);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
+
+        PrincipalCacheService principalCache = new PrincipalCacheService(jwtService, userRepository, 300, 100);
+        legacyFilter = new LegacyJwtFilter(principalCache);
+        filter = new JwtBasedAuthentication(principalCache);
+
+        request = new MockHttpServletRequest("GET", "/musics/1");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken("user1", "user1@example.com", Role.LISTENER));
+
+        devNull = new FileOutputStream("/dev/null");
+        originalOut = System.out;
+        System.setOut(new PrintStream(devNull, true));
+        configureAsyncLogging(Level.valueOf(filterLogLevel));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        devNull.close();
+    }
+
+    @Benchmark
+    public void legacySystemOut() throws Exception {
+        legacyFilter.doFilterInternal(request, response, chain);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void asyncSlf4j() throws Exception {
+        filter.doFilter(request, response, chain);
+        request.removeAttribute(JwtBasedAuthentication.class.getName() + ".FILTERED");
+        SecurityContextHolder.clearContext();
+    }
+
+    // Mirrors logback-spring.xml: bounded queue, drop below the threshold, never block the caller
+    private void configureAsyncLogging(Level filterLevel) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %level [%thread] %logger - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(devNull);
+        sink.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1638);
+        async.setNeverBlock(true);
+        async.addAppender(sink);
+        async.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(async);
+        context.getLogger(JwtBasedAuthentication.class).setLevel(filterLevel);
+    }
+}
@@ -0,0 +1,77 @@
+package com.spotify_final_project.benchmark;
+
+import com.spotify_final_project.config.JwtProperties;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification throughput: building the key and parser on every call (the old JwtService)
+ * versus the parser JwtService now builds once, for tokens signed with the active and a rotated-out key.
+ * Also covers issuing a token at login and parseToken, which builds the request's Authentication.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParseBenchmark {
+
+    private static final String ACTIVE_SECRET = "01234567890123456789012345678901";
+    private static final String OLD_SECRET = "abcdefghijabcdefghijabcdefghij12";
+
+    private JwtService jwtService;
+    private String activeToken;
+    private String rotatedToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new JwtProperties(ACTIVE_SECRET, 3_600_000L, "k2", Map.of("k1", OLD_SECRET)));
+        activeToken = jwtService.generateToken("user1", "user1@example.com", Role.LISTENER);
+        rotatedToken = new JwtService(new JwtProperties(OLD_SECRET, 3_600_000L, "k1", Map.of()))
+                .generateToken("user1", "user1@example.com", Role.LISTENER);
+    }
+
+    @Benchmark
+    public Claims perCallKeyAndParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(ACTIVE_SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(activeToken)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims cachedParser() {
+        return jwtService.parseClaims(activeToken);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Claims cachedParserContended() {
+        return jwtService.parseClaims(activeToken);
+    }
+
+    @Benchmark
+    public Claims cachedParserRotatedKey() {
+        return jwtService.parseClaims(rotatedToken);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("user1", "user1@example.com", Role.LISTENER);
+    }
+
+    @Benchmark
+    public Authentication parseToken() {
+        return jwtService.parseToken(activeToken);
+    }
+}
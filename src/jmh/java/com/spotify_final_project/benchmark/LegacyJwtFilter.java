@@ -0,0 +1,71 @@
+package com.spotify_final_project.benchmark;
+
+import com.spotify_final_project.service.PrincipalCacheService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+
+/**
+ * Copy of JwtBasedAuthentication as it was before the logging cleanup (System.out banners, full token
+ * and authorities printed on every request), kept only as the baseline for {@link JwtFilterBenchmark}.
+ */
+class LegacyJwtFilter {
+
+    private final PrincipalCacheService principalCacheService;
+
+    LegacyJwtFilter(PrincipalCacheService principalCacheService) {
+        this.principalCacheService = principalCacheService;
+    }
+
+    void doFilterInternal(HttpServletRequest request,
+                          HttpServletResponse response,
+                          FilterChain filterChain) throws IOException, ServletException {
+
+        System.out.println("========== JWT FILTER DEBUG ==========");
+        System.out.println("Request URI: " + request.getRequestURI());
+        System.out.println("HTTP Method: " + request.getMethod());
+
+        String authorizationHeader = request.getHeader("Authorization");
+        System.out.println("Authorization header: " + authorizationHeader);
+
+        if (authorizationHeader == null) {
+            System.out.println("⚠️  Missing Authorization header.");
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!authorizationHeader.startsWith("Bearer ")) {
+            System.out.println("⚠️  Invalid Authorization format. Must start with 'Bearer '.");
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String token = authorizationHeader.substring(7).trim();
+        System.out.println("Extracted JWT token: " + token);
+
+        try {
+            Authentication authentication = principalCacheService.resolve(token).toAuthentication();
+
+            if (authentication != null) {
+                System.out.println("✅ Authentication object created: " + authentication.getClass().getSimpleName());
+                System.out.println("Username: " + authentication.getName());
+                System.out.println("Authorities: " + authentication.getAuthorities());
+            } else {
+                System.out.println("❌ Authentication returned null from UserService.");
+            }
+
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        } catch (Exception e) {
+            System.out.println("🚨 Exception while authenticating JWT:");
+            e.printStackTrace(System.out);
+        }
+
+        filterChain.doFilter(request, response);
+        System.out.println("========== END JWT FILTER ==========\n");
+    }
+}
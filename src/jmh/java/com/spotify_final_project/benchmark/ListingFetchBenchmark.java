@@ -0,0 +1,214 @@
+package com.spotify_final_project.benchmark;
+
+import com.spotify_final_project.dto.album.AlbumResponse;
+import com.spotify_final_project.dto.album.AlbumTrackTitle;
+import com.spotify_final_project.dto.playlist.PlaylistResponse;
+import com.spotify_final_project.dto.playlist.PlaylistTrackTitle;
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.mappers.AlbumMapper;
+import com.spotify_final_project.mappers.PlaylistMapper;
+import com.spotify_final_project.model.Album;
+import com.spotify_final_project.model.Music;
+import com.spotify_final_project.model.Playlist;
+import com.spotify_final_project.model.PlaylistTrack;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.repository.AlbumRepository;
+import com.spotify_final_project.repository.PlaylistRepository;
+import com.spotify_final_project.repository.PlaylistTrackRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Album and playlist listing pages of 10, 100 and 1000 rows, mapped the old way (each row initializes its own
+ * track collection, and each playlist track its music) versus the way the services now do it (the page, then
+ * all of its track titles in one IN query). Runs the JPA layer on in-memory H2 with the second-level cache off,
+ * so every lazy load is a statement; the statements per page are printed after each iteration.
+ * <p>
+ * The 1000-row case is above CursorPage.MAX_LIMIT, so it goes through the repositories directly rather than
+ * the services. Run with {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.include=ListingFetch}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingFetchBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int TRACKS_PER_ROW = 10;
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private AlbumRepository albumRepository;
+    private PlaylistRepository playlistRepository;
+    private PlaylistTrackRepository playlistTrackRepository;
+    private Statistics statistics;
+    private final AtomicLong pages = new AtomicLong();
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan("com.spotify_final_project.model")
+    @EnableJpaRepositories("com.spotify_final_project.repository")
+    static class JpaOnly {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Command-line arguments, so they win over application.properties
+        context = new SpringApplicationBuilder(JpaOnly.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:listing;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN");
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        albumRepository = context.getBean(AlbumRepository.class);
+        playlistRepository = context.getBean(PlaylistRepository.class);
+        playlistTrackRepository = context.getBean(PlaylistTrackRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        seed(new TransactionTemplate(transactionManager), context.getBean(EntityManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        statistics.clear();
+        pages.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%nstatements per page: %.1f%n", (double) statistics.getPrepareStatementCount() / Math.max(pages.get(), 1));
+    }
+
+    @Benchmark
+    public List<AlbumResponse> albumsPerRow() {
+        pages.incrementAndGet();
+        return readOnly.execute(status -> albumRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(pageSize))
+                .stream()
+                .map(AlbumMapper::mapToResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<AlbumResponse> albumsBatched() {
+        pages.incrementAndGet();
+        return readOnly.execute(status -> {
+            List<Album> albums = albumRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(pageSize));
+            Map<Long, List<String>> titles = albumRepository.findTrackTitlesByAlbumIds(albums.stream().map(Album::getId).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(AlbumTrackTitle::albumId,
+                            Collectors.mapping(AlbumTrackTitle::title, Collectors.toList())));
+            return albums.stream()
+                    .map(album -> AlbumMapper.mapToResponse(album, titles.getOrDefault(album.getId(), List.of())))
+                    .toList();
+        });
+    }
+
+    @Benchmark
+    public List<PlaylistResponse> playlistsPerRow() {
+        pages.incrementAndGet();
+        return readOnly.execute(status -> playlistRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(pageSize))
+                .stream()
+                .map(PlaylistMapper::mapToResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<PlaylistResponse> playlistsBatched() {
+        pages.incrementAndGet();
+        return readOnly.execute(status -> {
+            List<Playlist> playlists = playlistRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(pageSize));
+            Map<Long, List<String>> titles = playlistTrackRepository.findTrackTitlesByPlaylistIds(playlists.stream().map(Playlist::getId).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(PlaylistTrackTitle::playlistId,
+                            Collectors.mapping(PlaylistTrackTitle::title, Collectors.toList())));
+            return playlists.stream()
+                    .map(playlist -> PlaylistMapper.mapToResponse(playlist, titles.getOrDefault(playlist.getId(), List.of())))
+                    .toList();
+        });
+    }
+
+    // One artist/owner per 10 rows, so owners repeat within a page like in a real catalog
+    private static void seed(TransactionTemplate transactionTemplate, EntityManager entityManager) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User[] users = new User[ROWS / 10];
+            for (int u = 0; u < users.length; u++) {
+                users[u] = new User()
+                        .setUsername("user" + u)
+                        .setEmail("user" + u + "@example.com")
+                        .setFirstName("First")
+                        .setLastName("Last")
+                        .setBirthDate(LocalDate.of(1990, 1, 1))
+                        .setPassword("x")
+                        .setRole(Role.ARTIST)
+                        .setStatus(AccountStatus.ACTIVE);
+                entityManager.persist(users[u]);
+            }
+            for (int r = 0; r < ROWS; r++) {
+                User user = users[r / 10];
+                Album album = new Album().setTitle("album" + r).setArtist(user);
+                Playlist playlist = new Playlist().setName("playlist" + r).setOwner(user);
+                entityManager.persist(album);
+                entityManager.persist(playlist);
+                for (int t = 0; t < TRACKS_PER_ROW; t++) {
+                    Music music = new Music()
+                            .setTitle("track" + r + "-" + t)
+                            .setGenre(GenreType.ROCK)
+                            .setDuration(180)
+                            .setArtist(user)
+                            .setAlbum(album);
+                    entityManager.persist(music);
+                    entityManager.persist(new PlaylistTrack(playlist, music, t));
+                }
+                if (r % 100 == 99) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    for (int u = 0; u < users.length; u++) {
+                        users[u] = entityManager.getReference(User.class, users[u].getId());
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.spotify_final_project.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test against a running instance: a storm of logins (32 threads) next to a few catalog readers
+ * (4 threads), reporting the latency percentiles (p99 included) of both. With hashing on request threads the
+ * catalog p99 follows the login p99; with the bounded hashing pool it should stay flat while surplus logins
+ * are turned away with 503 (counted at the end of each iteration).
+ * <p>
+ * Start the app first, then e.g.
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.include=LoginStorm}. The target and the account are
+ * {@code @Param}s ({@code baseUrl}, {@code username}, {@code password}).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+@State(Scope.Group)
+public class LoginStormBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Param("http://localhost:8080")
+    public String baseUrl;
+
+    // One of the users created by DataInitializer
+    @Param("string1")
+    public String username;
+
+    @Param("string1")
+    public String password;
+
+    private HttpClient client;
+    private HttpRequest loginRequest;
+    private HttpRequest catalogRequest;
+    private final AtomicLong rejectedLogins = new AtomicLong();
+    private final AtomicLong failedCatalogReads = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        loginRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+
+        HttpResponse<String> login = client.send(loginRequest, HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(login.body());
+        if (login.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("Login as " + username + " failed with " + login.statusCode() + ": " + login.body());
+        }
+        catalogRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/musics?limit=20"))
+                .header("Authorization", "Bearer " + token.group(1))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%nlogins turned away (503): %d, failed catalog reads: %d%n",
+                rejectedLogins.getAndSet(0), failedCatalogReads.getAndSet(0));
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(32)
+    public int login() throws IOException, InterruptedException {
+        int status = client.send(loginRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 503) {
+            rejectedLogins.incrementAndGet();
+        }
+        return status;
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(4)
+    public int catalog() throws IOException, InterruptedException {
+        int status = client.send(catalogRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            failedCatalogReads.incrementAndGet();
+        }
+        return status;
+    }
+}
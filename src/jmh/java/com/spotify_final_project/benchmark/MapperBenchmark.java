@@ -0,0 +1,76 @@
+package com.spotify_final_project.benchmark;
+
+import com.spotify_final_project.dto.album.AlbumResponse;
+import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.dto.playlist.PlaylistResponse;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.mappers.AlbumMapper;
+import com.spotify_final_project.mappers.MusicMapper;
+import com.spotify_final_project.mappers.PlaylistMapper;
+import com.spotify_final_project.model.Album;
+import com.spotify_final_project.model.Music;
+import com.spotify_final_project.model.Playlist;
+import com.spotify_final_project.model.PlaylistTrack;
+import com.spotify_final_project.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping on detached, fully initialized entities, so only the mapping is measured:
+ * a page of {@code tracks} music rows, an album with {@code tracks} tracks and a playlist with as many
+ * entries. Run with {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.include=Mapper}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int tracks;
+
+    private List<Music> musicPage;
+    private Album album;
+    private Playlist playlist;
+
+    @Setup
+    public void setUp() {
+        User artist = new User().setUsername("artist");
+        album = new Album().setTitle("album").setArtist(artist);
+        album.setId(1L);
+        playlist = new Playlist().setName("playlist").setOwner(artist);
+        playlist.setId(1L);
+        GenreType[] genres = GenreType.values();
+        for (int i = 0; i < tracks; i++) {
+            Music music = new Music()
+                    .setTitle("track" + i)
+                    .setGenre(genres[i % genres.length])
+                    .setDuration(180)
+                    .setArtist(artist)
+                    .setAlbum(album);
+            music.setId((long) i);
+            album.getTracks().add(music);
+            playlist.getTracks().add(new PlaylistTrack(playlist, music, i));
+        }
+        musicPage = List.copyOf(album.getTracks());
+    }
+
+    @Benchmark
+    public List<MusicResponse> musicPage() {
+        return musicPage.stream().map(MusicMapper::mapToResponse).toList();
+    }
+
+    @Benchmark
+    public AlbumResponse album() {
+        return AlbumMapper.mapToResponse(album);
+    }
+
+    @Benchmark
+    public PlaylistResponse playlist() {
+        return PlaylistMapper.mapToResponse(playlist);
+    }
+}
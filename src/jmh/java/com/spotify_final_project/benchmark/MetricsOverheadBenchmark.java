@@ -0,0 +1,109 @@
+package com.spotify_final_project.benchmark;
+
+import com.spotify_final_project.config.StatementCountingInspector;
+import com.spotify_final_project.config.StatementMetricsFilter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the metrics add to every request, measured on the instrumentation alone: a request that prepares
+ * {@code statements} statements, with and without StatementMetricsFilter around it, and the histogram timer
+ * that http.server.requests and spring.data.repository.invocations record per request and per repository
+ * call, against the same timer without buckets. Uses a Prometheus registry configured like
+ * application.properties. Compare the differences with the hundreds of microseconds a request spends in
+ * the database. Run with {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.include=MetricsOverhead}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    @Param({"1", "10"})
+    public int statements;
+
+    private PrometheusMeterRegistry registry;
+    private StatementCountingInspector inspector;
+    private StatementMetricsFilter filter;
+    private FilterChain chain;
+    private Timer histogramTimer;
+    private Timer plainTimer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().startsWith("http.server.requests") && !id.getName().startsWith("hibernate.statements")) {
+                    return config;
+                }
+                boolean timer = id.getType() == Meter.Type.TIMER;
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue(timer ? (double) Duration.ofMillis(1).toNanos() : 1.0)
+                        .maximumExpectedValue(timer ? (double) Duration.ofSeconds(10).toNanos() : 100.0)
+                        .build()
+                        .merge(config);
+            }
+        });
+        inspector = new StatementCountingInspector();
+        filter = new StatementMetricsFilter(inspector, registry);
+        chain = (request, response) -> {
+            for (int i = 0; i < statements; i++) {
+                inspector.inspect("select 1");
+            }
+        };
+        histogramTimer = Timer.builder("http.server.requests").tag("uri", "/musics").register(registry);
+        plainTimer = Timer.builder("plain.requests").tag("uri", "/musics").register(registry);
+    }
+
+    // The filter leaves no state on the request, so each thread reuses one
+    @State(Scope.Thread)
+    public static class Exchange {
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/musics");
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/musics");
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public void requestWithoutFilter(Exchange exchange) throws Exception {
+        chain.doFilter(exchange.request, exchange.response);
+    }
+
+    @Benchmark
+    public void requestWithStatementMetrics(Exchange exchange) throws Exception {
+        filter.doFilter(exchange.request, exchange.response, chain);
+    }
+
+    @Benchmark
+    public void histogramTimer() {
+        histogramTimer.record(ThreadLocalRandom.current().nextLong(1, 100_000), TimeUnit.MICROSECONDS);
+    }
+
+    @Benchmark
+    public void plainTimer() {
+        plainTimer.record(ThreadLocalRandom.current().nextLong(1, 100_000), TimeUnit.MICROSECONDS);
+    }
+}
@@ -0,0 +1,225 @@
+package com.spotify_final_project.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the repository queries that filter on non-key columns, against the schema at migration 1 (what
+ * ddl-auto=create produced) and at migration 2 (filter and foreign key indexes). Each trial rebuilds a scratch
+ * database with Flyway up to {@code migration}, seeds it and prints the EXPLAIN ANALYZE plan of every query,
+ * so the switch from sequential scans to index scans shows up next to the numbers.
+ * <p>
+ * Needs a local PostgreSQL; the scratch database ({@code database}, default final_bench) is created if
+ * missing and wiped on every trial, so never point it at real data. Run with e.g.
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.include=SchemaIndex}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaIndexBenchmark {
+
+    private static final int USERS = 20_000;
+    private static final int PLAYLISTS = 50_000;
+    private static final int PLAYLIST_ENTRIES = 1_000_000;
+    private static final int LISTENS = 1_000_000;
+
+    private static final String TRACKS_BY_GENRE =
+            "SELECT id, title, genre, duration FROM music WHERE genre = ? AND id > ? ORDER BY id LIMIT 20";
+    private static final String TRACKS_BY_ARTIST =
+            "SELECT id, title, genre, duration FROM music WHERE artist_id = ? ORDER BY id";
+    private static final String PLAYLISTS_BY_OWNER =
+            "SELECT id, name FROM playlists WHERE user_id = ?";
+    private static final String TOP_AFFINITIES =
+            "SELECT genre, score FROM user_genre_affinity WHERE user_id = ? ORDER BY score DESC LIMIT 3";
+    private static final String REMOVE_FROM_PLAYLISTS = "DELETE FROM playlist_music WHERE music_id = ?";
+    private static final String DELETE_LISTENS = "DELETE FROM listens WHERE music_id = ?";
+
+    @Param("jdbc:postgresql://localhost:5432/")
+    public String serverUrl;
+
+    @Param("final_bench")
+    public String database;
+
+    @Param("postgres")
+    public String username;
+
+    @Param("123")
+    public String password;
+
+    @Param({"1", "2"})
+    public String migration;
+
+    @Param("500000")
+    public int tracks;
+
+    private Connection connection;
+    private PreparedStatement tracksByGenre;
+    private PreparedStatement tracksByArtist;
+    private PreparedStatement playlistsByOwner;
+    private PreparedStatement topAffinities;
+    private PreparedStatement removeFromPlaylists;
+    private PreparedStatement deleteListens;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        createDatabaseIfMissing();
+        String url = serverUrl + database;
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, username, password)
+                .locations("classpath:db/migration")
+                .target(migration)
+                .cleanDisabled(false)
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        connection = DriverManager.getConnection(url, username, password);
+        seed();
+        explain();
+
+        connection.setAutoCommit(false);
+        tracksByGenre = connection.prepareStatement(TRACKS_BY_GENRE);
+        tracksByArtist = connection.prepareStatement(TRACKS_BY_ARTIST);
+        playlistsByOwner = connection.prepareStatement(PLAYLISTS_BY_OWNER);
+        topAffinities = connection.prepareStatement(TOP_AFFINITIES);
+        removeFromPlaylists = connection.prepareStatement(REMOVE_FROM_PLAYLISTS);
+        deleteListens = connection.prepareStatement(DELETE_LISTENS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    // JAZZ is the rare genre of the seed (about 1 track in 200), the case where walking the primary key hurts most
+    @Benchmark
+    public int tracksByGenre() throws SQLException {
+        tracksByGenre.setString(1, "JAZZ");
+        tracksByGenre.setLong(2, ThreadLocalRandom.current().nextLong(tracks / 2));
+        return readAndCommit(tracksByGenre);
+    }
+
+    @Benchmark
+    public int tracksByArtist() throws SQLException {
+        tracksByArtist.setLong(1, randomUser());
+        return readAndCommit(tracksByArtist);
+    }
+
+    @Benchmark
+    public int playlistsByOwner() throws SQLException {
+        playlistsByOwner.setLong(1, randomUser());
+        return readAndCommit(playlistsByOwner);
+    }
+
+    @Benchmark
+    public int topAffinities() throws SQLException {
+        topAffinities.setLong(1, randomUser());
+        return readAndCommit(topAffinities);
+    }
+
+    // What deleting a track costs besides the row itself; rolled back so every invocation sees the same data
+    @Benchmark
+    public int deleteTrackReferences() throws SQLException {
+        long musicId = ThreadLocalRandom.current().nextLong(1, tracks + 1);
+        removeFromPlaylists.setLong(1, musicId);
+        deleteListens.setLong(1, musicId);
+        int deleted = removeFromPlaylists.executeUpdate() + deleteListens.executeUpdate();
+        connection.rollback();
+        return deleted;
+    }
+
+    private int readAndCommit(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        connection.commit();
+        return rows;
+    }
+
+    private long randomUser() {
+        return ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    }
+
+    private void createDatabaseIfMissing() throws SQLException {
+        try (Connection admin = DriverManager.getConnection(serverUrl + "postgres", username, password);
+             PreparedStatement exists = admin.prepareStatement("SELECT 1 FROM pg_database WHERE datname = ?")) {
+            exists.setString(1, database);
+            try (ResultSet resultSet = exists.executeQuery()) {
+                if (!resultSet.next()) {
+                    try (Statement create = admin.createStatement()) {
+                        create.execute("CREATE DATABASE " + database);
+                    }
+                }
+            }
+        }
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (username, email, password, first_name, last_name, birth_date, role, status, verified) "
+                    + "SELECT 'user' || i, 'user' || i || '@example.com', 'x', 'First', 'Last', DATE '1990-01-01', "
+                    + "CASE WHEN i % 10 = 0 THEN 'ARTIST' ELSE 'LISTENER' END, 'ACTIVE', true "
+                    + "FROM generate_series(1, " + USERS + ") i");
+            statement.execute("INSERT INTO albums (title, genre, artist_id) "
+                    + "SELECT 'album' || i, 'ROCK', (i % " + USERS + ") + 1 FROM generate_series(1, " + tracks / 10 + ") i");
+            statement.execute("INSERT INTO music (title, genre, duration, artist_id, album_id) "
+                    + "SELECT 'track' || i, "
+                    + "CASE WHEN i % 200 = 0 THEN 'JAZZ' ELSE (ARRAY['ROCK','POP','RAP','METAL','CLASSICAL','COUNTRY','ELECTRONIC','OTHER'])[i % 8 + 1] END, "
+                    + "180, (i * 7 % " + USERS + ") + 1, (i % " + tracks / 10 + ") + 1 "
+                    + "FROM generate_series(1, " + tracks + ") i");
+            statement.execute("INSERT INTO playlists (name, user_id) "
+                    + "SELECT 'playlist' || i, (i % " + USERS + ") + 1 FROM generate_series(1, " + PLAYLISTS + ") i");
+            // 20 entries per playlist; the stride keeps (playlist_id, music_id) unique
+            statement.execute("INSERT INTO playlist_music (id, playlist_id, music_id, position) "
+                    + "SELECT i + 1, (i / 20) % " + PLAYLISTS + " + 1, (i::bigint * 7919) % " + tracks + " + 1, i % 20 "
+                    + "FROM generate_series(0, " + (PLAYLIST_ENTRIES - 1) + ") i");
+            statement.execute("INSERT INTO listens (user_id, music_id, count) "
+                    + "SELECT (i / 50) % " + USERS + " + 1, (i::bigint * 104729) % " + tracks + " + 1, 1 "
+                    + "FROM generate_series(0, " + (LISTENS - 1) + ") i");
+            statement.execute("INSERT INTO user_genre_affinity (user_id, genre, score) "
+                    + "SELECT u, g, (u * 31 + length(g)) % 1000 FROM generate_series(1, " + USERS + ") u, "
+                    + "unnest(ARRAY['ROCK','POP','RAP','METAL','JAZZ']) g");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private void explain() throws SQLException {
+        System.out.printf("%n=== Plans at migration %s ===%n", migration);
+        explain(TRACKS_BY_GENRE.replaceFirst("\\?", "'JAZZ'").replaceFirst("\\?", String.valueOf(tracks / 2)));
+        explain(TRACKS_BY_ARTIST.replace("?", "42"));
+        explain(PLAYLISTS_BY_OWNER.replace("?", "42"));
+        explain(TOP_AFFINITIES.replace("?", "42"));
+        connection.setAutoCommit(false);
+        explain(REMOVE_FROM_PLAYLISTS.replace("?", "42"));
+        explain(DELETE_LISTENS.replace("?", "42"));
+        connection.rollback();
+    }
+
+    private void explain(String sql) throws SQLException {
+        System.out.println(sql);
+        try (Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+            while (plan.next()) {
+                System.out.println("  " + plan.getString(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.spotify_final_project.benchmark;
+
+import com.spotify_final_project.dto.Artist.ArtistGenre;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.repository.MusicRepository;
+import com.spotify_final_project.service.ArtistGenreIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.spotify_final_project.benchmark.RepositoryStubs.stub;
+
+/**
+ * The similar-artists ranking behind ArtistService.getArtistProfile, over a catalog of {@code artists}
+ * artists with one to three genres each. rebuild is the index build after a catalog change; rebuildAndRank
+ * adds the first ranking of one artist (the cold profile request); cached is every later request.
+ * Run with {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.include=SimilarArtists}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimilarArtistsBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int artists;
+
+    private ArtistGenreIndex index;
+    private long artistId;
+
+    @Setup
+    public void setUp() {
+        GenreType[] genres = GenreType.values();
+        SplittableRandom random = new SplittableRandom(42);
+        List<ArtistGenre> rows = new ArrayList<>();
+        for (long id = 1; id <= artists; id++) {
+            int count = 1 + random.nextInt(3);
+            for (int g = 0; g < count; g++) {
+                rows.add(new ArtistGenre(id, "artist" + id, genres[random.nextInt(genres.length)]));
+            }
+        }
+        index = new ArtistGenreIndex(stub(MusicRepository.class, Map.of("findDistinctArtistGenres", args -> rows)));
+        artistId = artists / 2;
+    }
+
+    @Benchmark
+    public Set<GenreType> rebuild() {
+        index.invalidate();
+        return index.getGenres(artistId);
+    }
+
+    @Benchmark
+    public List<String> rebuildAndRank() {
+        index.invalidate();
+        return index.getSimilarArtists(artistId);
+    }
+
+    @Benchmark
+    public List<String> cached() {
+        return index.getSimilarArtists(artistId);
+    }
+}
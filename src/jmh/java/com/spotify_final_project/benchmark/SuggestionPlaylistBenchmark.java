@@ -0,0 +1,75 @@
+package com.spotify_final_project.benchmark;
+
+import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.model.Music;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.model.UserGenreAffinity;
+import com.spotify_final_project.repository.MusicRepository;
+import com.spotify_final_project.repository.UserGenreAffinityRepository;
+import com.spotify_final_project.repository.UserRepository;
+import com.spotify_final_project.service.SuggestionPlaylistService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.spotify_final_project.benchmark.RepositoryStubs.stub;
+
+/**
+ * The work SuggestionPlaylistService.generateSessionPlaylists does around its queries: picking the user's
+ * top genres and mapping {@code pageSizePerGenre} tracks for each into the per-genre map. The repositories
+ * are stubs returning prebuilt rows, so database time is left out.
+ * Run with {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.include=SuggestionPlaylist}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestionPlaylistBenchmark {
+
+    private static final List<GenreType> TOP_GENRES = List.of(GenreType.ROCK, GenreType.JAZZ, GenreType.POP);
+
+    @Param({"10", "50", "200"})
+    public int pageSizePerGenre;
+
+    private SuggestionPlaylistService suggestionPlaylistService;
+
+    @Setup
+    public void setUp() {
+        Map<GenreType, List<Music>> tracksByGenre = new EnumMap<>(GenreType.class);
+        List<UserGenreAffinity> affinities = new ArrayList<>();
+        for (GenreType genre : TOP_GENRES) {
+            affinities.add(new UserGenreAffinity().setUserId(1L).setGenre(genre).setScore(100L - affinities.size()));
+            tracksByGenre.put(genre, tracks(genre));
+        }
+        UserRepository userRepository = stub(UserRepository.class, Map.of("existsById", args -> true));
+        UserGenreAffinityRepository affinityRepository = stub(UserGenreAffinityRepository.class,
+                Map.of("findTop3ByUserIdOrderByScoreDesc", args -> affinities));
+        MusicRepository musicRepository = stub(MusicRepository.class,
+                Map.of("findAllByGenre", args -> tracksByGenre.get((GenreType) args[0])));
+
+        suggestionPlaylistService = new SuggestionPlaylistService(affinityRepository, musicRepository, userRepository);
+    }
+
+    @Benchmark
+    public Map<GenreType, List<MusicResponse>> generateSessionPlaylists() {
+        return suggestionPlaylistService.generateSessionPlaylists(1L, 0, pageSizePerGenre);
+    }
+
+    private List<Music> tracks(GenreType genre) {
+        List<Music> tracks = new ArrayList<>(pageSizePerGenre);
+        for (int i = 0; i < pageSizePerGenre; i++) {
+            User artist = new User().setUsername("artist" + i % 20);
+            Music music = new Music().setTitle(genre + "-" + i).setGenre(genre).setDuration(180).setArtist(artist);
+            music.setId((long) i);
+            tracks.add(music);
+        }
+        return tracks;
+    }
+}
@@ -4,11 +4,13 @@ import com.spotify_final_project.enums.AccountStatus;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+@Slf4j
 @Configuration
 public class DataInitializer {
 
@@ -29,7 +31,7 @@ public class DataInitializer {
                         .setStatus(AccountStatus.ACTIVE);
 
                 userRepository.save(artistUser);
-                System.out.println("Default artist user created: string / string");
+                log.info("Default artist user created: string / string");
             }
 
             // Create default listener user
@@ -46,7 +48,7 @@ public class DataInitializer {
                         .setStatus(AccountStatus.ACTIVE);
 
                 userRepository.save(listenerUser);
-                System.out.println("Default listener user created: string1 / string1");
+                log.info("Default listener user created: string1 / string1");
             }
 
             // Create default admin user
@@ -63,7 +65,7 @@ public class DataInitializer {
                         .setStatus(AccountStatus.ACTIVE);
 
                 userRepository.save(adminUser);
-                System.out.println("Default admin user created: admin / admin");
+                log.info("Default admin user created: admin / admin");
             }
         };
     }
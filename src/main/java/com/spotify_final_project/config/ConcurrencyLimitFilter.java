@@ -0,0 +1,101 @@
+package com.spotify_final_project.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spotify_final_project.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests in progress. On platform threads Tomcat's thread pool already does this; on
+ * virtual threads every accepted connection gets a thread, and without a cap thousands of them queue up for
+ * a handful of database connections until Hikari's connection timeout fails them all at once. Requests that
+ * can't get a slot within {@code maxWaitMillis} get a 503 right away. A limit of 0 disables the filter.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(@Value("${app.concurrency.max-in-flight-requests:0}") int maxInFlight,
+                                  @Value("${app.concurrency.max-wait-ms:1000}") long maxWaitMillis,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                  ObjectMapper objectMapper,
+                                  Environment environment) {
+        this.permits = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+        this.maxWaitMillis = maxWaitMillis;
+        this.objectMapper = objectMapper;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            if (maxInFlight <= 0) {
+                log.warn("Virtual threads are on but app.concurrency.max-in-flight-requests is not set; "
+                        + "request concurrency is only bounded by the {} database connections' timeout", poolSize);
+            } else {
+                log.info("Virtual threads are on: at most {} requests in flight over {} database connections", maxInFlight, poolSize);
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (permits == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(request, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        ErrorResponse body = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message("Server is busy, please retry shortly")
+                .endpoint(request.getRequestURI())
+                .build();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -12,12 +12,18 @@ import java.util.List;
 @Setter
 @Getter
 public class CustomAuthentication implements Authentication {
+    private final Long userId;
     private final String role;
     private final String email;
     private final String username;
     private boolean authenticated;
 
     public CustomAuthentication(String role, String email, String username) {
+        this(null, role, email, username);
+    }
+
+    public CustomAuthentication(Long userId, String role, String email, String username) {
+        this.userId = userId;
         this.role = role;
         this.email = email;
         this.username = username;
@@ -27,9 +33,7 @@ public class CustomAuthentication implements Authentication {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        Collection<? extends GrantedAuthority> auths = List.of(new SimpleGrantedAuthority("ROLE_" + role));
-        System.out.println("CustomAuthentication.getAuthorities(): " + auths);
-        return auths;
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
     }
 
     @Override
@@ -0,0 +1,32 @@
+package com.spotify_final_project.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Synthetic catalog and listen history for local load tests (SyntheticDataLoader). Everything is derived from
+ * {@code seed}, so the same settings always produce the same rows. Track popularity, plays per listen row
+ * and playlist sizes follow power laws with the given exponents; {@code listens} is the number of rows in
+ * the listens table (distinct listener/track pairs), not the number of plays.
+ */
+@ConfigurationProperties(prefix = "app.generator")
+public record DataGeneratorProperties(@DefaultValue("false") boolean enabled,
+                                      @DefaultValue("42") long seed,
+                                      @DefaultValue("2000") int artists,
+                                      @DefaultValue("20000") int albums,
+                                      @DefaultValue("200000") int tracks,
+                                      @DefaultValue("100000") int listeners,
+                                      @DefaultValue("10000000") long listens,
+                                      @DefaultValue("50000") int playlists,
+                                      @DefaultValue("500") int maxPlaylistSize,
+                                      @DefaultValue("1.0") double trackPopularityExponent,
+                                      @DefaultValue("2.0") double playCountExponent,
+                                      @DefaultValue("1.5") double playlistSizeExponent,
+                                      @DefaultValue("password") String password) {
+
+    public DataGeneratorProperties {
+        if (artists < 1 || tracks < 1 || listeners < 1 || maxPlaylistSize < 1) {
+            throw new IllegalArgumentException("app.generator needs at least one artist, track and listener, and max-playlist-size >= 1");
+        }
+    }
+}
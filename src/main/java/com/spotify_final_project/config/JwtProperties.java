@@ -0,0 +1,21 @@
+package com.spotify_final_project.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * JWT key material. {@code secret} signs new tokens and is published under {@code kid};
+ * {@code verificationKeys} (kid -> secret) are keys that are still accepted while a rotation is in progress.
+ */
+@ConfigurationProperties(prefix = "app.security.jwt")
+public record JwtProperties(String secret,
+                            long expiration,
+                            @DefaultValue("default") String kid,
+                            Map<String, String> verificationKeys) {
+
+    public JwtProperties {
+        verificationKeys = verificationKeys == null ? Map.of() : Map.copyOf(verificationKeys);
+    }
+}
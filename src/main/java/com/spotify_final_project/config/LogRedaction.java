@@ -0,0 +1,33 @@
+package com.spotify_final_project.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Helpers for keeping credentials out of log output.
+ */
+public final class LogRedaction {
+
+    private static final int VISIBLE_HASH_BYTES = 6;
+
+    private LogRedaction() {
+    }
+
+    /**
+     * Shows a short SHA-256 prefix of a token and its length. Tokens share their leading characters
+     * (every HS256 JWT starts with the same header), so only the hash tells them apart.
+     */
+    public static String token(String token) {
+        if (token == null) {
+            return "null";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(digest, 0, VISIBLE_HASH_BYTES) + "(" + token.length() + " chars)";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
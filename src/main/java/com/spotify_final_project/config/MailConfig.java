@@ -0,0 +1,23 @@
+package com.spotify_final_project.config;
+
+import com.spotify_final_project.service.mail.InMemoryMailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * With app.mail.sink=memory mail is kept in memory instead of going to the SMTP server configured under
+ * spring.mail.*, which is only used otherwise (Boot backs off its own sender when this bean exists).
+ */
+@Configuration
+public class MailConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.mail.sink", havingValue = "memory")
+    public JavaMailSender inMemoryMailSender(@Value("${app.mail.memory.capacity:1000}") int capacity,
+                                             @Value("${app.mail.memory.latency-ms:0}") long latencyMillis) {
+        return new InMemoryMailSender(capacity, latencyMillis);
+    }
+}
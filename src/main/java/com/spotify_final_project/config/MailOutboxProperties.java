@@ -0,0 +1,20 @@
+package com.spotify_final_project.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning of the outgoing mail queue. A failed mail is retried after {@code initialBackoff}, doubling up to
+ * {@code maxBackoff}, until it has been tried {@code maxAttempts} times. A worker that claimed a batch owns
+ * it for {@code lease}; after that the mails are picked up again (e.g. when the instance died mid-send).
+ */
+@ConfigurationProperties(prefix = "app.mail.outbox")
+public record MailOutboxProperties(@DefaultValue("50") int batchSize,
+                                   @DefaultValue("4") int workers,
+                                   @DefaultValue("8") int maxAttempts,
+                                   @DefaultValue("30s") Duration initialBackoff,
+                                   @DefaultValue("1h") Duration maxBackoff,
+                                   @DefaultValue("5m") Duration lease,
+                                   @DefaultValue("7d") Duration sentRetention) {}
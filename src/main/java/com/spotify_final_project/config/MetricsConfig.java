@@ -0,0 +1,63 @@
+package com.spotify_final_project.config;
+
+import com.spotify_final_project.service.ListenService;
+import com.spotify_final_project.service.PasswordHashingService;
+import com.spotify_final_project.service.PrincipalCacheService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application meters on top of what Boot records by itself (http.server.requests per endpoint,
+ * spring.data.repository.invocations per repository method, hibernate.* from the session factory
+ * statistics, hikaricp.* per pool and tasks.scheduled.execution per @Scheduled method). All of it is
+ * scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer(StatementCountingInspector inspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    // Gauges read the counters the services already keep for their stats endpoints, only when scraped
+    @Bean
+    public MeterBinder listenFlushMetrics(ListenService listenService) {
+        return registry -> {
+            Gauge.builder("listens.pending", listenService, s -> s.getFlushStats().pendingEvents())
+                    .description("Plays buffered for the next flush")
+                    .register(registry);
+            FunctionCounter.builder("listens.flushed", listenService, s -> s.getFlushStats().flushedEvents())
+                    .register(registry);
+            FunctionCounter.builder("listens.dropped", listenService, s -> s.getFlushStats().droppedEvents())
+                    .description("Plays dropped because the pending buffer was full")
+                    .register(registry);
+            FunctionCounter.builder("listens.flush.failures", listenService, s -> s.getFlushStats().failedFlushCount())
+                    .register(registry);
+            Gauge.builder("listens.flush.last.duration", listenService, s -> s.getFlushStats().lastFlushMillis())
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder securityMetrics(PrincipalCacheService principalCacheService,
+                                       PasswordHashingService passwordHashingService) {
+        return registry -> {
+            Gauge.builder("security.principal.cache.size", principalCacheService, PrincipalCacheService::size)
+                    .register(registry);
+            Gauge.builder("security.principal.cache.hit.ratio", principalCacheService, PrincipalCacheService::hitRate)
+                    .register(registry);
+            Gauge.builder("security.password.hashing.queued", passwordHashingService, PasswordHashingService::getQueuedCount)
+                    .register(registry);
+            FunctionCounter.builder("security.password.hashing.rejected", passwordHashingService, PasswordHashingService::getRejectedCount)
+                    .description("Logins and registrations turned away with a 503 because hashing was saturated")
+                    .register(registry);
+        };
+    }
+}
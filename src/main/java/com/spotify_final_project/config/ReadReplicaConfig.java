@@ -0,0 +1,80 @@
+package com.spotify_final_project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Only active when at least one replica is configured (app.datasource.read-replicas.replicas[0].url);
+ * otherwise Boot's single pool on spring.datasource.* is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.read-replicas.replicas[0].url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primaryProperties,
+                                                             ReadReplicaProperties replicaProperties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReadReplicaProperties.Replica> configured = replicaProperties.replicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReadReplicaProperties.Replica replica = configured.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setUsername(replica.username() != null ? replica.username() : primaryProperties.determineUsername());
+            dataSource.setPassword(replica.password() != null ? replica.password() : primaryProperties.determinePassword());
+            dataSource.setMaximumPoolSize(replicaProperties.maximumPoolSize());
+            dataSource.setReadOnly(true);
+            // Not beans, so Boot doesn't bind their hikaricp.* metrics; the pool does it itself
+            meterRegistry.ifAvailable(dataSource::setMetricRegistry);
+            replicas.put("replica-" + i, dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, replicaProperties.maxLag(),
+                replicaProperties.stickiness(), replicaProperties.lagQuery());
+    }
+
+    @Bean
+    public MeterBinder replicaHealthMetrics(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                           ReadReplicaProperties replicaProperties) {
+        return registry -> {
+            for (int i = 0; i < replicaProperties.replicas().size(); i++) {
+                String replica = "replica-" + i;
+                // Unchecked replicas serve reads, same as in the routing
+                Gauge.builder("db.replica.healthy", replicaRoutingDataSource,
+                                routing -> routing.getReplicaHealth().getOrDefault(replica, Boolean.TRUE) ? 1 : 0)
+                        .description("1 while the replica serves reads, 0 while it lags or is unreachable")
+                        .tag("replica", replica)
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,34 @@
+package com.spotify_final_project.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas for read-only transactions. A replica lagging more than {@code maxLag} behind the primary (or
+ * not answering {@code lagQuery}, which returns the lag in seconds) gets no reads until it catches up. After a
+ * user's write commits, their reads stay on the primary for {@code stickiness}, so they see their own changes.
+ */
+@ConfigurationProperties(prefix = "app.datasource.read-replicas")
+public record ReadReplicaProperties(List<Replica> replicas,
+                                    @DefaultValue("5s") Duration maxLag,
+                                    @DefaultValue("10s") Duration stickiness,
+                                    @DefaultValue("10") int maximumPoolSize,
+                                    @DefaultValue(DEFAULT_LAG_QUERY) String lagQuery) {
+
+    // 0 when the replica has replayed everything it received, or isn't a standby at all
+    public static final String DEFAULT_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    public ReadReplicaProperties {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+    }
+
+    /**
+     * Username and password default to the primary's (spring.datasource.*).
+     */
+    public record Replica(String url, String username, String password) {}
+}
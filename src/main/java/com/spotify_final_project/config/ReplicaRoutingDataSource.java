@@ -0,0 +1,190 @@
+package com.spotify_final_project.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and everything else to the primary.
+ * Falls back to the primary when every replica lags too far behind, or when the current user wrote
+ * something within the stickiness window.
+ * <p>
+ * The lookup happens when a connection is fetched, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: JPA fetches the connection when
+ * the transaction begins, before the read-only flag is visible, and the proxy defers that to the first statement.
+ * <p>
+ * Reads that must not see replication lag (security lookups, cache refills after plain SQL writes) use
+ * {@link #onPrimary} or {@link #holdReadsOnPrimary()}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> FORCED_PRIMARY = new ThreadLocal<>();
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Duration maxLag;
+    private final String lagQuery;
+
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // Users whose recent writes the replicas may not have yet
+    private final Cache<String, Boolean> recentWriters;
+    // System.nanoTime() until which every read goes to the primary
+    private volatile long primaryOnlyUntil = System.nanoTime();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    Duration maxLag,
+                                    Duration stickiness,
+                                    String lagQuery) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickiness)
+                .maximumSize(100_000)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Runs {@code work} with every connection it fetches routed to the primary, read-only or not.
+     * The transaction has to start inside {@code work}; one that is already bound keeps its connection.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCED_PRIMARY.get();
+        FORCED_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCED_PRIMARY.remove();
+            }
+        }
+    }
+
+    /**
+     * Sends all reads to the primary for the next max-lag. Called after evicting cached entities that were
+     * changed with plain SQL, so the entries aren't reloaded from a replica that hasn't replayed the change.
+     */
+    public void holdReadsOnPrimary() {
+        long until = System.nanoTime() + maxLag.toNanos();
+        if (until - primaryOnlyUntil > 0) {
+            primaryOnlyUntil = until;
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriterOnCommit();
+            return PRIMARY;
+        }
+        if (FORCED_PRIMARY.get() != null || System.nanoTime() - primaryOnlyUntil < 0) {
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return PRIMARY;
+        }
+        String replica = nextHealthyReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+
+    /**
+     * Measures every replica's lag; replicas that lag too much or fail the check are skipped until the next one.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.read-replicas.lag-check-interval-ms:1000}")
+    public void checkReplicaLag() {
+        replicas.forEach((key, dataSource) -> {
+            boolean ok;
+            try {
+                Double lagSeconds = new JdbcTemplate(dataSource).queryForObject(lagQuery, Double.class);
+                ok = lagSeconds == null || lagSeconds * 1000 <= maxLag.toMillis();
+                if (!ok) {
+                    log.debug("Replica {} lags {}s behind the primary", key, lagSeconds);
+                }
+            } catch (RuntimeException e) {
+                ok = false;
+                log.debug("Lag check on replica {} failed: {}", key, e.getMessage());
+            }
+            Boolean previous = healthy.put(key, ok);
+            if (previous == null || previous != ok) {
+                log.info("Replica {} is {}", key, ok ? "serving reads" : "out of rotation, reads go to the primary");
+            }
+        });
+    }
+
+    public Map<String, Boolean> getReplicaHealth() {
+        return Map.copyOf(healthy);
+    }
+
+    public void close() {
+        replicas.values().forEach(dataSource -> {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool", e);
+                }
+            }
+        });
+    }
+
+    private String nextHealthyReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            // Unchecked replicas count as healthy so reads don't wait for the first check
+            if (healthy.getOrDefault(key, Boolean.TRUE)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private void rememberWriterOnCommit() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
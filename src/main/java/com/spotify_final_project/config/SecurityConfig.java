@@ -1,8 +1,12 @@
 package com.spotify_final_project.config;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,20 +15,26 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableMethodSecurity(securedEnabled = true)
 public class SecurityConfig {
 
+    // Raising the strength rehashes each user's password on their next login (see UserService.login)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http,
                                            @Qualifier("JwtBasedAuthenticationFilter")
-                                           JwtBasedAuthentication jwtBasedAuthentication) throws Exception {
+                                           JwtBasedAuthentication jwtBasedAuthentication,
+                                           Environment environment) throws Exception {
+        // The actuator's own port is internal (not routed by the load balancer), so scrapes need no credentials there
+        boolean separateManagementPort = ManagementPortType.get(environment) == ManagementPortType.DIFFERENT;
+        RequestMatcher actuatorEndpoint = EndpointRequest.toAnyEndpoint();
 
         http
                 // Disable CSRF for REST APIs
@@ -35,6 +45,9 @@ public class SecurityConfig {
 
                 // Authorization rules
                 .authorizeHttpRequests(auth -> auth
+                        // ✅ Actuator endpoints on the management port
+                        .requestMatchers(request -> separateManagementPort && actuatorEndpoint.matches(request)).permitAll()
+
                         // ✅ Public endpoints
                         .requestMatchers(
                                 "/users/login",
@@ -42,10 +55,14 @@ public class SecurityConfig {
                                 "/users/verify",
                                 "/admin/register",
                                 "/swagger-ui/**",
-                                "/v3/api-docs/**"
+                                "/v3/api-docs/**",
+                                "/actuator/health"
                         ).permitAll()
 
                         // ✅ Admin-only endpoints
+                        // Only reachable here when the actuator shares the API port: metrics expose endpoint URIs,
+                        // repository names and pool sizes
+                        .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/admin/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/admin/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/admin/**").hasRole("ADMIN")
@@ -0,0 +1,37 @@
+package com.spotify_final_project.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and
+ * {@link #stop()}. Hibernate's own statistics are global, so they can't tell which request issued what;
+ * this is what StatementMetricsFilter reports per endpoint. Threads that never called start() aren't counted.
+ */
+@Component
+public class StatementCountingInspector implements StatementInspector {
+
+    private final ThreadLocal<long[]> counts = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = counts.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        counts.set(new long[1]);
+    }
+
+    /**
+     * Statements prepared since start(), and stops counting on this thread.
+     */
+    public long stop() {
+        long[] count = counts.get();
+        counts.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,57 @@
+package com.spotify_final_project.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, as the hibernate.statements.per.request summary
+ * tagged like http.server.requests (method and uri template). Runs right after ConcurrencyLimitFilter, so
+ * lookups made by the JWT filter count towards the request too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "hibernate.statements.per.request";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final StatementCountingInspector inspector;
+    private final MeterRegistry meterRegistry;
+
+    public StatementMetricsFilter(StatementCountingInspector inspector, MeterRegistry meterRegistry) {
+        this.inspector = inspector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        inspector.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = inspector.stop();
+            // Set by the handler mapping during dispatch; unmatched requests (404s, rejected ones) share one tag
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC)
+                    .description("SQL statements prepared while handling a request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : UNKNOWN_URI)
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.spotify_final_project.controller;
 
+import com.spotify_final_project.dto.cache.CacheRegionStats;
+import com.spotify_final_project.dto.listen.ListenFlushStats;
+import com.spotify_final_project.dto.mail.MailOutboxStats;
+import com.spotify_final_project.dto.playlist.PlaylistResponse;
+import com.spotify_final_project.dto.response.CursorPage;
+import com.spotify_final_project.dto.user.UserDeletionStatus;
+import com.spotify_final_project.enums.DeletionState;
 import com.spotify_final_project.model.Album;
 import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.Playlist;
 import com.spotify_final_project.model.User;
 import com.spotify_final_project.service.AdminService;
 import com.spotify_final_project.service.AuthorizationService;
+import com.spotify_final_project.service.EntityCacheService;
+import com.spotify_final_project.service.ListenService;
+import com.spotify_final_project.service.MailOutboxWorker;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -22,14 +32,27 @@ public class AdminController {
 
     private final AdminService adminService;
     private final AuthorizationService authorizationService;
+    private final ListenService listenService;
+    private final EntityCacheService entityCacheService;
+    private final MailOutboxWorker mailOutboxWorker;
 
     // ===== User Management =====
     @Secured("ROLE_ADMIN")
     @DeleteMapping("/user/{userId}")
-    @Operation(summary = "Delete a user")
-    public ResponseEntity<String> deleteUser(@PathVariable Long userId) {
-        adminService.deleteUser(userId);
-        return ResponseEntity.ok("User deleted with id: " + userId);
+    @Operation(summary = "Delete a user and everything they own (202 when it continues in the background)")
+    public ResponseEntity<UserDeletionStatus> deleteUser(@PathVariable Long userId) {
+        UserDeletionStatus status = adminService.deleteUser(userId);
+        if (status.state() == DeletionState.RUNNING) {
+            return ResponseEntity.accepted().body(status);
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @Secured("ROLE_ADMIN")
+    @GetMapping("/user/{userId}/deletion")
+    @Operation(summary = "Progress of a user deletion")
+    public ResponseEntity<UserDeletionStatus> getUserDeletionStatus(@PathVariable Long userId) {
+        return ResponseEntity.ok(adminService.getUserDeletionStatus(userId));
     }
 
     @Secured("ROLE_ADMIN")
@@ -110,10 +133,10 @@ public class AdminController {
     @Secured("ROLE_ADMIN")
     @PutMapping("/playlist/{playlistId}")
     @Operation(summary = "Update any playlist")
-    public ResponseEntity<Playlist> updatePlaylist(
+    public ResponseEntity<PlaylistResponse> updatePlaylist(
             @PathVariable Long playlistId,
             @RequestBody Playlist updatedPlaylist) {
-        Playlist playlist = adminService.updatePlaylist(playlistId, updatedPlaylist);
+        PlaylistResponse playlist = adminService.updatePlaylist(playlistId, updatedPlaylist);
         return ResponseEntity.ok(playlist);
     }
 
@@ -124,17 +147,50 @@ public class AdminController {
             @RequestBody Playlist playlist,
             HttpServletRequest request) {
 
-        User admin = authorizationService.getLoggedInUser(request);
+        Long adminId = authorizationService.getLoggedInUserId(request);
 
-        Playlist created = adminService.createAdminPlaylist(playlist, admin.getId());
+        Playlist created = adminService.createAdminPlaylist(playlist, adminId);
         return ResponseEntity.ok(created);
     }
 
     @Secured("ROLE_ADMIN")
     @GetMapping
-    @Operation(summary = "Get all playlists")
-    public ResponseEntity<List<Playlist>> getAllPlaylists() {
-        return ResponseEntity.ok(adminService.getAllPlaylists());
+    @Operation(summary = "Get all playlists, one page at a time (pass nextCursor as 'after')")
+    public ResponseEntity<CursorPage<PlaylistResponse>> getAllPlaylists(@RequestParam(required = false) Long after,
+                                                                        @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(adminService.getAllPlaylists(after, limit));
+    }
+
+    // ===== Second-level Cache =====
+    @Secured("ROLE_ADMIN")
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Hit/miss counters per second-level cache region")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(entityCacheService.getRegionStats());
+    }
+
+    @Secured("ROLE_ADMIN")
+    @DeleteMapping("/cache")
+    @Operation(summary = "Evict every second-level cache region (e.g. after editing the database by hand)")
+    public ResponseEntity<String> evictCaches() {
+        entityCacheService.evictAll();
+        return ResponseEntity.ok("Second-level cache cleared");
+    }
+
+    // ===== Listen Tracking =====
+    @Secured("ROLE_ADMIN")
+    @GetMapping("/listens/flush-stats")
+    @Operation(summary = "Pending listen deltas and flush latency")
+    public ResponseEntity<ListenFlushStats> getListenFlushStats() {
+        return ResponseEntity.ok(listenService.getFlushStats());
+    }
+
+    // ===== Outgoing Mail =====
+    @Secured("ROLE_ADMIN")
+    @GetMapping("/mail/outbox-stats")
+    @Operation(summary = "Mail outbox backlog and send throughput")
+    public ResponseEntity<MailOutboxStats> getMailOutboxStats() {
+        return ResponseEntity.ok(mailOutboxWorker.getStats());
     }
 
 }
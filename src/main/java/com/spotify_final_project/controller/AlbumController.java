@@ -2,7 +2,7 @@ package com.spotify_final_project.controller;
 
 import com.spotify_final_project.dto.album.AlbumRequest;
 import com.spotify_final_project.dto.album.AlbumResponse;
-import com.spotify_final_project.model.User;
+import com.spotify_final_project.dto.response.CursorPage;
 import com.spotify_final_project.service.AlbumService;
 import com.spotify_final_project.service.AuthorizationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,8 +14,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/albums")
 @RequiredArgsConstructor
@@ -33,8 +31,8 @@ public class AlbumController {
     )
     public ResponseEntity<AlbumResponse> createAlbum(@RequestBody @Valid AlbumRequest request,
                                                      HttpServletRequest httpRequest) {
-        User artist = authorizationService.getLoggedInUser(httpRequest);
-        AlbumResponse response = albumService.createAlbum(request, artist.getId());
+        Long artistId = authorizationService.getLoggedInUserId(httpRequest);
+        AlbumResponse response = albumService.createAlbum(request, artistId);
         return ResponseEntity.ok(response);
     }
 
@@ -48,8 +46,8 @@ public class AlbumController {
     public ResponseEntity<AlbumResponse> updateAlbum(@PathVariable Long id,
                                                      @RequestBody @Valid AlbumRequest request,
                                                      HttpServletRequest httpRequest) {
-        User requester = authorizationService.getLoggedInUser(httpRequest);
-        AlbumResponse response = albumService.updateAlbum(id, request, requester.getId());
+        Long requesterId = authorizationService.getLoggedInUserId(httpRequest);
+        AlbumResponse response = albumService.updateAlbum(id, request, requesterId);
         return ResponseEntity.ok(response);
     }
 
@@ -62,8 +60,8 @@ public class AlbumController {
     )
     public ResponseEntity<String> deleteAlbum(@PathVariable Long id,
                                               HttpServletRequest httpRequest) {
-        User requester = authorizationService.getLoggedInUser(httpRequest);
-        albumService.deleteAlbum(id, requester.getId());
+        Long requesterId = authorizationService.getLoggedInUserId(httpRequest);
+        albumService.deleteAlbum(id, requesterId);
         return ResponseEntity.ok("Album deleted successfully");
     }
 
@@ -75,9 +73,10 @@ public class AlbumController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all albums")
-    public ResponseEntity<List<AlbumResponse>> getAllAlbums() {
-        List<AlbumResponse> albums = albumService.getAllAlbums();
+    @Operation(summary = "Get all albums, one page at a time (pass nextCursor as 'after')")
+    public ResponseEntity<CursorPage<AlbumResponse>> getAllAlbums(@RequestParam(required = false) Long after,
+                                                                  @RequestParam(defaultValue = "20") int limit) {
+        CursorPage<AlbumResponse> albums = albumService.getAllAlbums(after, limit);
         return ResponseEntity.ok(albums);
     }
 }
\ No newline at end of file
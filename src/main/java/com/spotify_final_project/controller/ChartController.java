@@ -0,0 +1,29 @@
+package com.spotify_final_project.controller;
+
+import com.spotify_final_project.dto.chart.ChartResponse;
+import com.spotify_final_project.enums.ChartWindow;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.service.ChartService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/charts")
+@RequiredArgsConstructor
+public class ChartController {
+
+    private final ChartService chartService;
+
+    @GetMapping("/top")
+    @Operation(summary = "Most played tracks in the last hour (1h), day (24h) or week (7d), optionally per genre")
+    public ResponseEntity<ChartResponse> getTopTracks(@RequestParam(defaultValue = "24h") String window,
+                                                      @RequestParam(required = false) GenreType genre,
+                                                      @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(chartService.getTopTracks(ChartWindow.fromParam(window), genre, limit));
+    }
+}
@@ -1,6 +1,5 @@
 package com.spotify_final_project.controller;
 
-import com.spotify_final_project.model.User;
 import com.spotify_final_project.service.AuthorizationService;
 import com.spotify_final_project.service.MusicAddService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,8 +22,8 @@ public class MusicAddController {
     public ResponseEntity<String> addToPlaylist(@PathVariable Long playlistId,
                                                 @PathVariable Long musicId,
                                                 HttpServletRequest request) {
-        User user = authorizationService.getLoggedInUser(request);
-        musicService.addMusicToPlaylist(playlistId, musicId, user.getId());
+        Long userId = authorizationService.getLoggedInUserId(request);
+        musicService.addMusicToPlaylist(playlistId, musicId, userId);
         return ResponseEntity.ok("Music added to playlist successfully");
     }
 }
\ No newline at end of file
@@ -2,9 +2,8 @@ package com.spotify_final_project.controller;
 
 import com.spotify_final_project.dto.music.MusicRequest;
 import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.dto.response.CursorPage;
 import com.spotify_final_project.enums.GenreType;
-import com.spotify_final_project.model.Music;
-import com.spotify_final_project.model.User;
 import com.spotify_final_project.service.AuthorizationService;
 import com.spotify_final_project.service.ListenService;
 import com.spotify_final_project.service.MusicService;
@@ -13,6 +12,8 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -37,8 +38,8 @@ public class MusicController {
     )
     public ResponseEntity<MusicResponse> addMusic(@RequestBody @Valid MusicRequest request,
                                                   HttpServletRequest httpRequest) {
-        User user = authorizationService.getLoggedInUser(httpRequest);
-        MusicResponse response = musicService.createMusic(request, user.getId());
+        Long userId = authorizationService.getLoggedInUserId(httpRequest);
+        MusicResponse response = musicService.createMusic(request, userId);
         return ResponseEntity.ok(response);
     }
 
@@ -52,8 +53,8 @@ public class MusicController {
     public ResponseEntity<MusicResponse> updateMusic(@PathVariable Long id,
                                                      @RequestBody @Valid MusicRequest request,
                                                      HttpServletRequest httpRequest) {
-        User user = authorizationService.getLoggedInUser(httpRequest);
-        MusicResponse response = musicService.updateMusic(id, request, user.getId());
+        Long userId = authorizationService.getLoggedInUserId(httpRequest);
+        MusicResponse response = musicService.updateMusic(id, request, userId);
         return ResponseEntity.ok(response);
     }
 
@@ -66,8 +67,8 @@ public class MusicController {
     )
     public ResponseEntity<String> deleteMusic(@PathVariable Long id,
                                               HttpServletRequest httpRequest) {
-        User user = authorizationService.getLoggedInUser(httpRequest);
-        musicService.deleteMusic(id, user.getId());
+        Long userId = authorizationService.getLoggedInUserId(httpRequest);
+        musicService.deleteMusic(id, userId);
         return ResponseEntity.ok("Music deleted successfully");
     }
 
@@ -75,48 +76,69 @@ public class MusicController {
     @Operation(summary = "Get music by ID")
     public ResponseEntity<MusicResponse> getMusicById(@PathVariable Long id, HttpServletRequest request) {
         MusicResponse response = musicService.getMusicById(id);
-        User user = authorizationService.getLoggedInUser(request);
-        Music music = musicService.getMusicEntityById(id);
-        listenService.incrementListenCount(user, music);
+        // getMusicById already rejected unknown ids, so only the caller's id is needed here
+        Long userId = authorizationService.getLoggedInUserId(request);
+        listenService.incrementListenCount(userId, id);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/{id}/listens")
+    @Operation(summary = "Report a play of a track and how many seconds of it were played")
+    public ResponseEntity<Void> recordListen(@PathVariable Long id,
+                                             @RequestParam(required = false) @Min(0) Integer durationPlayed,
+                                             HttpServletRequest request) {
+        musicService.requireMusicExists(id); // 404 for unknown tracks
+        Long userId = authorizationService.getLoggedInUserId(request);
+        listenService.recordListen(userId, id, durationPlayed);
+        return ResponseEntity.accepted().build();
+    }
+
     @GetMapping
-    @Operation(summary = "Get all musics")
-    public ResponseEntity<List<MusicResponse>> getAllMusics() {
-        List<MusicResponse> musics = musicService.getAllMusics();
+    @Operation(summary = "Get all musics, one page at a time (pass nextCursor as 'after')")
+    public ResponseEntity<CursorPage<MusicResponse>> getAllMusics(@RequestParam(required = false) Long after,
+                                                                  @RequestParam(defaultValue = "20") int limit) {
+        CursorPage<MusicResponse> musics = musicService.getAllMusics(after, limit);
         return ResponseEntity.ok(musics);
     }
 
     @GetMapping("/search/title")
-    public ResponseEntity<List<Music>> searchByTitle(@RequestParam("q") String title) {
-        List<Music> results = musicService.searchByTitle(title);
+    @Operation(summary = "Search music by title, best matches first")
+    public ResponseEntity<List<MusicResponse>> searchByTitle(@RequestParam("q") @Size(min = MusicService.MIN_SEARCH_LENGTH) String title,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size) {
+        List<MusicResponse> results = musicService.searchByTitle(title, page, size);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/search/artist")
-    public ResponseEntity<List<Music>> searchByArtist(@RequestParam("q") String artistUsername) {
-        List<Music> results = musicService.searchByArtist(artistUsername);
+    @Operation(summary = "Search music by artist username, best matches first")
+    public ResponseEntity<List<MusicResponse>> searchByArtist(@RequestParam("q") @Size(min = MusicService.MIN_SEARCH_LENGTH) String artistUsername,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        List<MusicResponse> results = musicService.searchByArtist(artistUsername, page, size);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Music>> searchByTitleOrArtist(@RequestParam("q") String keyword) {
-        List<Music> results = musicService.searchByTitleOrArtist(keyword);
+    @Operation(summary = "Search music by title or artist username, best matches first")
+    public ResponseEntity<List<MusicResponse>> searchByTitleOrArtist(@RequestParam("q") @Size(min = MusicService.MIN_SEARCH_LENGTH) String keyword,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        List<MusicResponse> results = musicService.searchByTitleOrArtist(keyword, page, size);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/genre/{genre}")
     @Operation(summary = "Get all music by genre")
-    public ResponseEntity<List<Music>> getMusicByGenre(@PathVariable GenreType genre) {
-        List<Music> musics = musicService.getMusicByGenre(genre);
+    public ResponseEntity<List<MusicResponse>> getMusicByGenre(@PathVariable GenreType genre) {
+        List<MusicResponse> musics = musicService.getMusicByGenre(genre);
         return ResponseEntity.ok(musics);
     }
 
     @GetMapping("/artist/{artistId}")
     @Operation(summary = "Get all music by a specific artist")
-    public ResponseEntity<List<Music>> getMusicByArtist(@PathVariable Long artistId) {
-        List<Music> musics = musicService.getMusicByArtist(artistId);
+    public ResponseEntity<List<MusicResponse>> getMusicByArtist(@PathVariable Long artistId) {
+        List<MusicResponse> musics = musicService.getMusicByArtist(artistId);
         return ResponseEntity.ok(musics);
     }
 }
\ No newline at end of file
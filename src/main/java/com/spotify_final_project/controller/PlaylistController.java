@@ -2,8 +2,11 @@ package com.spotify_final_project.controller;
 
 import com.spotify_final_project.dto.playlist.CreatePlaylistRequest;
 import com.spotify_final_project.dto.playlist.PlaylistResponse;
-import com.spotify_final_project.model.User;
+import com.spotify_final_project.dto.playlist.PlaylistTracksRequest;
+import com.spotify_final_project.dto.playlist.PlaylistTracksResult;
+import com.spotify_final_project.dto.response.CursorPage;
 import com.spotify_final_project.service.AuthorizationService;
+import com.spotify_final_project.service.MusicAddService;
 import com.spotify_final_project.service.PlaylistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,14 +17,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/playlists")
 @RequiredArgsConstructor
 public class PlaylistController {
 
     private final PlaylistService playlistService;
+    private final MusicAddService musicAddService;
     private final AuthorizationService authorizationService;
 
     @PostMapping
@@ -33,8 +35,8 @@ public class PlaylistController {
     )
     public ResponseEntity<PlaylistResponse> createPlaylist(@RequestBody @Valid CreatePlaylistRequest request,
                                                            HttpServletRequest httpRequest) {
-        User user = authorizationService.getLoggedInUser(httpRequest);
-        PlaylistResponse response = playlistService.createPlaylist(request, user.getId());
+        Long userId = authorizationService.getLoggedInUserId(httpRequest);
+        PlaylistResponse response = playlistService.createPlaylist(request, userId);
         return ResponseEntity.ok(response);
     }
 
@@ -48,8 +50,8 @@ public class PlaylistController {
     public ResponseEntity<PlaylistResponse> updatePlaylist(@PathVariable Long id,
                                                            @RequestBody @Valid CreatePlaylistRequest request,
                                                            HttpServletRequest httpRequest) {
-        User user = authorizationService.getLoggedInUser(httpRequest);
-        PlaylistResponse response = playlistService.updatePlaylist(id, request, user.getId());
+        Long userId = authorizationService.getLoggedInUserId(httpRequest);
+        PlaylistResponse response = playlistService.updatePlaylist(id, request, userId);
         return ResponseEntity.ok(response);
     }
 
@@ -62,11 +64,53 @@ public class PlaylistController {
     )
     public ResponseEntity<String> deletePlaylist(@PathVariable Long id,
                                                  HttpServletRequest httpRequest) {
-        User user = authorizationService.getLoggedInUser(httpRequest);
-        playlistService.deletePlaylist(id, user.getId());
+        Long userId = authorizationService.getLoggedInUserId(httpRequest);
+        playlistService.deletePlaylist(id, userId);
         return ResponseEntity.ok("Playlist deleted successfully");
     }
 
+    @PostMapping("/{id}/tracks")
+    @Operation(
+            summary = "Append tracks to a playlist, skipping ones already in it (owner or admin)",
+            parameters = {
+                    @Parameter(name = "Authorization", in = ParameterIn.HEADER, required = true)
+            }
+    )
+    public ResponseEntity<PlaylistTracksResult> addTracks(@PathVariable Long id,
+                                                          @RequestBody @Valid PlaylistTracksRequest request,
+                                                          HttpServletRequest httpRequest) {
+        Long userId = authorizationService.getLoggedInUserId(httpRequest);
+        return ResponseEntity.ok(musicAddService.addTracks(id, request.getMusicIds(), userId));
+    }
+
+    @PostMapping("/{id}/tracks/remove")
+    @Operation(
+            summary = "Remove tracks from a playlist (owner or admin)",
+            parameters = {
+                    @Parameter(name = "Authorization", in = ParameterIn.HEADER, required = true)
+            }
+    )
+    public ResponseEntity<PlaylistTracksResult> removeTracks(@PathVariable Long id,
+                                                             @RequestBody @Valid PlaylistTracksRequest request,
+                                                             HttpServletRequest httpRequest) {
+        Long userId = authorizationService.getLoggedInUserId(httpRequest);
+        return ResponseEntity.ok(musicAddService.removeTracks(id, request.getMusicIds(), userId));
+    }
+
+    @PutMapping("/{id}/tracks/order")
+    @Operation(
+            summary = "Reorder a playlist; the body lists every track id in the new order (owner or admin)",
+            parameters = {
+                    @Parameter(name = "Authorization", in = ParameterIn.HEADER, required = true)
+            }
+    )
+    public ResponseEntity<PlaylistTracksResult> reorderTracks(@PathVariable Long id,
+                                                              @RequestBody @Valid PlaylistTracksRequest request,
+                                                              HttpServletRequest httpRequest) {
+        Long userId = authorizationService.getLoggedInUserId(httpRequest);
+        return ResponseEntity.ok(musicAddService.reorderTracks(id, request.getMusicIds(), userId));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get playlist by ID")
     public ResponseEntity<PlaylistResponse> getPlaylistById(@PathVariable Long id) {
@@ -75,9 +119,10 @@ public class PlaylistController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all playlists")
-    public ResponseEntity<List<PlaylistResponse>> getAllPlaylists() {
-        List<PlaylistResponse> playlists = playlistService.getAllPlaylists();
+    @Operation(summary = "Get all playlists, one page at a time (pass nextCursor as 'after')")
+    public ResponseEntity<CursorPage<PlaylistResponse>> getAllPlaylists(@RequestParam(required = false) Long after,
+                                                                        @RequestParam(defaultValue = "20") int limit) {
+        CursorPage<PlaylistResponse> playlists = playlistService.getAllPlaylists(after, limit);
         return ResponseEntity.ok(playlists);
     }
 }
@@ -1,8 +1,7 @@
 package com.spotify_final_project.controller;
 
+import com.spotify_final_project.dto.music.MusicResponse;
 import com.spotify_final_project.enums.GenreType;
-import com.spotify_final_project.model.Music;
-import com.spotify_final_project.model.User;
 import com.spotify_final_project.service.AuthorizationService;
 import com.spotify_final_project.service.SuggestionPlaylistService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,12 +23,12 @@ public class SuggestionPlaylistController {
     private final AuthorizationService authorizationService;
 
     @GetMapping("/playlists")
-    public Map<GenreType, List<Music>> getSessionPlaylists(
+    public Map<GenreType, List<MusicResponse>> getSessionPlaylists(
             HttpServletRequest request,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int pageSize
     ) {
-        User user = authorizationService.getLoggedInUser(request);
-        return sessionPlaylistService.generateSessionPlaylists(user.getId(), page, pageSize);
+        Long userId = authorizationService.getLoggedInUserId(request);
+        return sessionPlaylistService.generateSessionPlaylists(userId, page, pageSize);
     }
 }
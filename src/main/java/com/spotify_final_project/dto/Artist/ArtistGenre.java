@@ -0,0 +1,5 @@
+package com.spotify_final_project.dto.Artist;
+
+import com.spotify_final_project.enums.GenreType;
+
+public record ArtistGenre(Long artistId, String username, GenreType genre) {}
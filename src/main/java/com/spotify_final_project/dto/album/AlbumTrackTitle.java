@@ -0,0 +1,3 @@
+package com.spotify_final_project.dto.album;
+
+public record AlbumTrackTitle(Long albumId, String title) {}
@@ -0,0 +1,23 @@
+package com.spotify_final_project.dto.auth;
+
+import com.spotify_final_project.config.CustomAuthentication;
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.Role;
+
+import java.time.Instant;
+
+/**
+ * What a verified JWT resolves to: the token's claims plus the user's id, role and status
+ * as they were in the database when the token was first seen.
+ */
+public record VerifiedPrincipal(Long userId,
+                                String username,
+                                String email,
+                                Role role,
+                                AccountStatus status,
+                                Instant expiresAt) {
+
+    public CustomAuthentication toAuthentication() {
+        return new CustomAuthentication(userId, role.name(), email, username);
+    }
+}
@@ -0,0 +1,7 @@
+package com.spotify_final_project.dto.cache;
+
+public record CacheRegionStats(String region,
+                               long hits,
+                               long misses,
+                               long puts,
+                               double hitRate) {}
@@ -0,0 +1,10 @@
+package com.spotify_final_project.dto.chart;
+
+import com.spotify_final_project.enums.GenreType;
+
+public record ChartEntry(int rank,
+                         Long musicId,
+                         String title,
+                         String artistUsername,
+                         GenreType genre,
+                         long plays) {}
@@ -0,0 +1,14 @@
+package com.spotify_final_project.dto.chart;
+
+import com.spotify_final_project.enums.GenreType;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One chart as of {@code updatedAt}; charts are recomputed every few seconds, not per request.
+ */
+public record ChartResponse(String window,
+                            GenreType genre,
+                            Instant updatedAt,
+                            List<ChartEntry> entries) {}
@@ -0,0 +1,5 @@
+package com.spotify_final_project.dto.chart;
+
+import java.time.Instant;
+
+public record ChartSnapshotRow(Instant bucketStart, Long musicId, long plays) {}
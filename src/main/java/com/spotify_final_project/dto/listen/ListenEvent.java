@@ -0,0 +1,9 @@
+package com.spotify_final_project.dto.listen;
+
+import java.time.Instant;
+
+/**
+ * One play, as appended to listen_events. {@code durationPlayed} is in seconds and null when the client
+ * didn't report it.
+ */
+public record ListenEvent(Long userId, Long musicId, Instant playedAt, Integer durationPlayed) {}
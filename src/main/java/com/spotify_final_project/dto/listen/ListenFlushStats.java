@@ -0,0 +1,9 @@
+package com.spotify_final_project.dto.listen;
+
+public record ListenFlushStats(long pendingEvents,
+                               long flushCount,
+                               long flushedEvents,
+                               long failedFlushCount,
+                               long droppedEvents,
+                               long lastFlushMillis,
+                               long maxFlushMillis) {}
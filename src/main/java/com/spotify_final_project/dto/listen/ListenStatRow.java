@@ -0,0 +1,3 @@
+package com.spotify_final_project.dto.listen;
+
+public record ListenStatRow(String username, String musicTitle, Long count) {}
@@ -0,0 +1,8 @@
+package com.spotify_final_project.dto.listen;
+
+public record ListenStatSummary(String reportName, long rows, long totalPlays, long elapsedMillis) {
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+}
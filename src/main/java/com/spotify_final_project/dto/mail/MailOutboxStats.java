@@ -0,0 +1,13 @@
+package com.spotify_final_project.dto.mail;
+
+/**
+ * Outbox backlog (from the table) and send throughput of this instance since startup.
+ */
+public record MailOutboxStats(long pendingMails,
+                              long failedMails,
+                              long sentMails,
+                              long failedAttempts,
+                              long batches,
+                              long lastBatchMillis,
+                              long maxBatchMillis,
+                              double mailsPerSecond) {}
@@ -1,11 +1,15 @@
 package com.spotify_final_project.dto.music;
 
 import com.spotify_final_project.enums.GenreType;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor // used by JPQL constructor expressions, keep the field order in sync
 public class MusicResponse {
 
     private Long id;
@@ -0,0 +1,21 @@
+package com.spotify_final_project.dto.music;
+
+import com.spotify_final_project.enums.GenreType;
+
+/**
+ * Interface projection for the native search queries; column aliases must match the getter names.
+ */
+public interface MusicSearchRow {
+
+    Long getId();
+
+    String getTitle();
+
+    GenreType getGenre();
+
+    int getDuration();
+
+    String getArtistUsername();
+
+    String getAlbumName();
+}
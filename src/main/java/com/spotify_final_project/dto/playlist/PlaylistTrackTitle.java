@@ -0,0 +1,3 @@
+package com.spotify_final_project.dto.playlist;
+
+public record PlaylistTrackTitle(Long playlistId, String title) {}
@@ -0,0 +1,18 @@
+package com.spotify_final_project.dto.playlist;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class PlaylistTracksRequest {
+
+    @NotEmpty(message = "musicIds must not be empty")
+    @Size(max = 500, message = "At most 500 tracks per request")
+    private List<@NotNull Long> musicIds;
+}
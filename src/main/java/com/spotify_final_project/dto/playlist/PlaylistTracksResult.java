@@ -0,0 +1,7 @@
+package com.spotify_final_project.dto.playlist;
+
+/**
+ * Outcome of a bulk track change: how many rows it actually touched and the playlist's resulting size.
+ */
+public record PlaylistTracksResult(Long playlistId, int changed, long trackCount) {
+}
@@ -0,0 +1,31 @@
+package com.spotify_final_project.dto.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as {@code ?after=}
+ * to fetch the following page; it is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, Long nextCursor, boolean hasMore) {
+
+    public static final int MAX_LIMIT = 100;
+
+    public static int clampLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+
+    public static long startAfter(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}; the extra row only signals that more exist.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? idOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,14 @@
+package com.spotify_final_project.dto.user;
+
+import com.spotify_final_project.enums.DeletionState;
+
+import java.time.Instant;
+
+public record UserDeletionStatus(Long userId,
+                                 DeletionState state,
+                                 long totalTracks,
+                                 long deletedTracks,
+                                 Instant startedAt,
+                                 Instant finishedAt,
+                                 String error) {
+}
@@ -0,0 +1,36 @@
+package com.spotify_final_project.enums;
+
+import com.spotify_final_project.exception.chart.InvalidChartWindowException;
+
+import java.time.Duration;
+
+public enum ChartWindow {
+    LAST_HOUR("1h", Duration.ofHours(1)),
+    LAST_DAY("24h", Duration.ofHours(24)),
+    LAST_WEEK("7d", Duration.ofDays(7));
+
+    private final String param;
+    private final Duration length;
+
+    ChartWindow(String param, Duration length) {
+        this.param = param;
+        this.length = length;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public static ChartWindow fromParam(String param) {
+        for (ChartWindow window : values()) {
+            if (window.param.equalsIgnoreCase(param)) {
+                return window;
+            }
+        }
+        throw new InvalidChartWindowException("Unknown chart window '" + param + "', expected 1h, 24h or 7d");
+    }
+}
@@ -0,0 +1,7 @@
+package com.spotify_final_project.enums;
+
+public enum DeletionState {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.spotify_final_project.enums;
+
+public enum MailStatus {
+    PENDING,
+    SENDING, // claimed by a worker; reclaimed by another one if its lease runs out
+    SENT,
+    FAILED   // gave up after app.mail.outbox.max-attempts
+}
@@ -1,14 +1,20 @@
 package com.spotify_final_project.exception;
 
 import com.spotify_final_project.exception.auth.AuthenticationException;
+import com.spotify_final_project.exception.auth.PasswordHashingBusyException;
 import com.spotify_final_project.exception.auth.UserNotFoundException;
+import com.spotify_final_project.exception.chart.InvalidChartWindowException;
+import com.spotify_final_project.exception.playlist.InvalidPlaylistTracksException;
+import com.spotify_final_project.exception.playlist.PlaylistTracksConflictException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -42,6 +48,14 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.UNAUTHORIZED, ex.getMessage(), request);
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingBusy(PasswordHashingBusyException ex, HttpServletRequest request) {
+        ResponseEntity<ErrorResponse> response = buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex, HttpServletRequest request) {
         Map<String, String> fieldErrors = new HashMap<>();
@@ -52,6 +66,18 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "Validation failed", request, fieldErrors);
     }
 
+    // Constraints on plain controller parameters, e.g. @RequestParam @Min(0)
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleMethodValidation(HandlerMethodValidationException ex, HttpServletRequest request) {
+        Map<String, String> violations = new HashMap<>();
+        ex.getParameterValidationResults().forEach(result ->
+                result.getResolvableErrors().forEach(error ->
+                        violations.put(result.getMethodParameter().getParameterName(), error.getDefaultMessage()))
+        );
+
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, "Constraint violation", request, violations);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ErrorResponse> handleConstraintViolation(ConstraintViolationException ex, HttpServletRequest request) {
         Map<String, String> violations = new HashMap<>();
@@ -62,6 +88,21 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "Constraint violation", request, violations);
     }
 
+    @ExceptionHandler(InvalidPlaylistTracksException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPlaylistTracks(InvalidPlaylistTracksException ex, HttpServletRequest request) {
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(PlaylistTracksConflictException.class)
+    public ResponseEntity<ErrorResponse> handlePlaylistTracksConflict(PlaylistTracksConflictException ex, HttpServletRequest request) {
+        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(InvalidChartWindowException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidChartWindow(InvalidChartWindowException ex, HttpServletRequest request) {
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleAllOtherExceptions(Exception ex, HttpServletRequest request) {
         return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Something went wrong: " + ex.getMessage(), request);
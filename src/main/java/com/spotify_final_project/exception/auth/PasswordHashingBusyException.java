@@ -0,0 +1,7 @@
+package com.spotify_final_project.exception.auth;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
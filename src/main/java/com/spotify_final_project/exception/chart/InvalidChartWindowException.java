@@ -0,0 +1,7 @@
+package com.spotify_final_project.exception.chart;
+
+public class InvalidChartWindowException extends RuntimeException {
+    public InvalidChartWindowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.spotify_final_project.exception.playlist;
+
+public class InvalidPlaylistTracksException extends RuntimeException {
+    public InvalidPlaylistTracksException(String message) {
+        super(message);
+    }
+}
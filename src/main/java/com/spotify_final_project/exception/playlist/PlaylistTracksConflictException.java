@@ -0,0 +1,7 @@
+package com.spotify_final_project.exception.playlist;
+
+public class PlaylistTracksConflictException extends RuntimeException {
+    public PlaylistTracksConflictException(String message) {
+        super(message);
+    }
+}
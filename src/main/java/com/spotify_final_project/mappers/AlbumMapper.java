@@ -5,6 +5,8 @@ import com.spotify_final_project.dto.album.AlbumResponse;
 import com.spotify_final_project.model.Album;
 import org.aspectj.lang.annotation.After;
 
+import java.util.List;
+
 public class AlbumMapper {
 
     public static Album mapToEntity(AlbumRequest request) {
@@ -17,6 +19,15 @@ public class AlbumMapper {
     }
 
     public static AlbumResponse mapToResponse(Album album) {
+        return mapToResponse(album, album.getTracks().stream()
+                .map(track -> track.getTitle())
+                .toList());
+    }
+
+    /**
+     * For listings, where the track titles of the whole page were loaded up front.
+     */
+    public static AlbumResponse mapToResponse(Album album, List<String> trackTitles) {
         AlbumResponse response = new AlbumResponse();
         response.setId(album.getId());
         response.setTitle(album.getTitle());
@@ -24,11 +35,7 @@ public class AlbumMapper {
         response.setReleaseDate(album.getReleaseDate());
         response.setGenre(album.getGenre());
         response.setArtistUsername(album.getArtist().getUsername());
-        response.setTrackTitles(
-                album.getTracks().stream()
-                        .map(track -> track.getTitle())
-                        .toList()
-        );
+        response.setTrackTitles(trackTitles);
         return response;
     }
 }
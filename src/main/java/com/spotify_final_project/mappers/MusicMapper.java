@@ -2,6 +2,7 @@ package com.spotify_final_project.mappers;
 
 import com.spotify_final_project.dto.music.MusicRequest;
 import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.dto.music.MusicSearchRow;
 import com.spotify_final_project.model.Album;
 import com.spotify_final_project.model.Music;
 
@@ -25,4 +26,9 @@ public class MusicMapper {
         response.setAlbumName(music.getAlbum() != null ? music.getAlbum().getTitle() : null);
         return response;
     }
+
+    public static MusicResponse mapToResponse(MusicSearchRow row) {
+        return new MusicResponse(row.getId(), row.getTitle(), row.getGenre(), row.getDuration(),
+                row.getArtistUsername(), row.getAlbumName());
+    }
 }
@@ -3,9 +3,9 @@ package com.spotify_final_project.mappers;
 
 import com.spotify_final_project.dto.playlist.CreatePlaylistRequest;
 import com.spotify_final_project.dto.playlist.PlaylistResponse;
-import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.Playlist;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class PlaylistMapper {
@@ -18,14 +18,21 @@ public class PlaylistMapper {
     }
 
     public static PlaylistResponse mapToResponse(Playlist playlist) {
+        return mapToResponse(playlist, playlist.getTracks().stream()
+                .map(track -> track.getMusic().getTitle())
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * For listings, where the track titles of the whole page were loaded up front.
+     */
+    public static PlaylistResponse mapToResponse(Playlist playlist, List<String> trackTitles) {
         return PlaylistResponse.builder()
                 .id(playlist.getId())
                 .name(playlist.getName())
                 .description(playlist.getDescription())
                 .ownerUsername(playlist.getOwner().getUsername())
-                .trackTitles(playlist.getTracks().stream()
-                        .map(Music::getTitle)
-                        .collect(Collectors.toList()))
+                .trackTitles(trackTitles)
                 .build();
     }
 }
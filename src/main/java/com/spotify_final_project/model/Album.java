@@ -6,6 +6,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -15,8 +17,19 @@ import java.util.List;
 @Getter
 @Setter
 @Accessors(chain = true)
-@Table(name = "albums")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "albums")
+@NamedEntityGraph(name = Album.SUMMARY_GRAPH, attributeNodes = @NamedAttributeNode("artist"))
+@NamedEntityGraph(name = Album.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("artist"),
+        @NamedAttributeNode("tracks")
+})
+@Table(name = "albums", indexes = @Index(name = "idx_albums_artist_id", columnList = "artist_id"))
 public class Album {
+    // Pages of albums; a collection fetch can't be limited in SQL, so tracks are loaded separately
+    public static final String SUMMARY_GRAPH = "Album.summary";
+    // A single album with its artist and track list
+    public static final String DETAIL_GRAPH = "Album.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,10 +45,11 @@ public class Album {
     @Enumerated(EnumType.STRING)
     private GenreType genre; // Added genre
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "artist_id", nullable = false)
     private User artist; // Album owner (artist)
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "album-tracks")
     @OneToMany(mappedBy = "album", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Music> tracks = new ArrayList<>(); // Added musics
 }
@@ -8,20 +8,27 @@ import lombok.experimental.Accessors;
 @Entity
 @Table(name = "listens", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"user_id", "music_id"})
+}, indexes = @Index(name = "idx_listens_music_id", columnList = "music_id"))
+@NamedEntityGraph(name = Listen.STATS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("listener"),
+        @NamedAttributeNode("music")
 })
 @Getter
 @Setter
 @Accessors(chain = true)
 public class Listen {
+    // Listening history: who played what
+    public static final String STATS_GRAPH = "Listen.stats";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User listener;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "music_id", nullable = false)
     private Music music;
 
@@ -7,13 +7,27 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
 @Setter
 @Accessors(chain = true)
-@Table(name = "music")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "music")
+@NamedEntityGraph(name = Music.LISTING_GRAPH, attributeNodes = {
+        @NamedAttributeNode("artist"),
+        @NamedAttributeNode("album")
+})
+@Table(name = "music", indexes = {
+        @Index(name = "idx_music_genre_id", columnList = "genre, id"),
+        @Index(name = "idx_music_artist_id", columnList = "artist_id, id"),
+        @Index(name = "idx_music_album_id", columnList = "album_id")
+})
 public class Music {
+    // Track lists rendered as MusicResponse: artist username and album title
+    public static final String LISTING_GRAPH = "Music.listing";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,12 +41,12 @@ public class Music {
 
     private int duration; // დავრის დრო წამებში
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("tracks")
     @JoinColumn(name = "album_id")
     private Album album;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "artist_id", nullable = false)
     private User artist; // არტისტი რომელმაც ატვირთა ეს სიმღერა
 }
@@ -8,12 +8,24 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "playlists")
+@Table(name = "playlists", indexes = @Index(name = "idx_playlists_user_id", columnList = "user_id"))
+@NamedEntityGraph(name = Playlist.SUMMARY_GRAPH, attributeNodes = @NamedAttributeNode("owner"))
+@NamedEntityGraph(name = Playlist.DETAIL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode(value = "tracks", subgraph = "tracks")
+        },
+        subgraphs = @NamedSubgraph(name = "tracks", attributeNodes = @NamedAttributeNode("music")))
 @Data
 @Accessors(chain = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Playlist {
+    // Pages of playlists; tracks are loaded separately, as for Album.SUMMARY_GRAPH
+    public static final String SUMMARY_GRAPH = "Playlist.summary";
+    // A single playlist with its owner and tracks, i.e. everything PlaylistMapper reads
+    public static final String DETAIL_GRAPH = "Playlist.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -23,15 +35,16 @@ public class Playlist {
 
     private String description;
 
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User owner; // Playlist creator
 
-    @ManyToMany
-    @JoinTable(
-            name = "playlist_music",
-            joinColumns = @JoinColumn(name = "playlist_id"),
-            inverseJoinColumns = @JoinColumn(name = "music_id")
-    )
-    private List<Music> tracks = new ArrayList<>();
+    // Rows are written through PlaylistTrackRepository; the database removes them with the playlist
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "playlist")
+    @OrderBy("position ASC, id ASC")
+    private List<PlaylistTrack> tracks = new ArrayList<>();
 }
\ No newline at end of file
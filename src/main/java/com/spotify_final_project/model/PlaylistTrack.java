@@ -0,0 +1,53 @@
+package com.spotify_final_project.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * One track in a playlist. The (playlist, music) pair is unique, so a track is in a playlist at most once,
+ * and {@code position} orders the tracks without having to renumber the rest on every insert or delete.
+ */
+@Entity
+@Getter
+@Setter
+@Accessors(chain = true)
+@NoArgsConstructor
+@Table(name = "playlist_music",
+        uniqueConstraints = @UniqueConstraint(name = "uk_playlist_music", columnNames = {"playlist_id", "music_id"}),
+        indexes = {
+                @Index(name = "idx_playlist_music_position", columnList = "playlist_id, position"),
+                @Index(name = "idx_playlist_music_music_id", columnList = "music_id")
+        })
+public class PlaylistTrack {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "playlist_music_seq")
+    @SequenceGenerator(name = "playlist_music_seq", sequenceName = "playlist_music_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "playlist_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Playlist playlist;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "music_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Music music;
+
+    @Column(nullable = false)
+    private int position;
+
+    public PlaylistTrack(Playlist playlist, Music music, int position) {
+        this.playlist = playlist;
+        this.music = music;
+        this.position = position;
+    }
+}
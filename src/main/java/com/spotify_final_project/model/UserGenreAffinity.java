@@ -0,0 +1,34 @@
+package com.spotify_final_project.model;
+
+import com.spotify_final_project.enums.GenreType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Running per-user play count for each genre, maintained by the listen flush so that
+ * suggestions never have to scan a user's listen history.
+ */
+@Entity
+@Table(name = "user_genre_affinity", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "genre"})
+}, indexes = @Index(name = "idx_user_genre_affinity_user_score", columnList = "user_id, score DESC"))
+@Getter
+@Setter
+@Accessors(chain = true)
+public class UserGenreAffinity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GenreType genre;
+
+    @Column(nullable = false)
+    private Long score = 0L; // Total plays of this genre by the user
+}
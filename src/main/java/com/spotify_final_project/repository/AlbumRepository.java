@@ -1,13 +1,31 @@
 package com.spotify_final_project.repository;
 
+import com.spotify_final_project.dto.album.AlbumTrackTitle;
 import com.spotify_final_project.model.Album;
 import com.spotify_final_project.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface AlbumRepository extends JpaRepository<Album, Long> {
     List<Album> findByArtist(User artist);
 
     void deleteAllByArtist(User user);
+
+    @EntityGraph(Album.SUMMARY_GRAPH)
+    List<Album> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limit);
+
+    @EntityGraph(Album.DETAIL_GRAPH)
+    Optional<Album> findDetailById(Long id);
+
+    // Track titles of a whole page of albums in one statement, instead of initializing each album's tracks
+    @Query("SELECT new com.spotify_final_project.dto.album.AlbumTrackTitle(m.album.id, m.title) " +
+            "FROM Music m WHERE m.album.id IN :albumIds ORDER BY m.id")
+    List<AlbumTrackTitle> findTrackTitlesByAlbumIds(@Param("albumIds") Collection<Long> albumIds);
 }
@@ -0,0 +1,48 @@
+package com.spotify_final_project.repository;
+
+import com.spotify_final_project.dto.chart.ChartSnapshotRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * chart_snapshots (created in db/migration/V1__baseline_schema.sql) holds the chart counters' buckets so
+ * they survive a restart. One row per (granularity, bucket, track); a bucket is rewritten whole whenever
+ * it changed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChartSnapshotRepository {
+
+    private static final String UPSERT_BUCKET = """
+            INSERT INTO chart_snapshots (granularity, bucket_start, music_id, plays)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (granularity, bucket_start, music_id) DO UPDATE SET plays = excluded.plays
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void saveBuckets(String granularity, Map<Instant, Map<Long, Long>> buckets, Instant keepFrom) {
+        List<Object[]> rows = new ArrayList<>();
+        buckets.forEach((bucketStart, plays) -> plays.forEach((musicId, count) ->
+                rows.add(new Object[]{granularity, Timestamp.from(bucketStart), musicId, count})));
+        jdbcTemplate.batchUpdate(UPSERT_BUCKET, rows);
+        jdbcTemplate.update("DELETE FROM chart_snapshots WHERE granularity = ? AND bucket_start < ?",
+                granularity, Timestamp.from(keepFrom));
+    }
+
+    public List<ChartSnapshotRow> findSince(String granularity, Instant since) {
+        return jdbcTemplate.query(
+                "SELECT bucket_start, music_id, plays FROM chart_snapshots WHERE granularity = ? AND bucket_start >= ?",
+                (rs, rowNum) -> new ChartSnapshotRow(rs.getTimestamp("bucket_start").toInstant(), rs.getLong("music_id"), rs.getLong("plays")),
+                granularity, Timestamp.from(since));
+    }
+}
@@ -0,0 +1,69 @@
+package com.spotify_final_project.repository;
+
+import com.spotify_final_project.dto.listen.ListenEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ListenBatchRepository {
+
+    // The whole batch is bound as four arrays, so appending it is one statement and one round trip.
+    // Events of users or tracks deleted since the play are dropped by the joins. The per-track counts
+    // and genre affinity are derived from exactly the rows appended, in the same statement; the GROUP BY
+    // order keeps concurrent flushes locking aggregate rows in the same order.
+    private static final String APPEND_EVENTS = """
+            WITH batch AS (
+                SELECT e.user_id, e.music_id, e.played_at, e.duration_played, m.genre
+                FROM unnest(?::bigint[], ?::bigint[], ?::timestamptz[], ?::integer[])
+                         AS e(user_id, music_id, played_at, duration_played)
+                JOIN users u ON u.id = e.user_id
+                JOIN music m ON m.id = e.music_id
+            ), appended AS (
+                INSERT INTO listen_events (user_id, music_id, played_at, duration_played)
+                SELECT user_id, music_id, played_at, duration_played FROM batch
+            ), counts AS (
+                INSERT INTO listens (user_id, music_id, count)
+                SELECT user_id, music_id, count(*) FROM batch
+                GROUP BY user_id, music_id ORDER BY user_id, music_id
+                ON CONFLICT (user_id, music_id) DO UPDATE SET count = listens.count + excluded.count
+            )
+            INSERT INTO user_genre_affinity (user_id, genre, score)
+            SELECT user_id, genre, count(*) FROM batch
+            GROUP BY user_id, genre ORDER BY user_id, genre
+            ON CONFLICT (user_id, genre) DO UPDATE SET score = user_genre_affinity.score + excluded.score
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends the events to listen_events and adds them to the per-track listen counts and the listeners'
+     * genre affinity, atomically.
+     */
+    public void appendEvents(List<ListenEvent> events) {
+        Long[] userIds = new Long[events.size()];
+        Long[] musicIds = new Long[events.size()];
+        Timestamp[] playedAt = new Timestamp[events.size()];
+        Integer[] durations = new Integer[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            ListenEvent event = events.get(i);
+            userIds[i] = event.userId();
+            musicIds[i] = event.musicId();
+            playedAt[i] = Timestamp.from(event.playedAt());
+            durations[i] = event.durationPlayed();
+        }
+
+        jdbcTemplate.update(APPEND_EVENTS, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("bigint", userIds));
+            ps.setArray(2, connection.createArrayOf("bigint", musicIds));
+            ps.setArray(3, connection.createArrayOf("timestamptz", playedAt));
+            ps.setArray(4, connection.createArrayOf("integer", durations));
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.spotify_final_project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Monthly range partitions of listen_events (created in db/migration/V1__baseline_schema.sql), named
+ * listen_events_pYYYYMM and bounded in UTC. Dropping a month is a metadata-only DROP TABLE instead of a large DELETE.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListenEventPartitionRepository {
+
+    private static final String PREFIX = "listen_events_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createPartition(YearMonth month) {
+        // Identifiers and bounds come from a YearMonth, never from input, so concatenation is safe here
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF listen_events FOR VALUES FROM ('" + month.atDay(1) + " 00:00:00+00') TO ('"
+                + month.plusMonths(1).atDay(1) + " 00:00:00+00')");
+    }
+
+    /**
+     * Months of the existing monthly partitions; the default partition is not included.
+     */
+    public List<YearMonth> findPartitionMonths() {
+        List<String> names = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'listen_events'
+                """, String.class);
+        return names.stream().map(ListenEventPartitionRepository::monthOf).flatMap(Optional::stream).sorted().toList();
+    }
+
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    private static Optional<YearMonth> monthOf(String partitionName) {
+        if (!partitionName.matches(PREFIX + "\\d{6}")) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.parse(partitionName.substring(PREFIX.length()), SUFFIX));
+    }
+}
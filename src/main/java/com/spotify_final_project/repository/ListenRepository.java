@@ -1,16 +1,30 @@
 package com.spotify_final_project.repository;
 
+import com.spotify_final_project.dto.listen.ListenStatRow;
 import com.spotify_final_project.model.Listen;
 import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ListenRepository extends JpaRepository<Listen, Long> {
     Optional<Listen> findByListenerAndMusic(User listener, Music music);
+    @EntityGraph(Listen.STATS_GRAPH)
     List<Listen> findAllByListener(User listener);
 
     List<Listen> findByListener(User user);
+
+    // Constructor projection: one joined SELECT, rows are never attached to the persistence context
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.spotify_final_project.dto.listen.ListenStatRow(u.username, m.title, l.count) " +
+            "FROM Listen l JOIN l.listener u JOIN l.music m ORDER BY l.count DESC")
+    Stream<ListenStatRow> streamStatRows();
 }
@@ -1,12 +1,24 @@
 package com.spotify_final_project.repository;
 
+import com.spotify_final_project.dto.Artist.ArtistGenre;
+import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.dto.music.MusicSearchRow;
 import com.spotify_final_project.enums.GenreType;
 import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface MusicRepository extends JpaRepository<Music, Long> {
     List<Music> findByArtist(User artist);
@@ -17,15 +29,91 @@ public interface MusicRepository extends JpaRepository<Music, Long> {
 
     List<Music> findAllByArtist(User user);
 
-    // Search by title (case-insensitive, contains)
-    List<Music> findByTitleContainingIgnoreCase(String title);
+    // Search queries: ILIKE filters and <-> (trigram distance to the raw query) orders, both served by the
+    // pg_trgm GiST indexes from the V3 migration. The index returns rows nearest first, so a page stops reading
+    // at its limit instead of sorting every match; an id tie-breaker would bring the sort back, so tracks at the
+    // same distance come in index order.
+    // They select exactly the MusicResponse columns, so no entities are loaded and nothing is fetched lazily afterwards.
 
-    // Search by author/artist username
-    List<Music> findByArtist_UsernameContainingIgnoreCase(String username);
+    @Query(value = """
+            SELECT m.id, m.title, m.genre, m.duration, u.username AS artistUsername, al.title AS albumName
+            FROM music m
+            JOIN users u ON u.id = m.artist_id
+            LEFT JOIN albums al ON al.id = m.album_id
+            WHERE m.title ILIKE '%' || :pattern || '%'
+            ORDER BY m.title <-> :query
+            """, nativeQuery = true)
+    List<MusicSearchRow> searchByTitle(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
 
-    // Optional: combine title or artist
-    List<Music> findByTitleContainingIgnoreCaseOrArtist_UsernameContainingIgnoreCase(String title, String username);
+    @Query(value = """
+            SELECT m.id, m.title, m.genre, m.duration, u.username AS artistUsername, al.title AS albumName
+            FROM music m
+            JOIN users u ON u.id = m.artist_id
+            LEFT JOIN albums al ON al.id = m.album_id
+            WHERE u.username ILIKE '%' || :pattern || '%'
+            ORDER BY u.username <-> :query
+            """, nativeQuery = true)
+    List<MusicSearchRow> searchByArtistUsername(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
 
+    // Each branch walks its own index nearest first and stops after the first :window rows (offset + page size),
+    // which is all the page can be taken from. A track found by both keeps its smaller distance; equal distances
+    // keep the order the index returned them in, so consecutive pages neither repeat nor skip tracks.
+    @Query(value = """
+            SELECT m.id, m.title, m.genre, m.duration, u.username AS artistUsername, al.title AS albumName
+            FROM (
+                SELECT DISTINCT ON (hit.id) hit.id, hit.distance, hit.branch, hit.position
+                FROM (SELECT t.id, t.distance, 1 AS branch, row_number() OVER () AS position
+                      FROM (SELECT mt.id, mt.title <-> :query AS distance
+                            FROM music mt
+                            WHERE mt.title ILIKE '%' || :pattern || '%'
+                            ORDER BY mt.title <-> :query
+                            LIMIT :window) t
+                      UNION ALL
+                      SELECT a.id, a.distance, 2 AS branch, row_number() OVER () AS position
+                      FROM (SELECT ma.id, ua.username <-> :query AS distance
+                            FROM music ma
+                            JOIN users ua ON ua.id = ma.artist_id
+                            WHERE ua.username ILIKE '%' || :pattern || '%'
+                            ORDER BY ua.username <-> :query
+                            LIMIT :window) a) hit
+                ORDER BY hit.id, hit.distance, hit.branch) best
+            JOIN music m ON m.id = best.id
+            JOIN users u ON u.id = m.artist_id
+            LEFT JOIN albums al ON al.id = m.album_id
+            ORDER BY best.distance, best.branch, best.position
+            """, nativeQuery = true)
+    List<MusicSearchRow> searchByTitleOrArtistUsername(@Param("query") String query, @Param("pattern") String pattern,
+                                                       @Param("window") int window, Pageable pageable);
 
+    // Genre and artist listings go through the query cache; any JPA write to music, users or albums
+    // invalidates them, plain SQL writes must call EntityCacheService.evictCatalog()
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.spotify_final_project.dto.music.MusicResponse(m.id, m.title, m.genre, m.duration, a.username, al.title) " +
+            "FROM Music m JOIN m.artist a LEFT JOIN m.album al WHERE m.genre = :genre ORDER BY m.id")
+    List<MusicResponse> findResponsesByGenre(@Param("genre") GenreType genre);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.spotify_final_project.dto.music.MusicResponse(m.id, m.title, m.genre, m.duration, a.username, al.title) " +
+            "FROM Music m JOIN m.artist a LEFT JOIN m.album al WHERE a.id = :artistId ORDER BY m.id")
+    List<MusicResponse> findResponsesByArtistId(@Param("artistId") Long artistId);
+
+    @EntityGraph(Music.LISTING_GRAPH)
     List<Music> findAllByGenre(GenreType genre, Pageable pageable);
+
+    // Keyset pagination: WHERE id > :cursor ORDER BY id LIMIT :n
+    @Query("SELECT new com.spotify_final_project.dto.music.MusicResponse(m.id, m.title, m.genre, m.duration, a.username, al.title) " +
+            "FROM Music m JOIN m.artist a LEFT JOIN m.album al WHERE m.id > :cursor ORDER BY m.id")
+    List<MusicResponse> findResponsesAfter(@Param("cursor") Long cursor, Limit limit);
+
+    @Query("SELECT new com.spotify_final_project.dto.music.MusicResponse(m.id, m.title, m.genre, m.duration, a.username, al.title) " +
+            "FROM Music m JOIN m.artist a LEFT JOIN m.album al WHERE m.id IN :ids")
+    List<MusicResponse> findResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT m.id FROM Music m WHERE m.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // One row per (artist, genre) pair in the catalog, used to build the similar-artist index
+    @Query("SELECT DISTINCT new com.spotify_final_project.dto.Artist.ArtistGenre(a.id, a.username, m.genre) " +
+            "FROM Music m JOIN m.artist a")
+    List<ArtistGenre> findDistinctArtistGenres();
 }
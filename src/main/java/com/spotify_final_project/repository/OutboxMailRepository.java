@@ -0,0 +1,61 @@
+package com.spotify_final_project.repository;
+
+import com.spotify_final_project.enums.MailStatus;
+import com.spotify_final_project.model.OutboxMail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+
+    /**
+     * Mails that are due, including ones whose worker lease ran out, oldest first. Rows locked by another
+     * worker are skipped (FOR UPDATE SKIP LOCKED), so concurrent workers never claim the same mail.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("""
+            SELECT m FROM OutboxMail m
+            WHERE m.status IN (com.spotify_final_project.enums.MailStatus.PENDING,
+                               com.spotify_final_project.enums.MailStatus.SENDING)
+              AND m.nextAttemptAt <= :now
+            ORDER BY m.id
+            """)
+    List<OutboxMail> findDueForUpdate(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxMail m
+            SET m.status = com.spotify_final_project.enums.MailStatus.SENT, m.sentAt = :sentAt, m.lastError = NULL
+            WHERE m.id IN :ids
+            """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxMail m
+            SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, m.lastError = :error
+            WHERE m.id = :id
+            """)
+    int markFailedAttempt(@Param("id") Long id,
+                          @Param("status") MailStatus status,
+                          @Param("nextAttemptAt") Instant nextAttemptAt,
+                          @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMail m WHERE m.status = com.spotify_final_project.enums.MailStatus.SENT AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+
+    long countByStatus(MailStatus status);
+}
@@ -2,21 +2,40 @@ package com.spotify_final_project.repository;
 
 import com.spotify_final_project.model.Playlist;
 import com.spotify_final_project.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
     List<Playlist> findByOwner(User owner);
 
     void deleteAllByOwner(User user);
 
+    @EntityGraph(Playlist.SUMMARY_GRAPH)
+    List<Playlist> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limit);
 
+    @EntityGraph(Playlist.DETAIL_GRAPH)
+    Optional<Playlist> findDetailById(Long id);
+
+    // SELECT ... FOR UPDATE: serializes track changes per playlist, e.g. two appends reading the same max position
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Playlist> findLockedById(Long id);
+
+
+    // Declares the touched table so Hibernate doesn't drop every second-level cache region
     @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "playlist_music"))
     @Query(value = "DELETE FROM playlist_music WHERE music_id = :musicId", nativeQuery = true)
     void removeMusicFromAllPlaylists(@Param("musicId") Long musicId);
 }
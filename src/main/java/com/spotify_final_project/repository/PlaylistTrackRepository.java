@@ -0,0 +1,35 @@
+package com.spotify_final_project.repository;
+
+import com.spotify_final_project.dto.playlist.PlaylistTrackTitle;
+import com.spotify_final_project.model.PlaylistTrack;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface PlaylistTrackRepository extends JpaRepository<PlaylistTrack, Long> {
+
+    // Served by the (playlist_id, music_id) unique index
+    @Query("SELECT t.music.id FROM PlaylistTrack t WHERE t.playlist.id = :playlistId AND t.music.id IN :musicIds")
+    Set<Long> findMusicIdsInPlaylist(@Param("playlistId") Long playlistId, @Param("musicIds") Collection<Long> musicIds);
+
+    @Query("SELECT COALESCE(MAX(t.position), -1) FROM PlaylistTrack t WHERE t.playlist.id = :playlistId")
+    int findMaxPosition(@Param("playlistId") Long playlistId);
+
+    long countByPlaylistId(Long playlistId);
+
+    List<PlaylistTrack> findByPlaylistIdOrderByPositionAscIdAsc(Long playlistId);
+
+    // Track titles of a whole page of playlists in one statement, in playlist order
+    @Query("SELECT new com.spotify_final_project.dto.playlist.PlaylistTrackTitle(t.playlist.id, m.title) " +
+            "FROM PlaylistTrack t JOIN t.music m WHERE t.playlist.id IN :playlistIds ORDER BY t.position, t.id")
+    List<PlaylistTrackTitle> findTrackTitlesByPlaylistIds(@Param("playlistIds") Collection<Long> playlistIds);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistTrack t WHERE t.playlist.id = :playlistId AND t.music.id IN :musicIds")
+    int deleteFromPlaylist(@Param("playlistId") Long playlistId, @Param("musicIds") Collection<Long> musicIds);
+}
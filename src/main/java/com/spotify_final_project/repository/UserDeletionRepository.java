@@ -0,0 +1,89 @@
+package com.spotify_final_project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.util.List;
+
+/**
+ * Set-based deletes for removing a user and everything that hangs off them. A user's tracks are the music
+ * they are the artist of plus everything on their albums (albums cascade to their tracks).
+ * Callers provide the transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserDeletionRepository {
+
+    private static final String TRACKS_OF_USER = """
+            SELECT m.id FROM music m
+            WHERE m.artist_id = ? OR m.album_id IN (SELECT a.id FROM albums a WHERE a.artist_id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long countTracks(long userId) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM (" + TRACKS_OF_USER + ") t",
+                Long.class, userId, userId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Deletes all of the user's tracks and the playlist entries and listens that point at them. Other users'
+     * listen events of these tracks are left to age out with their partitions: listen_events has no index on
+     * music_id, and no new events land for the deleted tracks because appending joins music.
+     *
+     * @return the ids of the deleted tracks
+     */
+    public List<Long> deleteAllTracks(long userId) {
+        return deleteTracks(jdbcTemplate.queryForList(TRACKS_OF_USER, Long.class, userId, userId));
+    }
+
+    /**
+     * Same as {@link #deleteAllTracks} but for at most {@code limit} tracks, lowest ids first.
+     *
+     * @return the ids of the deleted tracks; fewer than {@code limit} means none are left
+     */
+    public List<Long> deleteTrackChunk(long userId, int limit) {
+        return deleteTracks(jdbcTemplate.queryForList(TRACKS_OF_USER + " ORDER BY m.id LIMIT ?",
+                Long.class, userId, userId, limit));
+    }
+
+    /**
+     * Deletes the user's own rows once their tracks are gone: playlists (with their entries), listens and
+     * their listen events, genre affinity, albums and finally the user.
+     */
+    public void deleteUserRows(long userId) {
+        jdbcTemplate.update("DELETE FROM playlist_music WHERE playlist_id IN (SELECT id FROM playlists WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM listens WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM listen_events WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM user_genre_affinity WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM albums WHERE artist_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM playlists WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    public void blockUser(long userId) {
+        jdbcTemplate.update("UPDATE users SET status = 'BLOCKED' WHERE id = ?", userId);
+    }
+
+    private List<Long> deleteTracks(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        Long[] tracks = ids.toArray(Long[]::new);
+        deleteByIds("DELETE FROM playlist_music WHERE music_id = ANY (?)", tracks);
+        deleteByIds("DELETE FROM listens WHERE music_id = ANY (?)", tracks);
+        deleteByIds("DELETE FROM music WHERE id = ANY (?)", tracks);
+        return ids;
+    }
+
+    private int deleteByIds(String sql, Long[] ids) {
+        return jdbcTemplate.update(sql, ps -> {
+            Array array = ps.getConnection().createArrayOf("bigint", ids);
+            ps.setArray(1, array);
+        });
+    }
+}
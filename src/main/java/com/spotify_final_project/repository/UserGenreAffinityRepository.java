@@ -0,0 +1,10 @@
+package com.spotify_final_project.repository;
+
+import com.spotify_final_project.model.UserGenreAffinity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface UserGenreAffinityRepository extends JpaRepository<UserGenreAffinity, Long> {
+    List<UserGenreAffinity> findTop3ByUserIdOrderByScoreDesc(Long userId);
+}
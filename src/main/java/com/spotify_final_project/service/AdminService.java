@@ -1,10 +1,14 @@
 package com.spotify_final_project.service;
 
+import com.spotify_final_project.dto.playlist.PlaylistResponse;
+import com.spotify_final_project.dto.response.CursorPage;
+import com.spotify_final_project.dto.user.UserDeletionStatus;
 import com.spotify_final_project.enums.AccountStatus;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.exception.album.AlbumNotFoundException;
 import com.spotify_final_project.exception.auth.UserNotFoundException;
 import com.spotify_final_project.exception.playlist.PlaylistNotFoundException;
+import com.spotify_final_project.mappers.PlaylistMapper;
 import com.spotify_final_project.model.Album;
 import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.Playlist;
@@ -29,24 +33,24 @@ public class AdminService {
     private final AlbumRepository albumRepository;
     private final MusicRepository musicRepository;
     private final PlaylistRepository playlistRepository;
-
-    @Transactional
-    public void deleteUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
-
-        List<Music> userMusic = musicRepository.findAllByArtist(user);
-        for (Music music : userMusic) {
-            playlistRepository.removeMusicFromAllPlaylists(music.getId());
+    private final ArtistGenreIndex artistGenreIndex;
+    private final PrincipalCacheService principalCacheService;
+    private final UserDeletionService userDeletionService;
+    private final PlaylistService playlistService;
+
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public UserDeletionStatus deleteUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User with id " + userId + " not found");
         }
 
-        musicRepository.deleteAllByArtist(user);
-
-        albumRepository.deleteAllByArtist(user);
-
-        playlistRepository.deleteAllByOwner(user);
+        // Set-based cascade; large artists are deleted in chunks in the background
+        return userDeletionService.deleteUser(userId);
+    }
 
-        userRepository.delete(user);
+    public UserDeletionStatus getUserDeletionStatus(Long userId) {
+        return userDeletionService.getStatus(userId)
+                .orElseThrow(() -> new UserNotFoundException("No deletion found for user with id " + userId));
     }
 
 
@@ -58,6 +62,7 @@ public class AdminService {
         user.setStatus(AccountStatus.ACTIVE);
         user.setVerified(true);
 
+        principalCacheService.evictUser(userId);
         return userRepository.save(user);
     }
 
@@ -66,6 +71,8 @@ public class AdminService {
                 .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
 
         user.setStatus(AccountStatus.BLOCKED);
+        // Tokens already issued to this user must stop working right away, not when the cache entry expires
+        principalCacheService.evictUser(userId);
         return userRepository.save(user);
     }
 
@@ -74,6 +81,7 @@ public class AdminService {
                 .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
 
         user.setStatus(AccountStatus.ACTIVE);
+        principalCacheService.evictUser(userId);
         return userRepository.save(user);
     }
 
@@ -93,6 +101,7 @@ public class AdminService {
         Album album = albumRepository.findById(albumId)
                 .orElseThrow(() -> new AlbumNotFoundException("Album not found"));
         albumRepository.delete(album);
+        artistGenreIndex.invalidate();
     }
 
     public Album updateAlbum(Album album) {
@@ -113,12 +122,15 @@ public class AdminService {
         Music music = musicRepository.findById(musicId)
                 .orElseThrow(() -> new RuntimeException("Music not found"));
         musicRepository.delete(music);
+        artistGenreIndex.invalidate();
     }
 
 
     public Music createMusic(Music music, User artist) {
         music.setArtist(artist);
-        return musicRepository.save(music);
+        Music saved = musicRepository.save(music);
+        artistGenreIndex.invalidate();
+        return saved;
     }
 
     // ===== Playlist Management =====
@@ -129,14 +141,14 @@ public class AdminService {
         playlistRepository.delete(playlist);
     }
 
-    public Playlist updatePlaylist(Long playlistId, Playlist updatedPlaylist) {
-        Playlist playlist = playlistRepository.findById(playlistId)
+    public PlaylistResponse updatePlaylist(Long playlistId, Playlist updatedPlaylist) {
+        Playlist playlist = playlistRepository.findDetailById(playlistId)
                 .orElseThrow(() -> new PlaylistNotFoundException("Playlist not found with ID: " + playlistId));
 
         playlist.setName(updatedPlaylist.getName());
         playlist.setDescription(updatedPlaylist.getDescription());
-        playlist.setTracks(updatedPlaylist.getTracks());
-        return playlistRepository.save(playlist);
+        // Tracks are changed through the /playlists/{id}/tracks endpoints
+        return PlaylistMapper.mapToResponse(playlistRepository.save(playlist));
     }
 
 
@@ -152,8 +164,8 @@ public class AdminService {
         return playlistRepository.save(playlist);
     }
 
-    public List<Playlist> getAllPlaylists() {
-        return playlistRepository.findAll();
+    public CursorPage<PlaylistResponse> getAllPlaylists(Long after, int limit) {
+        return playlistService.getAllPlaylists(after, limit);
     }
 
 }
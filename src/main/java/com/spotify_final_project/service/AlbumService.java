@@ -2,6 +2,8 @@ package com.spotify_final_project.service;
 
 import com.spotify_final_project.dto.album.AlbumRequest;
 import com.spotify_final_project.dto.album.AlbumResponse;
+import com.spotify_final_project.dto.album.AlbumTrackTitle;
+import com.spotify_final_project.dto.response.CursorPage;
 import com.spotify_final_project.exception.album.AlbumNotFoundException;
 import com.spotify_final_project.exception.auth.AuthenticationException;
 import com.spotify_final_project.exception.auth.UserNotFoundException;
@@ -10,11 +12,13 @@ import com.spotify_final_project.model.Album;
 import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.AlbumRepository;
 import com.spotify_final_project.repository.UserRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +28,7 @@ public class AlbumService {
 
     private final AlbumRepository albumRepository;
     private final UserRepository userRepository;
+    private final ArtistGenreIndex artistGenreIndex;
 
     public AlbumResponse createAlbum(AlbumRequest request, Long artistId) {
         User artist = userRepository.findById(artistId)
@@ -68,19 +73,29 @@ public class AlbumService {
         }
 
         albumRepository.delete(album);
+        artistGenreIndex.invalidate(); // tracks are removed with the album
     }
 
+    @Transactional(readOnly = true)
     public AlbumResponse getAlbumById(Long albumId) {
-        Album album = albumRepository.findById(albumId)
+        Album album = albumRepository.findDetailById(albumId)
                 .orElseThrow(() -> new AlbumNotFoundException("Album not found"));
 
         return AlbumMapper.mapToResponse(album);
     }
 
-    public List<AlbumResponse> getAllAlbums() {
-        return albumRepository.findAll()
+    @Transactional(readOnly = true)
+    public CursorPage<AlbumResponse> getAllAlbums(Long after, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<Album> rows = albumRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.startAfter(after), Limit.of(pageSize + 1));
+
+        // Two statements per page whatever its size: albums with their artist, then all of their track titles
+        Map<Long, List<String>> trackTitles = rows.isEmpty() ? Map.of() : albumRepository
+                .findTrackTitlesByAlbumIds(rows.stream().map(Album::getId).toList())
                 .stream()
-                .map(AlbumMapper::mapToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.groupingBy(AlbumTrackTitle::albumId,
+                        Collectors.mapping(AlbumTrackTitle::title, Collectors.toList())));
+        return CursorPage.of(rows, pageSize, Album::getId,
+                album -> AlbumMapper.mapToResponse(album, trackTitles.getOrDefault(album.getId(), List.of())));
     }
 }
\ No newline at end of file
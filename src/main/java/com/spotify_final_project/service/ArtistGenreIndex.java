@@ -0,0 +1,148 @@
+package com.spotify_final_project.service;
+
+import com.spotify_final_project.dto.Artist.ArtistGenre;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.repository.MusicRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory genre -> artist inverted index. Each artist's genres are kept as a bitmask over
+ * {@link GenreType} ordinals so that genre overlap (Jaccard) is two bit operations.
+ * The index is rebuilt lazily from one aggregate query after any catalog change.
+ */
+@Service
+@RequiredArgsConstructor
+public class ArtistGenreIndex {
+
+    private static final int MAX_SIMILAR_ARTISTS = 10;
+
+    private final MusicRepository musicRepository;
+
+    private final AtomicLong version = new AtomicLong();
+    // Not synchronized: a virtual thread waiting on the rebuild query inside a monitor would pin its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public Set<GenreType> getGenres(Long artistId) {
+        return toGenres(current().genreMasks().getOrDefault(artistId, 0L));
+    }
+
+    public List<String> getSimilarArtists(Long artistId) {
+        Snapshot current = current();
+        return current.similarArtists().computeIfAbsent(artistId, id -> rankSimilarArtists(current, id));
+    }
+
+    /**
+     * Drops the index and every cached ranking. Inside a transaction this happens after commit,
+     * so a concurrent rebuild cannot read the catalog before the change is visible.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            long buildVersion = version.get();
+            current = build(musicRepository.findDistinctArtistGenres());
+            // Don't publish a snapshot that was invalidated while it was being built
+            if (version.get() == buildVersion) {
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static Snapshot build(List<ArtistGenre> rows) {
+        Map<Long, Long> genreMasks = new HashMap<>();
+        Map<Long, String> usernames = new HashMap<>();
+        Map<GenreType, List<Long>> artistsByGenre = new EnumMap<>(GenreType.class);
+
+        for (ArtistGenre row : rows) {
+            genreMasks.merge(row.artistId(), 1L << row.genre().ordinal(), (a, b) -> a | b);
+            usernames.put(row.artistId(), row.username());
+            artistsByGenre.computeIfAbsent(row.genre(), g -> new ArrayList<>()).add(row.artistId());
+        }
+        return new Snapshot(genreMasks, usernames, artistsByGenre, new ConcurrentHashMap<>());
+    }
+
+    private static List<String> rankSimilarArtists(Snapshot snapshot, Long artistId) {
+        long mask = snapshot.genreMasks().getOrDefault(artistId, 0L);
+        if (mask == 0L) {
+            return List.of();
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (GenreType genre : toGenres(mask)) {
+            candidates.addAll(snapshot.artistsByGenre().getOrDefault(genre, Collections.emptyList()));
+        }
+        candidates.remove(artistId);
+
+        Comparator<Long> byJaccard = Comparator.comparingDouble(id -> -jaccard(mask, snapshot.genreMasks().get(id)));
+        return candidates.stream()
+                .sorted(byJaccard.thenComparing(id -> snapshot.usernames().get(id)))
+                .limit(MAX_SIMILAR_ARTISTS)
+                .map(id -> snapshot.usernames().get(id))
+                .toList();
+    }
+
+    private static double jaccard(long a, long b) {
+        return (double) Long.bitCount(a & b) / Long.bitCount(a | b);
+    }
+
+    private static Set<GenreType> toGenres(long mask) {
+        Set<GenreType> genres = EnumSet.noneOf(GenreType.class);
+        for (GenreType genre : GenreType.values()) {
+            if ((mask & (1L << genre.ordinal())) != 0) {
+                genres.add(genre);
+            }
+        }
+        return genres;
+    }
+
+    private record Snapshot(Map<Long, Long> genreMasks,
+                            Map<Long, String> usernames,
+                            Map<GenreType, List<Long>> artistsByGenre,
+                            Map<Long, List<String>> similarArtists) {}
+}
@@ -7,26 +7,38 @@ import com.spotify_final_project.repository.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
 @Service
 public class AuthorizationService {
 
-    private final JwtService jwtService;
+    private final PrincipalCacheService principalCacheService;
     private final UserRepository userRepository;
 
     public User getLoggedInUser(HttpServletRequest request) { // ვიღებთ JWT-ს Authorization-ის ჰედერიდან, ვაქცევთ მას CustomAuthentication-ის ობიექტად და ამ იფორმაციით ვიღებთ იუზერს ბაზიდან
+        Long userId = getLoggedInUserId(request);
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new InvalidCredentialsException("User not found"));
+    }
+
+    /**
+     * The id of the caller, taken from the principal the JWT filter already resolved for this request.
+     * Falls back to the principal cache when the filter did not run (e.g. outside the security chain).
+     */
+    public Long getLoggedInUserId(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth instanceof CustomAuthentication customAuth && customAuth.getUserId() != null) {
+            return customAuth.getUserId();
+        }
+
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             throw new InvalidCredentialsException("Missing or invalid Authorization header");
         }
 
-        String token = authHeader.substring(7); // Remove "Bearer "
-        Authentication auth = jwtService.parseToken(token);
-        CustomAuthentication customAuth = (CustomAuthentication) auth;
-
-        return userRepository.findByUsername(customAuth.getUsername())
-                .orElseThrow(() -> new InvalidCredentialsException("User not found"));
+        String token = authHeader.substring(7).trim(); // Remove "Bearer "
+        return principalCacheService.resolve(token).userId();
     }
-}
\ No newline at end of file
+}
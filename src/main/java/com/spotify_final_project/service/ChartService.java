@@ -0,0 +1,266 @@
+package com.spotify_final_project.service;
+
+import com.spotify_final_project.dto.chart.ChartEntry;
+import com.spotify_final_project.dto.chart.ChartResponse;
+import com.spotify_final_project.dto.chart.ChartSnapshotRow;
+import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.enums.ChartWindow;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.repository.ChartSnapshotRepository;
+import com.spotify_final_project.repository.MusicRepository;
+import com.spotify_final_project.service.charts.SlidingWindowCounter;
+import com.spotify_final_project.service.charts.SlidingWindowCounter.BucketPlays;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Top-track charts over the last hour, day and week. Plays are buffered per track on the listen path and
+ * folded into sliding-window counters (per-minute buckets for the hour, per-hour buckets for day and week)
+ * on every refresh, which also recomputes the top tracks overall and per genre. Requests only read the
+ * precomputed lists. Counter buckets are snapshotted to chart_snapshots and restored on startup.
+ */
+@Slf4j
+@Service
+public class ChartService {
+
+    private static final long MINUTE_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis();
+    private static final String MINUTE_GRANULARITY = "MINUTE";
+    private static final String HOUR_GRANULARITY = "HOUR";
+    // Titles and genres of charted tracks are reloaded this often, so edits show up eventually
+    private static final long TRACK_INFO_TTL_MILLIS = HOUR_MILLIS;
+    private static final int TRACK_INFO_CHUNK_SIZE = 1000;
+
+    private final ChartSnapshotRepository chartSnapshotRepository;
+    private final MusicRepository musicRepository;
+    private final Clock clock;
+    private final int chartSize;
+
+    // Same write-behind buffer as ListenService: merge() is atomic per key, so draining loses no plays
+    private final ConcurrentHashMap<Long, Long> pendingPlays = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private final Map<ChartWindow, SlidingWindowCounter> counters = new EnumMap<>(ChartWindow.class);
+    private final Map<Long, MusicResponse> trackInfo = new HashMap<>();
+    private long trackInfoLoadedAt;
+
+    private volatile Charts charts = new Charts(Map.of(), null);
+
+    @Autowired
+    public ChartService(ChartSnapshotRepository chartSnapshotRepository,
+                        MusicRepository musicRepository,
+                        @Value("${app.charts.size:100}") int chartSize) {
+        this(chartSnapshotRepository, musicRepository, chartSize, Clock.systemUTC());
+    }
+
+    public ChartService(ChartSnapshotRepository chartSnapshotRepository,
+                        MusicRepository musicRepository,
+                        int chartSize,
+                        Clock clock) {
+        this.chartSnapshotRepository = chartSnapshotRepository;
+        this.musicRepository = musicRepository;
+        this.chartSize = chartSize;
+        this.clock = clock;
+        counters.put(ChartWindow.LAST_HOUR, new SlidingWindowCounter(MINUTE_MILLIS, 60));
+        counters.put(ChartWindow.LAST_DAY, new SlidingWindowCounter(HOUR_MILLIS, 24));
+        counters.put(ChartWindow.LAST_WEEK, new SlidingWindowCounter(HOUR_MILLIS, 24 * 7));
+    }
+
+    public void recordPlay(Long musicId) {
+        pendingPlays.merge(musicId, 1L, Long::sum);
+    }
+
+    /**
+     * Top tracks of the window, optionally of one genre only, as of the last refresh.
+     */
+    public ChartResponse getTopTracks(ChartWindow window, GenreType genre, int limit) {
+        Charts current = charts;
+        List<ChartEntry> entries = current.entries().getOrDefault(new ChartKey(window, genre), List.of());
+        int size = Math.min(Math.max(limit, 1), entries.size());
+        return new ChartResponse(window.getParam(), genre, current.updatedAt(), entries.subList(0, size));
+    }
+
+    @Scheduled(fixedDelayString = "${app.charts.refresh-interval-ms:10000}")
+    public void refresh() {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            // Buffered plays are counted in the bucket of the refresh that drains them
+            Map<Long, Long> plays = drainPending();
+            counters.values().forEach(counter -> counter.add(now, plays));
+            loadTrackInfo(now);
+            charts = new Charts(rankAll(), Instant.ofEpochMilli(now));
+        } catch (DataAccessException e) {
+            log.error("Failed to refresh charts, keeping the previous ones", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.charts.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.charts.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            saveBuckets(MINUTE_GRANULARITY, counters.get(ChartWindow.LAST_HOUR), now);
+            // Day and week share hour buckets; the week counter holds all of them
+            saveBuckets(HOUR_GRANULARITY, counters.get(ChartWindow.LAST_WEEK), now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            SlidingWindowCounter hour = counters.get(ChartWindow.LAST_HOUR);
+            for (ChartSnapshotRow row : chartSnapshotRepository.findSince(MINUTE_GRANULARITY, Instant.ofEpochMilli(hour.windowStartMillis(now)))) {
+                hour.restore(row.bucketStart().toEpochMilli(), row.musicId(), row.plays());
+            }
+            SlidingWindowCounter week = counters.get(ChartWindow.LAST_WEEK);
+            SlidingWindowCounter day = counters.get(ChartWindow.LAST_DAY);
+            for (ChartSnapshotRow row : chartSnapshotRepository.findSince(HOUR_GRANULARITY, Instant.ofEpochMilli(week.windowStartMillis(now)))) {
+                week.restore(row.bucketStart().toEpochMilli(), row.musicId(), row.plays());
+                day.restore(row.bucketStart().toEpochMilli(), row.musicId(), row.plays());
+            }
+            log.info("Restored chart counters for {} tracks", week.totals().size());
+        } catch (DataAccessException e) {
+            log.warn("Could not restore chart snapshots, charts start empty", e);
+        } finally {
+            lock.unlock();
+        }
+        refresh();
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        refresh();
+        snapshot();
+    }
+
+    private Map<Long, Long> drainPending() {
+        Map<Long, Long> drained = new HashMap<>();
+        for (Long musicId : pendingPlays.keySet()) {
+            Long plays = pendingPlays.remove(musicId);
+            if (plays != null) {
+                drained.put(musicId, plays);
+            }
+        }
+        return drained;
+    }
+
+    private void saveBuckets(String granularity, SlidingWindowCounter counter, long now) {
+        List<BucketPlays> dirty = counter.takeDirtyBuckets();
+        Map<Instant, Map<Long, Long>> buckets = new LinkedHashMap<>();
+        dirty.forEach(bucket -> buckets.put(Instant.ofEpochMilli(bucket.startMillis()), bucket.plays()));
+        try {
+            chartSnapshotRepository.saveBuckets(granularity, buckets, Instant.ofEpochMilli(counter.windowStartMillis(now)));
+        } catch (DataAccessException e) {
+            counter.markDirty(dirty);
+            log.error("Failed to snapshot {} chart buckets, will retry", granularity, e);
+        }
+    }
+
+    // Every charted track has had plays in the last week, so the week counter's tracks are all we need
+    private void loadTrackInfo(long now) {
+        if (now - trackInfoLoadedAt >= TRACK_INFO_TTL_MILLIS) {
+            trackInfo.clear();
+            trackInfoLoadedAt = now;
+        }
+        Map<Long, Long> weekTotals = counters.get(ChartWindow.LAST_WEEK).totals();
+        trackInfo.keySet().retainAll(weekTotals.keySet());
+
+        List<Long> missing = weekTotals.keySet().stream().filter(id -> !trackInfo.containsKey(id)).toList();
+        for (int from = 0; from < missing.size(); from += TRACK_INFO_CHUNK_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(from + TRACK_INFO_CHUNK_SIZE, missing.size()));
+            chunk.forEach(id -> trackInfo.put(id, null)); // deleted tracks stay null and are never charted
+            musicRepository.findResponsesByIds(chunk).forEach(track -> trackInfo.put(track.getId(), track));
+        }
+    }
+
+    private Map<ChartKey, List<ChartEntry>> rankAll() {
+        Map<ChartKey, List<ChartEntry>> ranked = new HashMap<>();
+        counters.forEach((window, counter) -> {
+            TopK overall = new TopK(chartSize);
+            Map<GenreType, TopK> byGenre = new EnumMap<>(GenreType.class);
+            counter.totals().forEach((musicId, plays) -> {
+                MusicResponse track = trackInfo.get(musicId);
+                if (track != null) {
+                    overall.offer(track, plays);
+                    byGenre.computeIfAbsent(track.getGenre(), g -> new TopK(chartSize)).offer(track, plays);
+                }
+            });
+            ranked.put(new ChartKey(window, null), overall.toEntries());
+            byGenre.forEach((genre, top) -> ranked.put(new ChartKey(window, genre), top.toEntries()));
+        });
+        return ranked;
+    }
+
+    /**
+     * Keeps the k most played tracks in a min-heap, so ranking n tracks costs O(n log k).
+     */
+    private static final class TopK {
+        private static final Comparator<Candidate> WORST_FIRST = Comparator.comparingLong(Candidate::plays)
+                .thenComparing(candidate -> candidate.track().getId(), Comparator.reverseOrder());
+
+        private final int k;
+        private final PriorityQueue<Candidate> heap = new PriorityQueue<>(WORST_FIRST);
+
+        private TopK(int k) {
+            this.k = k;
+        }
+
+        private void offer(MusicResponse track, long plays) {
+            Candidate candidate = new Candidate(track, plays);
+            if (heap.size() < k) {
+                heap.add(candidate);
+            } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        private List<ChartEntry> toEntries() {
+            List<Candidate> best = new ArrayList<>(heap);
+            best.sort(WORST_FIRST.reversed());
+            List<ChartEntry> entries = new ArrayList<>(best.size());
+            for (Candidate candidate : best) {
+                MusicResponse track = candidate.track();
+                entries.add(new ChartEntry(entries.size() + 1, track.getId(), track.getTitle(),
+                        track.getArtistUsername(), track.getGenre(), candidate.plays()));
+            }
+            return List.copyOf(entries);
+        }
+    }
+
+    private record Candidate(MusicResponse track, long plays) {}
+
+    private record ChartKey(ChartWindow window, GenreType genre) {}
+
+    private record Charts(Map<ChartKey, List<ChartEntry>> entries, Instant updatedAt) {}
+}
@@ -0,0 +1,98 @@
+package com.spotify_final_project.service;
+
+import com.spotify_final_project.config.ReplicaRoutingDataSource;
+import com.spotify_final_project.dto.cache.CacheRegionStats;
+import com.spotify_final_project.model.Album;
+import com.spotify_final_project.model.Music;
+import com.spotify_final_project.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Hibernate second-level cache regions for the read-mostly catalog (see hibernate-cache.conf).
+ * Writes through JPA keep the regions up to date on their own; anything that writes with plain SQL
+ * (e.g. {@link UserDeletionService}) has to evict here once its transaction has committed.
+ */
+@Service
+public class EntityCacheService {
+
+    private final Cache cache;
+    private final Statistics statistics;
+    private final ReplicaRoutingDataSource replicaRouting;
+
+    public EntityCacheService(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, null);
+    }
+
+    @Autowired
+    public EntityCacheService(EntityManagerFactory entityManagerFactory,
+                              ObjectProvider<ReplicaRoutingDataSource> replicaRouting) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cache = sessionFactory.getCache();
+        this.statistics = sessionFactory.getStatistics();
+        this.replicaRouting = replicaRouting != null ? replicaRouting.getIfAvailable() : null;
+    }
+
+    public void evictUser(Long userId) {
+        cache.evictEntityData(User.class, userId);
+        refillFromPrimary();
+    }
+
+    /**
+     * Drops all cached music, albums and query results, for bulk changes whose affected ids aren't known.
+     */
+    public void evictCatalog() {
+        cache.evictEntityData(Music.class);
+        cache.evictEntityData(Album.class);
+        cache.evictCollectionData(Album.class.getName() + ".tracks");
+        cache.evictQueryRegions();
+        refillFromPrimary();
+    }
+
+    public void evictAll() {
+        cache.evictAllRegions();
+        refillFromPrimary();
+    }
+
+    /**
+     * Hit/miss counters per region since startup. Empty when hibernate.generate_statistics is off.
+     */
+    public List<CacheRegionStats> getRegionStats() {
+        if (!statistics.isStatisticsEnabled()) {
+            return List.of();
+        }
+        List<CacheRegionStats> stats = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                stats.add(toStats(region, regionStatistics));
+            }
+        }
+        stats.sort(Comparator.comparing(CacheRegionStats::region));
+        return stats;
+    }
+
+    private static CacheRegionStats toStats(String region, CacheRegionStatistics regionStatistics) {
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        double hitRate = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        return new CacheRegionStats(region, hits, misses, regionStatistics.getPutCount(), hitRate);
+    }
+
+    // Replicas may not have replayed the plain SQL write yet; reloading from one would cache the old rows again
+    private void refillFromPrimary() {
+        if (replicaRouting != null) {
+            replicaRouting.holdReadsOnPrimary();
+        }
+    }
+}
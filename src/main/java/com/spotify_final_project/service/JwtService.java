@@ -1,41 +1,65 @@
 package com.spotify_final_project.service;
 
 import com.spotify_final_project.config.CustomAuthentication;
+import com.spotify_final_project.config.JwtProperties;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.exception.auth.InvalidCredentialsException;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.security.InvalidKeyException;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Issues and verifies JWTs. Keys and the parser are built once at startup; JwtParser is immutable and thread-safe.
+ * New tokens carry the active key's id in the {@code kid} header, and any configured verification key is accepted,
+ * so keys can be rotated without invalidating tokens that are still in flight.
+ */
 @Service
-@RequiredArgsConstructor
 public class JwtService {
 
-    @Value("${app.security.jwt.secret}")
-    private String secret;
+    private final long expirationMs;
+    private final String activeKid;
+    private final SecretKey signingKey;
+    private final Map<String, SecretKey> verificationKeys;
+    private final JwtParser parser;
 
-    @Value("${app.security.jwt.expiration}")
-    private long expirationMs;
+    public JwtService(JwtProperties properties) {
+        this.expirationMs = properties.expiration();
+        this.activeKid = properties.kid();
+        this.signingKey = hmacKey(properties.secret());
 
+        Map<String, SecretKey> keys = new HashMap<>();
+        properties.verificationKeys().forEach((kid, secret) -> keys.put(kid, hmacKey(secret)));
+        keys.put(activeKid, signingKey);
+        this.verificationKeys = Map.copyOf(keys);
+
+        this.parser = Jwts.parser()
+                .keyLocator(new KidKeyLocator())
+                .build();
+    }
 
     public String generateToken(String username, String email, Role role) {
         Instant now = Instant.now();
         Instant expiresAt = now.plus(expirationMs, ChronoUnit.MILLIS);
 
         return Jwts.builder()
+                .header().keyId(activeKid).and()
                 .claim("username", username)
                 .claim("email", email)
                 .claim("role", role)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiresAt))
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -45,25 +69,40 @@ public class JwtService {
     }
 
     public Authentication parseToken(String token) {  //JWT-ის ვასუფთავებთ, ვიღებთ მისით payload-s და მასში არსებულ ინფორმაციას ვიყენებთ რომ შევქმნათ CustomAuthentication-ის ობიექტი
+        Claims claims = parseClaims(token);
+        return new CustomAuthentication(
+                claims.get("role", String.class),
+                claims.get("email", String.class),
+                claims.get("username", String.class)
+        );
+    }
+
+    public Claims parseClaims(String token) {
         try {
-            Jws<Claims> claimsJws = Jwts.parser()
-                    .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
-                    .build()
-                    .parseSignedClaims(token);
-
-            Claims claims = claimsJws.getPayload();
-            System.out.println("Parsing JWT token: " + token);
-
-            // <-- Add this line to debug the JWT payload
-            System.out.println("JWT Claims: " + claims);
-
-            return new CustomAuthentication(
-                    claims.get("role", String.class),
-                    claims.get("email", String.class),
-                    claims.get("username", String.class)
-            );
-        } catch (JwtException e) {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
             throw new InvalidCredentialsException("Invalid or expired token");
         }
     }
+
+    private static SecretKey hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private class KidKeyLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(ProtectedHeader header) {
+            String kid = header.getKeyId();
+            // Tokens issued before kids were introduced have no header; they were signed with the active secret
+            if (kid == null) {
+                return signingKey;
+            }
+            SecretKey key = verificationKeys.get(kid);
+            if (key == null) {
+                throw new InvalidKeyException("Unknown signing key id: " + kid);
+            }
+            return key;
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.spotify_final_project.service;
+
+import com.spotify_final_project.repository.ListenEventPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps listen_events partitioned by month: partitions are created a few months ahead, so plays never
+ * land in the default partition, and months past the retention period are dropped whole.
+ */
+@Slf4j
+@Service
+public class ListenEventPartitionService {
+
+    private final ListenEventPartitionRepository partitionRepository;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public ListenEventPartitionService(ListenEventPartitionRepository partitionRepository,
+                                       @Value("${app.listens.events.partitions-ahead:2}") int monthsAhead,
+                                       @Value("${app.listens.events.retention-months:13}") int retentionMonths) {
+        this.partitionRepository = partitionRepository;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.listens.events.partition-cron:0 15 3 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        try {
+            maintainPartitions(YearMonth.now(ZoneOffset.UTC));
+        } catch (DataAccessException e) {
+            log.error("Failed to maintain listen_events partitions", e);
+        }
+    }
+
+    public void maintainPartitions(YearMonth currentMonth) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            partitionRepository.createPartition(currentMonth.plusMonths(i));
+        }
+
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths - 1L);
+        for (YearMonth month : partitionRepository.findPartitionMonths()) {
+            if (month.isBefore(oldestKept)) {
+                partitionRepository.dropPartition(month);
+                log.info("Dropped listen_events partition for {}", month);
+            }
+        }
+    }
+}
@@ -1,28 +1,186 @@
 package com.spotify_final_project.service;
 
-import com.spotify_final_project.model.Listen;
+import com.spotify_final_project.dto.listen.ListenEvent;
+import com.spotify_final_project.dto.listen.ListenFlushStats;
 import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.User;
-import com.spotify_final_project.repository.ListenRepository;
-import jakarta.transaction.Transactional;
+import com.spotify_final_project.repository.ListenBatchRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind listen log. Plays are buffered in memory and appended to listen_events in batches, either on
+ * a fixed interval or once enough are pending; the per-track listen counts and genre affinity are derived
+ * from each appended batch (see {@link ListenBatchRepository}) instead of being updated per play.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ListenService {
 
-    private final ListenRepository listenRepository;
+    private final ListenBatchRepository listenBatchRepository;
+    private final ChartService chartService;
+
+    private final ConcurrentLinkedQueue<ListenEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedEvents = new AtomicLong();
+    private final AtomicLong failedFlushCount = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile long lastFlushMillis;
+    private volatile long maxFlushMillis;
+
+    @Value("${app.listens.flush-batch-size:500}")
+    private int flushBatchSize = 500;
+
+    // While the database is unreachable failed batches are kept up to this many events, then dropped
+    @Value("${app.listens.max-pending-events:200000}")
+    private int maxPendingEvents = 200_000;
 
-    @Transactional
     public void incrementListenCount(User listener, Music music) {
-        Listen listen = listenRepository.findByListenerAndMusic(listener, music)
-                .orElseGet(() -> new Listen()
-                        .setListener(listener)
-                        .setMusic(music)
-                        .setCount(0L));
-
-        listen.setCount(listen.getCount() + 1);
-        listenRepository.save(listen);
+        incrementListenCount(listener.getId(), music.getId());
+    }
+
+    public void incrementListenCount(Long userId, Long musicId) {
+        recordListen(userId, musicId, null);
+    }
+
+    public void recordListen(Long userId, Long musicId, Integer durationPlayed) {
+        pendingEvents.add(new ListenEvent(userId, musicId, Instant.now(), durationPlayed));
+        int pending = pendingCount.incrementAndGet();
+        chartService.recordPlay(musicId);
+
+        // Size-triggered flush; if another thread is already flushing it will pick these up
+        if (pending >= flushBatchSize && flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.listens.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (pendingCount.get() > 0) {
+            log.error("Shutting down with {} listen events that could not be flushed", pendingCount.get());
+        }
+    }
+
+    /**
+     * Drops plays that are still buffered for a user that is being deleted, so they never reach the log.
+     */
+    public void discardUser(Long userId) {
+        discard(event -> event.userId().equals(userId));
+    }
+
+    /**
+     * Drops buffered plays of deleted tracks, by any user. Appending would skip them anyway (the append joins
+     * music), but until then they hold room in the bounded buffer and count as flushed in the flush stats.
+     */
+    public void discardTracks(Collection<Long> musicIds) {
+        if (musicIds.isEmpty()) {
+            return;
+        }
+        Set<Long> deleted = Set.copyOf(musicIds);
+        discard(event -> deleted.contains(event.musicId()));
+    }
+
+    public ListenFlushStats getFlushStats() {
+        return new ListenFlushStats(
+                pendingCount.get(),
+                flushCount.get(),
+                flushedEvents.get(),
+                failedFlushCount.get(),
+                droppedEvents.get(),
+                lastFlushMillis,
+                maxFlushMillis);
+    }
+
+    private void discard(Predicate<ListenEvent> filter) {
+        pendingEvents.removeIf(event -> {
+            if (filter.test(event)) {
+                pendingCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void flushPending() {
+        // Only what is pending now, in statements of at most one batch each, so a busy listen path can't
+        // keep a size-triggered flush going indefinitely
+        int remaining = pendingCount.get();
+        while (remaining > 0) {
+            List<ListenEvent> batch = new ArrayList<>(Math.min(remaining, flushBatchSize));
+            ListenEvent event;
+            while (batch.size() < Math.min(remaining, flushBatchSize) && (event = pendingEvents.poll()) != null) {
+                batch.add(event);
+            }
+            pendingCount.addAndGet(-batch.size());
+            remaining -= batch.size();
+            if (batch.isEmpty() || !append(batch)) {
+                return;
+            }
+        }
+    }
+
+    private boolean append(List<ListenEvent> batch) {
+        long started = System.nanoTime();
+        try {
+            listenBatchRepository.appendEvents(batch);
+        } catch (RuntimeException e) {
+            failedFlushCount.incrementAndGet();
+            requeue(batch);
+            log.error("Failed to flush {} listen events, will retry on next flush", batch.size(), e);
+            return false;
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        lastFlushMillis = elapsedMillis;
+        maxFlushMillis = Math.max(maxFlushMillis, elapsedMillis);
+        flushCount.incrementAndGet();
+        flushedEvents.addAndGet(batch.size());
+        return true;
+    }
+
+    private void requeue(List<ListenEvent> batch) {
+        int room = maxPendingEvents - pendingCount.get();
+        List<ListenEvent> kept = batch.size() <= room ? batch : batch.subList(0, Math.max(room, 0));
+        pendingEvents.addAll(kept);
+        pendingCount.addAndGet(kept.size());
+        if (kept.size() < batch.size()) {
+            droppedEvents.addAndGet(batch.size() - kept.size());
+            log.error("Listen buffer is full, dropped {} listen events", batch.size() - kept.size());
+        }
     }
 }
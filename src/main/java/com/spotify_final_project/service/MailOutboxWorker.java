@@ -0,0 +1,293 @@
+package com.spotify_final_project.service;
+
+import com.spotify_final_project.config.MailOutboxProperties;
+import com.spotify_final_project.dto.mail.MailOutboxStats;
+import com.spotify_final_project.enums.MailStatus;
+import com.spotify_final_project.model.OutboxMail;
+import com.spotify_final_project.repository.OutboxMailRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the mail_outbox in batches on a small pool of workers. Each worker claims a batch of due mails in a
+ * short transaction (SKIP LOCKED, so workers on any instance never share mails), sends the batch over one
+ * SMTP connection outside of any transaction and records the outcome. Failed mails are retried with
+ * exponential backoff. Workers are started when mail is queued and by a periodic poll, and another worker
+ * joins whenever a full batch is claimed, so the pool only grows while there is a backlog.
+ */
+@Slf4j
+@Service
+public class MailOutboxWorker {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxMailRepository outboxMailRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final MailOutboxProperties properties;
+    private final Clock clock;
+
+    private final ExecutorService executor;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private final AtomicLong sentMails = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+    private volatile long lastBatchMillis;
+    private volatile long maxBatchMillis;
+
+    @Autowired
+    public MailOutboxWorker(OutboxMailRepository outboxMailRepository,
+                            JavaMailSender mailSender,
+                            PlatformTransactionManager transactionManager,
+                            MailOutboxProperties properties,
+                            Environment environment) {
+        this(outboxMailRepository, mailSender, transactionManager, properties, Clock.systemUTC(),
+                // Workers spend nearly all their time waiting on SMTP; their number stays capped either way
+                Threading.VIRTUAL.isActive(environment)
+                        ? new VirtualThreadTaskExecutor("mail-outbox-").getVirtualThreadFactory()
+                        : platformThreads());
+    }
+
+    public MailOutboxWorker(OutboxMailRepository outboxMailRepository,
+                            JavaMailSender mailSender,
+                            PlatformTransactionManager transactionManager,
+                            MailOutboxProperties properties,
+                            Clock clock) {
+        this(outboxMailRepository, mailSender, transactionManager, properties, clock, platformThreads());
+    }
+
+    private MailOutboxWorker(OutboxMailRepository outboxMailRepository,
+                             JavaMailSender mailSender,
+                             PlatformTransactionManager transactionManager,
+                             MailOutboxProperties properties,
+                             Clock clock,
+                             ThreadFactory threadFactory) {
+        this.outboxMailRepository = outboxMailRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clock = clock;
+        this.executor = Executors.newFixedThreadPool(properties.workers(), threadFactory);
+    }
+
+    /**
+     * Picks up mails that are due for a retry or weren't picked up on commit (e.g. after a restart).
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * Starts one more worker unless the pool is already busy; it stops once the outbox has nothing due.
+     */
+    public void wakeUp() {
+        int active;
+        do {
+            active = activeWorkers.get();
+            if (active >= properties.workers()) {
+                return;
+            }
+        } while (!activeWorkers.compareAndSet(active, active + 1));
+
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            activeWorkers.decrementAndGet(); // shutting down
+        }
+    }
+
+    /**
+     * Claims, sends and records one batch. Returns the number of mails claimed.
+     */
+    public int processBatch() {
+        List<OutboxMail> batch = claimBatch();
+        if (batch.size() == properties.batchSize()) {
+            wakeUp();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+        return batch.size();
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.cleanup-cron:0 45 3 * * *}")
+    public void purgeSent() {
+        Instant before = clock.instant().minus(properties.sentRetention());
+        int deleted = transactionTemplate.execute(status -> outboxMailRepository.deleteSentBefore(before));
+        log.info("Purged {} sent mails from the outbox", deleted);
+    }
+
+    public MailOutboxStats getStats() {
+        long pending = outboxMailRepository.countByStatus(MailStatus.PENDING) + outboxMailRepository.countByStatus(MailStatus.SENDING);
+        long failed = outboxMailRepository.countByStatus(MailStatus.FAILED);
+        long sent = sentMails.get();
+        long nanos = sendNanos.get();
+        double mailsPerSecond = nanos == 0 ? 0 : sent * 1e9 / nanos;
+        return new MailOutboxStats(pending, failed, sent, failedAttempts.get(), batches.get(),
+                lastBatchMillis, maxBatchMillis, mailsPerSecond);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Batches still being sent after this are claimed again once their lease runs out
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void drain() {
+        try {
+            int claimed;
+            do {
+                claimed = processBatch();
+            } while (claimed == properties.batchSize() && !executor.isShutdown());
+        } catch (RuntimeException e) {
+            log.error("Mail outbox worker failed, mails will be retried on the next poll", e);
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    private List<OutboxMail> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = clock.instant();
+            List<OutboxMail> due = outboxMailRepository.findDueForUpdate(now, Limit.of(properties.batchSize()));
+            Instant leaseEnd = now.plus(properties.lease());
+            for (OutboxMail mail : due) {
+                mail.setStatus(MailStatus.SENDING)
+                        .setAttempts(mail.getAttempts() + 1)
+                        .setNextAttemptAt(leaseEnd);
+            }
+            return due;
+        });
+    }
+
+    private void send(List<OutboxMail> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        Map<Object, OutboxMail> byMessage = new IdentityHashMap<>();
+        for (int i = 0; i < messages.length; i++) {
+            OutboxMail mail = batch.get(i);
+            messages[i] = new SimpleMailMessage();
+            messages[i].setTo(mail.getRecipient());
+            messages[i].setSubject(mail.getSubject());
+            messages[i].setText(mail.getBody());
+            byMessage.put(messages[i], mail);
+        }
+
+        Map<OutboxMail, Exception> failures = new IdentityHashMap<>();
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Partial failure: only the listed messages failed (all of them if nothing is listed)
+            if (e.getFailedMessages().isEmpty()) {
+                batch.forEach(mail -> failures.put(mail, e));
+            } else {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    OutboxMail mail = byMessage.get(message);
+                    if (mail != null) {
+                        failures.put(mail, cause);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            batch.forEach(mail -> failures.put(mail, e));
+        }
+        long elapsed = System.nanoTime() - start;
+        recordStats(batch.size() - failures.size(), failures.size(), elapsed);
+
+        recordOutcome(batch, failures);
+    }
+
+    private void recordOutcome(List<OutboxMail> batch, Map<OutboxMail, Exception> failures) {
+        Instant now = clock.instant();
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (OutboxMail mail : batch) {
+            if (!failures.containsKey(mail)) {
+                sentIds.add(mail.getId());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxMailRepository.markSent(sentIds, now);
+            }
+            failures.forEach((mail, cause) -> {
+                boolean giveUp = mail.getAttempts() >= properties.maxAttempts();
+                outboxMailRepository.markFailedAttempt(mail.getId(),
+                        giveUp ? MailStatus.FAILED : MailStatus.PENDING,
+                        giveUp ? now : now.plus(backoff(mail.getAttempts())),
+                        truncate(cause.getMessage()));
+                if (giveUp) {
+                    log.warn("Giving up on mail {} after {} attempts: {}", mail.getId(), mail.getAttempts(), cause.getMessage());
+                }
+            });
+        });
+        if (!failures.isEmpty()) {
+            log.warn("{} of {} mails failed to send, will retry", failures.size(), batch.size());
+        }
+    }
+
+    // initialBackoff after the first attempt, doubling after each further one, capped at maxBackoff
+    private Duration backoff(int attempts) {
+        Duration max = properties.maxBackoff();
+        Duration delay = properties.initialBackoff();
+        for (int i = 1; i < attempts && delay.compareTo(max) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(max) < 0 ? delay : max;
+    }
+
+    private void recordStats(int sent, int failed, long elapsedNanos) {
+        sentMails.addAndGet(sent);
+        failedAttempts.addAndGet(failed);
+        batches.incrementAndGet();
+        sendNanos.addAndGet(elapsedNanos);
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        lastBatchMillis = millis;
+        if (millis > maxBatchMillis) {
+            maxBatchMillis = millis;
+        }
+    }
+
+    private static ThreadFactory platformThreads() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return r -> new Thread(r, "mail-outbox-" + threadCount.incrementAndGet());
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
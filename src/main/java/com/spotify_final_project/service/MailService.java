@@ -1,21 +1,50 @@
 package com.spotify_final_project.service;
 
+import com.spotify_final_project.enums.MailStatus;
+import com.spotify_final_project.model.OutboxMail;
+import com.spotify_final_project.repository.OutboxMailRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+
+/**
+ * Queues outgoing mail in the mail_outbox table. Called inside a transaction, the mail is only queued if
+ * that transaction commits; {@link MailOutboxWorker} sends it shortly after.
+ */
 @Service
 @RequiredArgsConstructor
 public class MailService {
 
-    private final JavaMailSender mailSender;
+    private final OutboxMailRepository outboxMailRepository;
+    private final MailOutboxWorker mailOutboxWorker;
+
+    public void queueVerificationEmail(String toEmail, String code) {
+        queue(toEmail, "Verify your account", "Your verification code is: " + code);
+    }
+
+    private void queue(String recipient, String subject, String body) {
+        Instant now = Instant.now();
+        outboxMailRepository.save(new OutboxMail()
+                .setRecipient(recipient)
+                .setSubject(subject)
+                .setBody(body)
+                .setStatus(MailStatus.PENDING)
+                .setNextAttemptAt(now)
+                .setCreatedAt(now));
 
-    public void sendVerificationEmail(String toEmail, String code) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(toEmail);
-        message.setSubject("Verify your account");
-        message.setText("Your verification code is: " + code);
-        mailSender.send(message);
+        // Start sending right away instead of waiting for the next poll, but not before the row is visible
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mailOutboxWorker.wakeUp();
+                }
+            });
+        } else {
+            mailOutboxWorker.wakeUp();
+        }
     }
 }
@@ -1,42 +1,128 @@
 package com.spotify_final_project.service;
 
+import com.spotify_final_project.dto.playlist.PlaylistTracksResult;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.exception.auth.AuthenticationException;
 import com.spotify_final_project.exception.auth.UserNotFoundException;
 import com.spotify_final_project.exception.music.MusicNotFoundException;
+import com.spotify_final_project.exception.playlist.InvalidPlaylistTracksException;
 import com.spotify_final_project.exception.playlist.PlaylistNotFoundException;
-import com.spotify_final_project.model.Music;
+import com.spotify_final_project.exception.playlist.PlaylistTracksConflictException;
 import com.spotify_final_project.model.Playlist;
-import com.spotify_final_project.repository.AlbumRepository;
+import com.spotify_final_project.model.PlaylistTrack;
+import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.MusicRepository;
 import com.spotify_final_project.repository.PlaylistRepository;
+import com.spotify_final_project.repository.PlaylistTrackRepository;
 import com.spotify_final_project.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import jakarta.transaction.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+
+/**
+ * Adds, removes and reorders playlist tracks in bulk. None of these load the playlist's track list to
+ * check membership: duplicates are found with one indexed query and only new rows are inserted.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class MusicAddService {
-    private final AlbumRepository albumRepository;
     private final PlaylistRepository playlistRepository;
+    private final PlaylistTrackRepository playlistTrackRepository;
     private final MusicRepository musicRepository;
     private final UserRepository userRepository;
 
 
+    public PlaylistTracksResult addMusicToPlaylist(Long playlistId, Long musicId, Long userId) {
+        return addTracks(playlistId, List.of(musicId), userId);
+    }
+
+    /**
+     * Appends the given tracks in request order, skipping ones already in the playlist.
+     * Fails without changing anything if any of the ids is not a track.
+     */
+    public PlaylistTracksResult addTracks(Long playlistId, List<Long> musicIds, Long userId) {
+        Playlist playlist = findEditablePlaylist(playlistId, userId);
+        Set<Long> requested = new LinkedHashSet<>(musicIds);
+
+        Set<Long> existing = musicRepository.findExistingIds(requested);
+        if (existing.size() < requested.size()) {
+            List<Long> missing = requested.stream().filter(id -> !existing.contains(id)).toList();
+            throw new MusicNotFoundException("Music not found: " + missing);
+        }
+
+        requested.removeAll(playlistTrackRepository.findMusicIdsInPlaylist(playlistId, requested));
+
+        int position = playlistTrackRepository.findMaxPosition(playlistId);
+        List<PlaylistTrack> newTracks = new ArrayList<>(requested.size());
+        for (Long musicId : requested) {
+            newTracks.add(new PlaylistTrack(playlist, musicRepository.getReferenceById(musicId), ++position));
+        }
+        try {
+            // Flushed here so a duplicate slipping past the lock (e.g. a plain SQL insert) surfaces as a conflict
+            playlistTrackRepository.saveAllAndFlush(newTracks);
+        } catch (DataIntegrityViolationException e) {
+            throw new PlaylistTracksConflictException("Playlist was changed concurrently, some tracks are already in it");
+        }
+
+        return result(playlistId, newTracks.size());
+    }
+
+    public PlaylistTracksResult removeTracks(Long playlistId, List<Long> musicIds, Long userId) {
+        findEditablePlaylist(playlistId, userId);
+        int removed = playlistTrackRepository.deleteFromPlaylist(playlistId, new LinkedHashSet<>(musicIds));
+        return result(playlistId, removed);
+    }
+
+    /**
+     * Puts the playlist's tracks in the given order. The ids must be exactly the playlist's current tracks.
+     */
+    public PlaylistTracksResult reorderTracks(Long playlistId, List<Long> musicIds, Long userId) {
+        findEditablePlaylist(playlistId, userId);
+
+        Map<Long, PlaylistTrack> tracks = playlistTrackRepository.findByPlaylistIdOrderByPositionAscIdAsc(playlistId)
+                .stream()
+                .collect(Collectors.toMap(track -> track.getMusic().getId(), Function.identity()));
+        if (musicIds.size() != tracks.size() || !tracks.keySet().equals(new LinkedHashSet<>(musicIds))) {
+            throw new InvalidPlaylistTracksException("Reorder must list every track of the playlist exactly once");
+        }
 
-    public Playlist addMusicToPlaylist(Long playlistId, Long musicId, Long userId) {
-        Playlist playlist = playlistRepository.findById(playlistId)
+        // Only rows whose position actually changes are dirty, so only those get an UPDATE
+        int moved = 0;
+        for (int position = 0; position < musicIds.size(); position++) {
+            PlaylistTrack track = tracks.get(musicIds.get(position));
+            if (track.getPosition() != position) {
+                track.setPosition(position);
+                moved++;
+            }
+        }
+        return new PlaylistTracksResult(playlistId, moved, tracks.size());
+    }
+
+    private Playlist findEditablePlaylist(Long playlistId, Long userId) {
+        // Locked until the transaction ends, so concurrent edits of the same playlist run one after another
+        Playlist playlist = playlistRepository.findLockedById(playlistId)
                 .orElseThrow(() -> new PlaylistNotFoundException("Playlist not found"));
-        Music music = musicRepository.findById(musicId)
-                .orElseThrow(() -> new MusicNotFoundException("Music not found"));
-        userRepository.findById(userId)
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
 
-        if (!playlist.getTracks().contains(music)) {
-            playlist.getTracks().add(music);
+        if (!playlist.getOwner().getId().equals(userId) && user.getRole() != Role.ADMIN) {
+            throw new AuthenticationException("You are not authorized to change this playlist");
         }
+        return playlist;
+    }
 
-        return playlistRepository.save(playlist);
+    private PlaylistTracksResult result(Long playlistId, int changed) {
+        return new PlaylistTracksResult(playlistId, changed, playlistTrackRepository.countByPlaylistId(playlistId));
     }
 }
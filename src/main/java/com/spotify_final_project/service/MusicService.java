@@ -2,6 +2,8 @@ package com.spotify_final_project.service;
 
 import com.spotify_final_project.dto.music.MusicRequest;
 import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.dto.music.MusicSearchRow;
+import com.spotify_final_project.dto.response.CursorPage;
 import com.spotify_final_project.enums.GenreType;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.exception.album.AlbumNotFoundException;
@@ -15,19 +17,28 @@ import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.AlbumRepository;
 import com.spotify_final_project.repository.MusicRepository;
 import com.spotify_final_project.repository.UserRepository;
-import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Function;
 
 @AllArgsConstructor
 @Service
 public class MusicService {
 
+    // Shorter terms have no complete trigram, so the index can't narrow them down and every row would be checked
+    public static final int MIN_SEARCH_LENGTH = 3;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final MusicRepository musicRepository;
     private final UserRepository userRepository;
     private final AlbumRepository albumRepository;
+    private final ArtistGenreIndex artistGenreIndex;
 
 
     public MusicResponse createMusic(MusicRequest request, Long artistId) {
@@ -45,6 +56,7 @@ public class MusicService {
         music.setAlbum(album);
 
         music = musicRepository.save(music);
+        artistGenreIndex.invalidate();
 
         return MusicMapper.mapToResponse(music);
     }
@@ -64,6 +76,7 @@ public class MusicService {
         music.setDuration(request.getDuration());
 
         Music updated = musicRepository.save(music);
+        artistGenreIndex.invalidate();
 
         return MusicMapper.mapToResponse(updated);
     }
@@ -83,8 +96,19 @@ public class MusicService {
         }
 
         musicRepository.delete(music);
+        artistGenreIndex.invalidate();
+    }
+
+    /**
+     * Existence check for endpoints that only need the id, without loading and mapping the track.
+     */
+    public void requireMusicExists(Long musicId) {
+        if (!musicRepository.existsById(musicId)) {
+            throw new MusicNotFoundException("Music not found");
+        }
     }
 
+    @Transactional(readOnly = true)
     public MusicResponse getMusicById(Long musicId) {
         Music music = musicRepository.findById(musicId)
                 .orElseThrow(() -> new MusicNotFoundException("Music not found"));
@@ -93,40 +117,62 @@ public class MusicService {
     }
 
 
-    public List<MusicResponse> getAllMusics() {
-        return musicRepository.findAll()
-                .stream()
-                .map(MusicMapper::mapToResponse)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPage<MusicResponse> getAllMusics(Long after, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<MusicResponse> rows = musicRepository.findResponsesAfter(CursorPage.startAfter(after), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, MusicResponse::getId, Function.identity());
     }
 
 
+    @Transactional(readOnly = true)
     public Music getMusicEntityById(Long id) {
         return musicRepository.findById(id)
                 .orElseThrow(() -> new MusicNotFoundException("Music not found"));
     }
 
-    public List<Music> searchByTitle(String title) {
-        return musicRepository.findByTitleContainingIgnoreCase(title);
+    @Transactional(readOnly = true)
+    public List<MusicResponse> searchByTitle(String title, int page, int size) {
+        return toResponses(musicRepository.searchByTitle(title, escapeLikePattern(title), searchPage(page, size)));
     }
 
-    public List<Music> searchByArtist(String artistUsername) {
-        return musicRepository.findByArtist_UsernameContainingIgnoreCase(artistUsername);
+    @Transactional(readOnly = true)
+    public List<MusicResponse> searchByArtist(String artistUsername, int page, int size) {
+        return toResponses(musicRepository.searchByArtistUsername(artistUsername, escapeLikePattern(artistUsername), searchPage(page, size)));
     }
 
-    public List<Music> searchByTitleOrArtist(String keyword) {
-        return musicRepository.findByTitleContainingIgnoreCaseOrArtist_UsernameContainingIgnoreCase(keyword, keyword);
+    @Transactional(readOnly = true)
+    public List<MusicResponse> searchByTitleOrArtist(String keyword, int page, int size) {
+        Pageable pageable = searchPage(page, size);
+        int window = (int) pageable.getOffset() + pageable.getPageSize();
+        return toResponses(musicRepository.searchByTitleOrArtistUsername(keyword, escapeLikePattern(keyword), window, pageable));
     }
 
-    public List<Music> getMusicByArtist(Long artistId) {
-        User artist = userRepository.findById(artistId)
-                .orElseThrow(() -> new UserNotFoundException("Artist not found"));
+    private static List<MusicResponse> toResponses(List<MusicSearchRow> rows) {
+        return rows.stream().map(MusicMapper::mapToResponse).toList();
+    }
+
+    private static Pageable searchPage(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE));
+    }
+
+    // User input must not be able to inject LIKE wildcards
+    private static String escapeLikePattern(String query) {
+        return query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Transactional(readOnly = true)
+    public List<MusicResponse> getMusicByArtist(Long artistId) {
+        if (!userRepository.existsById(artistId)) {
+            throw new UserNotFoundException("Artist not found");
+        }
 
-        return musicRepository.findByArtist(artist);
+        return musicRepository.findResponsesByArtistId(artistId);
     }
 
-    public List<Music> getMusicByGenre(GenreType genre) {
-        return musicRepository.findByGenre(genre);
+    @Transactional(readOnly = true)
+    public List<MusicResponse> getMusicByGenre(GenreType genre) {
+        return musicRepository.findResponsesByGenre(genre);
     }
 
 }
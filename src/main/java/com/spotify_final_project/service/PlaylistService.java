@@ -2,6 +2,8 @@ package com.spotify_final_project.service;
 
 import com.spotify_final_project.dto.playlist.CreatePlaylistRequest;
 import com.spotify_final_project.dto.playlist.PlaylistResponse;
+import com.spotify_final_project.dto.playlist.PlaylistTrackTitle;
+import com.spotify_final_project.dto.response.CursorPage;
 import com.spotify_final_project.exception.auth.AuthenticationException;
 import com.spotify_final_project.exception.auth.UserNotFoundException;
 import com.spotify_final_project.exception.playlist.PlaylistNotFoundException;
@@ -9,12 +11,15 @@ import com.spotify_final_project.mappers.PlaylistMapper;
 import com.spotify_final_project.model.Playlist;
 import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.PlaylistRepository;
+import com.spotify_final_project.repository.PlaylistTrackRepository;
 import com.spotify_final_project.repository.UserRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +28,7 @@ import java.util.stream.Collectors;
 public class PlaylistService {
 
     private final PlaylistRepository playlistRepository;
+    private final PlaylistTrackRepository playlistTrackRepository;
     private final UserRepository userRepository;
 
     public PlaylistResponse createPlaylist(CreatePlaylistRequest request, Long userId) {
@@ -68,18 +74,27 @@ public class PlaylistService {
         playlistRepository.delete(playlist);
     }
 
+    @Transactional(readOnly = true)
     public PlaylistResponse getPlaylistById(Long playlistId) {
-        Playlist playlist = playlistRepository.findById(playlistId)
+        Playlist playlist = playlistRepository.findDetailById(playlistId)
                 .orElseThrow(() -> new PlaylistNotFoundException("Playlist not found"));
 
         return PlaylistMapper.mapToResponse(playlist);
     }
 
-    public List<PlaylistResponse> getAllPlaylists() {
-        return playlistRepository.findAll()
+    @Transactional(readOnly = true)
+    public CursorPage<PlaylistResponse> getAllPlaylists(Long after, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<Playlist> rows = playlistRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.startAfter(after), Limit.of(pageSize + 1));
+
+        // Two statements per page whatever its size: playlists with their owner, then all of their track titles
+        Map<Long, List<String>> trackTitles = rows.isEmpty() ? Map.of() : playlistTrackRepository
+                .findTrackTitlesByPlaylistIds(rows.stream().map(Playlist::getId).toList())
                 .stream()
-                .map(PlaylistMapper::mapToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.groupingBy(PlaylistTrackTitle::playlistId,
+                        Collectors.mapping(PlaylistTrackTitle::title, Collectors.toList())));
+        return CursorPage.of(rows, pageSize, Playlist::getId,
+                playlist -> PlaylistMapper.mapToResponse(playlist, trackTitles.getOrDefault(playlist.getId(), List.of())));
     }
 }
 
@@ -0,0 +1,150 @@
+package com.spotify_final_project.service;
+
+import com.spotify_final_project.config.ReplicaRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.spotify_final_project.dto.auth.VerifiedPrincipal;
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.exception.auth.InvalidCredentialsException;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded TTL cache of verified principals keyed by the SHA-256 of the raw token, so a token is
+ * parsed and its user looked up at most once per TTL. Entries never outlive the token's own expiry.
+ */
+@Service
+public class PrincipalCacheService {
+
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
+    private final Cache<String, VerifiedPrincipal> principals;
+
+    // Bumped on every eviction; a lookup that started before an eviction must not repopulate the cache
+    private final AtomicLong evictionEpoch = new AtomicLong();
+
+    public PrincipalCacheService(JwtService jwtService,
+                                 UserRepository userRepository,
+                                 @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                                 @Value("${app.security.principal-cache.max-size:10000}") long maxSize) {
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenBoundExpiry(Duration.ofSeconds(ttlSeconds)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Resolves a raw bearer token to its principal, rejecting blocked accounts.
+     */
+    public VerifiedPrincipal resolve(String token) {
+        String key = hash(token);
+        VerifiedPrincipal principal = principals.getIfPresent(key);
+        if (principal == null) {
+            long epoch = evictionEpoch.get();
+            principal = load(token);
+            if (evictionEpoch.get() == epoch) {
+                principals.put(key, principal);
+            }
+        }
+
+        if (principal.status() == AccountStatus.BLOCKED) {
+            throw new InvalidCredentialsException("Your account has been blocked. Please contact support.");
+        }
+        return principal;
+    }
+
+    /**
+     * Drops every cached token of the user. Inside a transaction this happens after commit,
+     * so the next lookup is guaranteed to see the new state.
+     */
+    public void evictUser(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUser(userId);
+                }
+            });
+        }
+        // Evict right away as well, so requests racing with the commit don't keep the old entry
+        removeUser(userId);
+    }
+
+    public long size() {
+        return principals.estimatedSize();
+    }
+
+    public double hitRate() {
+        return principals.stats().hitRate();
+    }
+
+    private void removeUser(Long userId) {
+        evictionEpoch.incrementAndGet();
+        principals.asMap().values().removeIf(p -> p.userId().equals(userId));
+    }
+
+    private VerifiedPrincipal load(String token) {
+        Claims claims = jwtService.parseClaims(token);
+        // A lagging replica could still report a just-blocked user as active, and that would be cached for the TTL
+        User user = ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByUsername(claims.get("username", String.class)))
+                .orElseThrow(() -> new InvalidCredentialsException("User not found"));
+
+        return new VerifiedPrincipal(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getRole(),
+                user.getStatus(),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record TokenBoundExpiry(Duration ttl) implements Expiry<String, VerifiedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedPrincipal principal, long currentTime) {
+            long ttlNanos = ttl.toNanos();
+            if (principal.expiresAt() == null) {
+                return ttlNanos;
+            }
+            long untilExpiry = Duration.between(Instant.now(), principal.expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
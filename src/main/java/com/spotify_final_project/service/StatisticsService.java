@@ -1,43 +1,77 @@
 package com.spotify_final_project.service;
 
-import com.spotify_final_project.model.Listen;
+import com.spotify_final_project.dto.listen.ListenStatRow;
+import com.spotify_final_project.dto.listen.ListenStatSummary;
 import com.spotify_final_project.repository.ListenRepository;
+import com.spotify_final_project.service.statistics.StatisticsSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StatisticsService {
 
     private final ListenRepository listenRepository;
+    private final StatisticsSink statisticsSink;
+    private final MeterRegistry meterRegistry;
 
     @Scheduled(cron = "0 0 0 ? * FRI")
+    @Transactional(readOnly = true)
     public void printWeeklyStatistics() {
-        List<Listen> listens = listenRepository.findAll();
-
-        System.out.println("==== Weekly Music Listen Statistics ====");
-        for (Listen listen : listens) {
-            System.out.printf("User: %s, Song: %s, Count: %d%n",
-                    listen.getListener().getUsername(),
-                    listen.getMusic().getTitle(),
-                    listen.getCount());
-        }
-        System.out.println("=======================================");
+        exportReport("weekly-listens");
     }
 
-    @Scheduled(cron = "0 * * * * *")
+    // Disabled unless app.statistics.test-cron is set, e.g. "0 * * * * *" for local debugging
+    @Scheduled(cron = "${app.statistics.test-cron:-}")
+    @Transactional(readOnly = true)
     public void printStatisticsForTesting() {
-        List<Listen> listens = listenRepository.findAll();
-        System.out.println("==== Test Listen Statistics ====");
-        for (Listen listen : listens) {
-            System.out.printf("User: %s, Song: %s, Count: %d%n",
-                    listen.getListener().getUsername(),
-                    listen.getMusic().getTitle(),
-                    listen.getCount());
+        exportReport("test-listens");
+    }
+
+    private ListenStatSummary exportReport(String reportName) {
+        long started = System.nanoTime();
+        long[] rowsAndPlays = new long[2];
+        String outcome = "success";
+
+        try (Stream<ListenStatRow> rows = listenRepository.streamStatRows()) {
+            statisticsSink.export(reportName, rows.peek(row -> {
+                rowsAndPlays[0]++;
+                rowsAndPlays[1] += row.count();
+            }));
+        } catch (IOException e) {
+            log.error("Failed to export listen statistics report {}", reportName, e);
+            outcome = "failure";
         }
-        System.out.println("================================");
+
+        long elapsedNanos = System.nanoTime() - started;
+        // tasks.scheduled.execution times the whole job; this one is per report and counts its rows
+        Timer.builder("statistics.report")
+                .description("Time to stream and export a listen statistics report")
+                .tag("report", reportName)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("statistics.report.rows")
+                .tag("report", reportName)
+                .register(meterRegistry)
+                .increment(rowsAndPlays[0]);
+
+        ListenStatSummary summary = new ListenStatSummary(reportName, rowsAndPlays[0], rowsAndPlays[1],
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        log.info("Listen statistics report {}: {} rows, {} plays in {} ms ({} rows/s)",
+                summary.reportName(), summary.rows(), summary.totalPlays(), summary.elapsedMillis(),
+                String.format("%.1f", summary.rowsPerSecond()));
+        return summary;
     }
 }
@@ -1,53 +1,51 @@
 package com.spotify_final_project.service;
 
+import com.spotify_final_project.dto.music.MusicResponse;
 import com.spotify_final_project.enums.GenreType;
-import com.spotify_final_project.model.Listen;
-import com.spotify_final_project.model.Music;
-import com.spotify_final_project.model.User;
-import com.spotify_final_project.repository.ListenRepository;
+import com.spotify_final_project.mappers.MusicMapper;
+import com.spotify_final_project.model.UserGenreAffinity;
 import com.spotify_final_project.repository.MusicRepository;
+import com.spotify_final_project.repository.UserGenreAffinityRepository;
 import com.spotify_final_project.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SuggestionPlaylistService {
 
-    private final ListenRepository listenRepository;
+    private final UserGenreAffinityRepository userGenreAffinityRepository;
     private final MusicRepository musicRepository;
     private final UserRepository userRepository;
 
-    public Map<GenreType, List<Music>> generateSessionPlaylists(Long userId, int page, int pageSizePerGenre) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Transactional(readOnly = true)
+    public Map<GenreType, List<MusicResponse>> generateSessionPlaylists(Long userId, int page, int pageSizePerGenre) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
 
-        List<Listen> listens = listenRepository.findAllByListener(user);
+        // Affinity rows are kept up to date by the listen flush, at most one per genre
+        List<UserGenreAffinity> topGenres = userGenreAffinityRepository.findTop3ByUserIdOrderByScoreDesc(userId);
 
-        if (listens.isEmpty()) {
+        if (topGenres.isEmpty()) {
             return Collections.emptyMap();
         }
 
-        Map<GenreType, Long> genreCounts = listens.stream()
-                .collect(Collectors.groupingBy(l -> l.getMusic().getGenre(), Collectors.summingLong(Listen::getCount)));
-
-        List<GenreType> topGenres = genreCounts.entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(3)
-                .map(Map.Entry::getKey)
-                .toList();
-
-        Map<GenreType, List<Music>> playlists = new LinkedHashMap<>();
-        for (GenreType genre : topGenres) {
-            List<Music> songs = musicRepository.findAllByGenre(genre, PageRequest.of(page, pageSizePerGenre));
-            playlists.put(genre, songs);
+        // Mapped here, while the session is open; the tracks come with their artist and album in one query
+        Map<GenreType, List<MusicResponse>> playlists = new LinkedHashMap<>();
+        for (UserGenreAffinity affinity : topGenres) {
+            List<MusicResponse> songs = musicRepository.findAllByGenre(affinity.getGenre(), PageRequest.of(page, pageSizePerGenre))
+                    .stream()
+                    .map(MusicMapper::mapToResponse)
+                    .toList();
+            playlists.put(affinity.getGenre(), songs);
         }
 
         return playlists;
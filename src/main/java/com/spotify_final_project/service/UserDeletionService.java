@@ -0,0 +1,178 @@
+package com.spotify_final_project.service;
+
+import com.spotify_final_project.dto.user.UserDeletionStatus;
+import com.spotify_final_project.enums.DeletionState;
+import com.spotify_final_project.repository.UserDeletionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Deletes a user with a handful of set-based statements. Users that own more tracks than one chunk are
+ * deleted in the background instead, one short transaction per chunk of tracks, so an admin delete never
+ * holds row locks on music/playlists/listens for long. Progress is kept per user id, finished jobs for
+ * app.admin.user-deletion.status-retention.
+ */
+@Slf4j
+@Service
+public class UserDeletionService {
+
+    private final UserDeletionRepository userDeletionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PrincipalCacheService principalCacheService;
+    private final EntityCacheService entityCacheService;
+    private final ArtistGenreIndex artistGenreIndex;
+    private final ListenService listenService;
+    private final int chunkSize;
+    private final Duration statusRetention;
+    private final Clock clock;
+
+    private final Map<Long, UserDeletionStatus> deletions = new ConcurrentHashMap<>();
+    // One background deletion at a time; others queue up behind it
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "user-deletion"));
+
+    @Autowired
+    public UserDeletionService(UserDeletionRepository userDeletionRepository,
+                               PlatformTransactionManager transactionManager,
+                               PrincipalCacheService principalCacheService,
+                               EntityCacheService entityCacheService,
+                               ArtistGenreIndex artistGenreIndex,
+                               ListenService listenService,
+                               @Value("${app.admin.user-deletion.chunk-size:1000}") int chunkSize,
+                               @Value("${app.admin.user-deletion.status-retention:1h}") Duration statusRetention) {
+        this(userDeletionRepository, transactionManager, principalCacheService, entityCacheService, artistGenreIndex,
+                listenService, chunkSize, statusRetention, Clock.systemUTC());
+    }
+
+    public UserDeletionService(UserDeletionRepository userDeletionRepository,
+                               PlatformTransactionManager transactionManager,
+                               PrincipalCacheService principalCacheService,
+                               EntityCacheService entityCacheService,
+                               ArtistGenreIndex artistGenreIndex,
+                               ListenService listenService,
+                               int chunkSize,
+                               Duration statusRetention,
+                               Clock clock) {
+        this.userDeletionRepository = userDeletionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.principalCacheService = principalCacheService;
+        this.entityCacheService = entityCacheService;
+        this.artistGenreIndex = artistGenreIndex;
+        this.listenService = listenService;
+        this.chunkSize = chunkSize;
+        this.statusRetention = statusRetention;
+        this.clock = clock;
+    }
+
+    /**
+     * Deletes the user right away when they own at most one chunk of tracks, otherwise starts a background
+     * deletion and returns its (running) status. Must be called for an existing user.
+     */
+    public UserDeletionStatus deleteUser(Long userId) {
+        pruneFinished();
+        Instant startedAt = clock.instant();
+        // Claimed atomically, so two concurrent requests for the same user can't both start a deletion
+        UserDeletionStatus claim = new UserDeletionStatus(userId, DeletionState.RUNNING, 0, 0, startedAt, null, null);
+        UserDeletionStatus current = deletions.compute(userId, (id, existing) ->
+                existing != null && existing.state() == DeletionState.RUNNING ? existing : claim);
+        if (current != claim) {
+            return current;
+        }
+
+        try {
+            long totalTracks = transactionTemplate.execute(status -> userDeletionRepository.countTracks(userId));
+
+            if (totalTracks <= chunkSize) {
+                List<Long> deletedTracks = transactionTemplate.execute(status -> {
+                    List<Long> tracks = userDeletionRepository.deleteAllTracks(userId);
+                    userDeletionRepository.deleteUserRows(userId);
+                    return tracks;
+                });
+                listenService.discardTracks(deletedTracks);
+                afterDeletion(userId);
+                return record(new UserDeletionStatus(userId, DeletionState.COMPLETED, totalTracks, totalTracks, startedAt, clock.instant(), null));
+            }
+
+            // Block first so the user can't add content while their catalog is being taken apart
+            transactionTemplate.executeWithoutResult(status -> userDeletionRepository.blockUser(userId));
+            principalCacheService.evictUser(userId);
+            entityCacheService.evictUser(userId);
+
+            UserDeletionStatus status = record(new UserDeletionStatus(userId, DeletionState.RUNNING, totalTracks, 0, startedAt, null, null));
+            executor.execute(() -> deleteInChunks(userId, totalTracks, startedAt));
+            return status;
+        } catch (RuntimeException e) {
+            // Release the claim, otherwise the user would look busy until restart
+            record(new UserDeletionStatus(userId, DeletionState.FAILED, 0, 0, startedAt, clock.instant(), e.getMessage()));
+            throw e;
+        }
+    }
+
+    public Optional<UserDeletionStatus> getStatus(Long userId) {
+        pruneFinished();
+        return Optional.ofNullable(deletions.get(userId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void deleteInChunks(Long userId, long totalTracks, Instant startedAt) {
+        long deleted = 0;
+        try {
+            List<Long> chunk;
+            do {
+                chunk = transactionTemplate.execute(status -> userDeletionRepository.deleteTrackChunk(userId, chunkSize));
+                deleted += chunk.size();
+                // Other listeners' buffered plays of these tracks would fail the next listen flush
+                listenService.discardTracks(chunk);
+                // Plain SQL bypasses the second-level cache, so deleted tracks must not be served from it
+                entityCacheService.evictCatalog();
+                record(new UserDeletionStatus(userId, DeletionState.RUNNING, totalTracks, deleted, startedAt, null, null));
+            } while (chunk.size() == chunkSize && !Thread.currentThread().isInterrupted());
+
+            transactionTemplate.executeWithoutResult(status -> userDeletionRepository.deleteUserRows(userId));
+            afterDeletion(userId);
+            record(new UserDeletionStatus(userId, DeletionState.COMPLETED, totalTracks, deleted, startedAt, clock.instant(), null));
+            log.info("Deleted user {} with {} tracks in the background", userId, deleted);
+        } catch (RuntimeException e) {
+            // Chunks already committed stay deleted; running the delete again continues from there
+            record(new UserDeletionStatus(userId, DeletionState.FAILED, totalTracks, deleted, startedAt, clock.instant(), e.getMessage()));
+            log.error("Background deletion of user {} failed after {} of {} tracks", userId, deleted, totalTracks, e);
+        }
+    }
+
+    private void afterDeletion(Long userId) {
+        listenService.discardUser(userId);
+        principalCacheService.evictUser(userId);
+        entityCacheService.evictUser(userId);
+        entityCacheService.evictCatalog();
+        artistGenreIndex.invalidate();
+    }
+
+    // Finished jobs are only kept for status polling; without this the map grows with every deleted user
+    private void pruneFinished() {
+        Instant cutoff = clock.instant().minus(statusRetention);
+        deletions.values().removeIf(status -> status.finishedAt() != null && status.finishedAt().isBefore(cutoff));
+    }
+
+    private UserDeletionStatus record(UserDeletionStatus status) {
+        deletions.put(status.userId(), status);
+        return status;
+    }
+}
@@ -1,6 +1,5 @@
 package com.spotify_final_project.service;
 
-import com.spotify_final_project.config.CustomAuthentication;
 import com.spotify_final_project.dto.auth.UserLoginRequest;
 import com.spotify_final_project.dto.register.UserRegisterRequest;
 import com.spotify_final_project.dto.response.AuthResponse;
@@ -8,25 +7,28 @@ import com.spotify_final_project.dto.user.UserSummary;
 import com.spotify_final_project.enums.AccountStatus;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.exception.auth.InvalidCredentialsException;
+import com.spotify_final_project.exception.auth.PasswordHashingBusyException;
 import com.spotify_final_project.mappers.UserMapper;
 import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
+@Slf4j
 @AllArgsConstructor
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final MailService mailService;
+    private final TransactionTemplate transactionTemplate;
 
     public String register(UserRegisterRequest request) {
 
@@ -39,7 +41,7 @@ public class UserService {
         }
 
         User user = UserMapper.mapToEntity(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
 
         try {
             Role selectedRole = Role.valueOf(request.getRole().toUpperCase());
@@ -57,9 +59,12 @@ public class UserService {
         String verificationCode = String.valueOf((int)(Math.random() * 900000) + 100000);
         user.setVerificationCode(verificationCode);
 
-        userRepository.save(user);
-
-        mailService.sendVerificationEmail(user.getEmail(), verificationCode);
+        // Hashing happens above, outside the transaction, so no connection is held while it waits for a core.
+        // The user and their verification mail commit together; the mail itself is sent in the background.
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(user);
+            mailService.queueVerificationEmail(user.getEmail(), verificationCode);
+        });
 
         return "User registered successfully! Please check your email to verify your account.";
     }
@@ -73,7 +78,7 @@ public class UserService {
             throw new InvalidCredentialsException("Your account has been blocked. Please contact support.");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Invalid username or password");
         }
 
@@ -81,22 +86,24 @@ public class UserService {
             throw new InvalidCredentialsException("Please verify your email before logging in");
         }
 
+        if (passwordHashingService.upgradeEncoding(user.getPassword())) {
+            upgradePassword(user, request.getPassword());
+        }
+
         String token = jwtService.generateToken(user.getUsername(), user.getEmail(), user.getRole());
         long expiresAt = jwtService.getExpirationTimestamp();
 
         return new AuthResponse(token, expiresAt);
     }
 
-    public Authentication authenticate(String token) {
-        System.out.println("Parsing JWT token: " + token);
-
-        CustomAuthentication auth = (CustomAuthentication) jwtService.parseToken(token);
-
-        System.out.println("Authentication created: " + auth.getAuthorities());
-
-        userRepository.findByUsername(auth.getName())
-                .orElseThrow(() -> new InvalidCredentialsException("User not found"));
-        return auth;
+    // Rehashes with the current work factor while the raw password is at hand; retried on a later login if busy
+    private void upgradePassword(User user, String rawPassword) {
+        try {
+            user.setPassword(passwordHashingService.encode(rawPassword));
+            userRepository.save(user);
+        } catch (PasswordHashingBusyException e) {
+            log.debug("Skipped password rehash for user {}, hashing is busy", user.getId());
+        }
     }
 
     public List<UserSummary> getAllUserNames(Pageable pageable) {
@@ -0,0 +1,133 @@
+package com.spotify_final_project.service.charts;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Play counts per track in fixed-size time buckets covering the last {@code bucketCount} buckets, plus the
+ * running total over all of them. Expired buckets are subtracted from the totals as the window slides, so
+ * reading the totals never rescans the buckets.
+ * <p>
+ * Not thread-safe; {@link com.spotify_final_project.service.ChartService} only touches it under its lock.
+ */
+public class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final int bucketCount;
+
+    // Bucket index (epoch millis / bucketMillis) -> bucket, oldest first
+    private final TreeMap<Long, Bucket> buckets = new TreeMap<>();
+    private final Map<Long, Long> totals = new HashMap<>();
+
+    public SlidingWindowCounter(long bucketMillis, int bucketCount) {
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+    }
+
+    /**
+     * Adds plays to the bucket containing {@code timestampMillis}, first expiring buckets that fell out of the
+     * window ending there. Plays older than the window are ignored.
+     */
+    public void add(long timestampMillis, Map<Long, Long> plays) {
+        advance(timestampMillis);
+        Bucket bucket = bucketAt(timestampMillis);
+        if (bucket == null) {
+            return;
+        }
+        plays.forEach((musicId, count) -> addToBucket(bucket, musicId, count));
+        bucket.dirty = true;
+    }
+
+    /**
+     * Same as {@link #add} for a single track, but the bucket isn't marked dirty; used to restore snapshots.
+     */
+    public void restore(long timestampMillis, Long musicId, long plays) {
+        Bucket bucket = bucketAt(timestampMillis);
+        if (bucket != null) {
+            addToBucket(bucket, musicId, plays);
+        }
+    }
+
+    /**
+     * Drops buckets that are no longer inside the window ending at {@code nowMillis}.
+     */
+    public void advance(long nowMillis) {
+        long oldestKept = oldestKeptIndex(nowMillis);
+        while (!buckets.isEmpty() && buckets.firstKey() < oldestKept) {
+            Bucket expired = buckets.pollFirstEntry().getValue();
+            expired.plays.forEach((musicId, count) ->
+                    totals.computeIfPresent(musicId, (id, total) -> total - count == 0 ? null : total - count));
+        }
+    }
+
+    public Map<Long, Long> totals() {
+        return Collections.unmodifiableMap(totals);
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * Start of the oldest bucket still inside the window ending at {@code nowMillis}.
+     */
+    public long windowStartMillis(long nowMillis) {
+        return oldestKeptIndex(nowMillis) * bucketMillis;
+    }
+
+    /**
+     * Copies of the buckets changed since the last call; their dirty flag is cleared.
+     */
+    public List<BucketPlays> takeDirtyBuckets() {
+        List<BucketPlays> dirty = new ArrayList<>();
+        buckets.forEach((index, bucket) -> {
+            if (bucket.dirty) {
+                bucket.dirty = false;
+                dirty.add(new BucketPlays(index * bucketMillis, Map.copyOf(bucket.plays)));
+            }
+        });
+        return dirty;
+    }
+
+    /**
+     * Flags buckets as changed again, e.g. after writing them out failed.
+     */
+    public void markDirty(List<BucketPlays> unsaved) {
+        for (BucketPlays bucketPlays : unsaved) {
+            Bucket bucket = buckets.get(bucketPlays.startMillis() / bucketMillis);
+            if (bucket != null) {
+                bucket.dirty = true;
+            }
+        }
+    }
+
+    private Bucket bucketAt(long timestampMillis) {
+        long index = timestampMillis / bucketMillis;
+        // Relative to the newest bucket, so restoring old snapshots can't expire newer buckets
+        long newest = buckets.isEmpty() ? index : Math.max(index, buckets.lastKey());
+        if (index <= newest - bucketCount) {
+            return null;
+        }
+        return buckets.computeIfAbsent(index, i -> new Bucket());
+    }
+
+    private void addToBucket(Bucket bucket, Long musicId, long plays) {
+        bucket.plays.merge(musicId, plays, Long::sum);
+        totals.merge(musicId, plays, Long::sum);
+    }
+
+    private long oldestKeptIndex(long nowMillis) {
+        return nowMillis / bucketMillis - bucketCount + 1;
+    }
+
+    public record BucketPlays(long startMillis, Map<Long, Long> plays) {}
+
+    private static final class Bucket {
+        private final Map<Long, Long> plays = new HashMap<>();
+        private boolean dirty;
+    }
+}
@@ -0,0 +1,111 @@
+package com.spotify_final_project.service.generator;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Streams rows into PostgreSQL with COPY ... FROM STDIN in text format, flushing every
+ * {@value #FLUSH_CHARS} characters, so a table of any size goes over in one statement without being held
+ * in memory. Runs in the connection's transaction.
+ */
+public class CopyTableWriter implements TableWriter {
+
+    private static final int FLUSH_CHARS = 1 << 16;
+
+    private final CopyManager copyManager;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 1024);
+    private CopyIn copyIn;
+    private boolean firstValue = true;
+    private long rows;
+
+    public CopyTableWriter(Connection connection) throws SQLException {
+        this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    @Override
+    public void startTable(String table, List<String> columns) throws IOException {
+        try {
+            copyIn = copyManager.copyIn("COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN");
+        } catch (SQLException e) {
+            throw new IOException("Could not start COPY into " + table, e);
+        }
+        rows = 0;
+        firstValue = true;
+    }
+
+    @Override
+    public TableWriter add(long value) {
+        separate();
+        buffer.append(value);
+        return this;
+    }
+
+    @Override
+    public TableWriter add(String value) {
+        separate();
+        if (value == null) {
+            buffer.append("\\N");
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        buffer.append('\n');
+        firstValue = true;
+        rows++;
+        if (buffer.length() >= FLUSH_CHARS) {
+            flush();
+        }
+    }
+
+    @Override
+    public long finishTable() throws IOException {
+        flush();
+        try {
+            copyIn.endCopy();
+        } catch (SQLException e) {
+            throw new IOException("COPY failed", e);
+        }
+        copyIn = null;
+        return rows;
+    }
+
+    private void separate() {
+        if (!firstValue) {
+            buffer.append('\t');
+        }
+        firstValue = false;
+    }
+
+    private void flush() throws IOException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        buffer.setLength(0);
+        try {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+        } catch (SQLException e) {
+            throw new IOException("COPY failed", e);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.spotify_final_project.service.generator;
+
+import com.spotify_final_project.config.DataGeneratorProperties;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.enums.Role;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the synthetic catalog and listen history described by DataGeneratorProperties and hands the rows
+ * to a TableWriter. Ids are assigned here, starting after {@link IdOffsets}, so rows can reference each other
+ * without reading anything back. Each table draws from its own split of the seed, so e.g. asking for more
+ * listens leaves the catalog unchanged.
+ * <p>
+ * Shape of the data: artists and their albums and tracks are skewed towards POP, ROCK and RAP; track
+ * popularity is Zipf over a shuffled ranking, so hits are spread over artists; listener activity falls off
+ * with 1/sqrt(rank); plays per (listener, track) row and playlist sizes are Zipf as well.
+ */
+public class SyntheticDataGenerator {
+
+    private static final GenreType[] GENRES = GenreType.values();
+    // Share of artists per genre, in GenreType order: ROCK, POP, RAP, METAL, JAZZ, CLASSICAL, COUNTRY, ELECTRONIC, OTHER
+    private static final double[] GENRE_WEIGHTS = {0.18, 0.24, 0.17, 0.07, 0.05, 0.04, 0.08, 0.12, 0.05};
+    private static final double SINGLE_SHARE = 0.1;
+    private static final double OFF_ALBUM_GENRE_SHARE = 0.15;
+    private static final double LISTENER_ACTIVITY_EXPONENT = 0.5;
+    private static final int MAX_PLAYS_PER_ROW = 1000;
+    private static final LocalDate OLDEST_BIRTH_DATE = LocalDate.of(1960, 1, 1);
+    private static final String[] WORDS = {
+            "midnight", "river", "neon", "summer", "golden", "echo", "wild", "silver", "broken", "electric",
+            "ocean", "fire", "velvet", "shadow", "city", "dream", "paper", "thunder", "crystal", "lonely",
+            "highway", "moon", "sugar", "northern", "heart", "glass", "rain", "honey", "storm", "dust",
+            "satellite", "garden", "winter", "desert", "signal", "ghost", "atlas", "harbor", "morning", "static"
+    };
+
+    /**
+     * Largest ids already taken; generated ids start right after them.
+     */
+    public record IdOffsets(long users, long albums, long music, long playlists, long playlistTracks) {}
+
+    private final DataGeneratorProperties properties;
+    private final String passwordHash;
+
+    public SyntheticDataGenerator(DataGeneratorProperties properties, String passwordHash) {
+        this.properties = properties;
+        this.passwordHash = passwordHash;
+    }
+
+    /**
+     * Writes users, albums, music, playlists, playlist_music, listens and user_genre_affinity, in that order.
+     *
+     * @return rows written per table
+     */
+    public Map<String, Long> generate(TableWriter writer, IdOffsets offsets) throws IOException {
+        SplittableRandom root = new SplittableRandom(properties.seed());
+        SplittableRandom userRandom = root.split();
+        SplittableRandom albumRandom = root.split();
+        SplittableRandom trackRandom = root.split();
+        SplittableRandom playlistRandom = root.split();
+        SplittableRandom listenRandom = root.split();
+
+        int artists = properties.artists();
+        int albums = properties.albums();
+        int tracks = properties.tracks();
+        int listeners = properties.listeners();
+        long firstListenerId = offsets.users() + artists + 1;
+
+        Map<String, Long> rows = new LinkedHashMap<>();
+        byte[] artistGenres = new byte[artists];
+        rows.put("users", writeUsers(writer, offsets, userRandom, artistGenres));
+
+        int[] albumArtists = new int[albums];
+        rows.put("albums", writeAlbums(writer, offsets, albumRandom, artistGenres, albumArtists));
+
+        byte[] trackGenres = new byte[tracks];
+        rows.put("music", writeTracks(writer, offsets, trackRandom, artistGenres, albumArtists, trackGenres));
+
+        // Popularity rank -> track index, shuffled so the hits don't all belong to the first artists
+        int[] tracksByPopularity = shuffledIndexes(tracks, trackRandom);
+        ZipfDistribution popularity = new ZipfDistribution(tracks, properties.trackPopularityExponent());
+
+        rows.put("playlists", writePlaylists(writer, offsets, playlistRandom, firstListenerId));
+        rows.put("playlist_music", writePlaylistTracks(writer, offsets, playlistRandom, popularity, tracksByPopularity));
+
+        long[] genrePlays = new long[listeners * GENRES.length];
+        rows.put("listens", writeListens(writer, offsets, listenRandom, popularity, tracksByPopularity, trackGenres,
+                firstListenerId, genrePlays));
+        rows.put("user_genre_affinity", writeAffinities(writer, firstListenerId, genrePlays));
+        return rows;
+    }
+
+    private long writeUsers(TableWriter writer, IdOffsets offsets, SplittableRandom random, byte[] artistGenres) throws IOException {
+        writer.startTable("users", List.of("id", "username", "email", "password", "first_name", "last_name",
+                "birth_date", "role", "status", "verified"));
+        for (int i = 0; i < artistGenres.length; i++) {
+            artistGenres[i] = (byte) weightedGenre(random);
+            writeUser(writer, offsets.users() + i + 1, "gen_artist_" + (i + 1), "Artist", Role.ARTIST, random);
+        }
+        for (int i = 0; i < properties.listeners(); i++) {
+            writeUser(writer, offsets.users() + artistGenres.length + i + 1, "gen_listener_" + (i + 1), "Listener",
+                    Role.LISTENER, random);
+        }
+        return writer.finishTable();
+    }
+
+    private void writeUser(TableWriter writer, long id, String username, String firstName, Role role,
+                           SplittableRandom random) throws IOException {
+        writer.add(id)
+                .add(username)
+                .add(username + "@example.com")
+                .add(passwordHash)
+                .add(firstName)
+                .add(capitalize(word(random)))
+                .add(OLDEST_BIRTH_DATE.plusDays(random.nextInt(365 * 45)).toString())
+                .add(role.name())
+                .add("ACTIVE")
+                .add("true");
+        writer.endRow();
+    }
+
+    private long writeAlbums(TableWriter writer, IdOffsets offsets, SplittableRandom random, byte[] artistGenres,
+                             int[] albumArtists) throws IOException {
+        writer.startTable("albums", List.of("id", "title", "genre", "release_date", "artist_id"));
+        for (int a = 0; a < albumArtists.length; a++) {
+            int artist = random.nextInt(artistGenres.length);
+            albumArtists[a] = artist;
+            writer.add(offsets.albums() + a + 1)
+                    .add(capitalize(word(random)) + " " + word(random))
+                    .add(GENRES[artistGenres[artist]].name())
+                    .add(LocalDate.of(1970, 1, 1).plusDays(random.nextInt(365 * 55)).toString())
+                    .add(offsets.users() + artist + 1);
+            writer.endRow();
+        }
+        return writer.finishTable();
+    }
+
+    private long writeTracks(TableWriter writer, IdOffsets offsets, SplittableRandom random, byte[] artistGenres,
+                             int[] albumArtists, byte[] trackGenres) throws IOException {
+        writer.startTable("music", List.of("id", "title", "genre", "duration", "artist_id", "album_id"));
+        for (int t = 0; t < trackGenres.length; t++) {
+            boolean single = albumArtists.length == 0 || random.nextDouble() < SINGLE_SHARE;
+            int album = single ? -1 : random.nextInt(albumArtists.length);
+            int artist = single ? random.nextInt(artistGenres.length) : albumArtists[album];
+            int genre = random.nextDouble() < OFF_ALBUM_GENRE_SHARE ? weightedGenre(random) : artistGenres[artist];
+            trackGenres[t] = (byte) genre;
+            writer.add(offsets.music() + t + 1)
+                    .add(capitalize(word(random)) + " " + word(random) + " " + word(random))
+                    .add(GENRES[genre].name())
+                    // 2:30 to 6:59, peaking around 4 minutes
+                    .add(150 + random.nextInt(180) + random.nextInt(90))
+                    .add(offsets.users() + artist + 1)
+                    .add(single ? null : String.valueOf(offsets.albums() + album + 1));
+            writer.endRow();
+        }
+        return writer.finishTable();
+    }
+
+    private long writePlaylists(TableWriter writer, IdOffsets offsets, SplittableRandom random,
+                                long firstListenerId) throws IOException {
+        writer.startTable("playlists", List.of("id", "name", "user_id"));
+        for (int p = 0; p < properties.playlists(); p++) {
+            writer.add(offsets.playlists() + p + 1)
+                    .add(capitalize(word(random)) + " " + word(random) + " mix")
+                    .add(firstListenerId + random.nextInt(properties.listeners()));
+            writer.endRow();
+        }
+        return writer.finishTable();
+    }
+
+    private long writePlaylistTracks(TableWriter writer, IdOffsets offsets, SplittableRandom random,
+                                     ZipfDistribution popularity, int[] tracksByPopularity) throws IOException {
+        ZipfDistribution sizes = new ZipfDistribution(Math.min(properties.maxPlaylistSize(), tracksByPopularity.length),
+                properties.playlistSizeExponent());
+        Set<Integer> picked = new HashSet<>();
+        long entryId = offsets.playlistTracks();
+        writer.startTable("playlist_music", List.of("id", "playlist_id", "music_id", "position"));
+        for (int p = 0; p < properties.playlists(); p++) {
+            int size = sizes.sample(random);
+            pickDistinctTracks(size, random, popularity, picked);
+            int position = 0;
+            for (int rank : picked) {
+                writer.add(++entryId)
+                        .add(offsets.playlists() + p + 1)
+                        .add(offsets.music() + tracksByPopularity[rank - 1] + 1)
+                        .add(position++);
+                writer.endRow();
+            }
+        }
+        return writer.finishTable();
+    }
+
+    private long writeListens(TableWriter writer, IdOffsets offsets, SplittableRandom random,
+                              ZipfDistribution popularity, int[] tracksByPopularity, byte[] trackGenres,
+                              long firstListenerId, long[] genrePlays) throws IOException {
+        int listeners = properties.listeners();
+        long[] rowsPerListener = allocateListenRows(listeners, random);
+        ZipfDistribution plays = new ZipfDistribution(MAX_PLAYS_PER_ROW, properties.playCountExponent());
+        Set<Integer> picked = new HashSet<>();
+
+        writer.startTable("listens", List.of("user_id", "music_id", "count"));
+        for (int listener = 0; listener < listeners; listener++) {
+            pickDistinctTracks((int) rowsPerListener[listener], random, popularity, picked);
+            for (int rank : picked) {
+                int track = tracksByPopularity[rank - 1];
+                int count = plays.sample(random);
+                genrePlays[listener * GENRES.length + trackGenres[track]] += count;
+                writer.add(firstListenerId + listener)
+                        .add(offsets.music() + track + 1)
+                        .add(count);
+                writer.endRow();
+            }
+        }
+        return writer.finishTable();
+    }
+
+    /**
+     * Splits the requested listen rows over the listeners in proportion to 1/rank^0.5 of a shuffled activity
+     * ranking. A listener gets at most half the catalog, so the total can come out below the request when
+     * there are few tracks.
+     */
+    private long[] allocateListenRows(int listeners, SplittableRandom random) {
+        int[] byActivity = shuffledIndexes(listeners, random);
+        double[] weights = new double[listeners];
+        double total = 0;
+        for (int rank = 1; rank <= listeners; rank++) {
+            weights[rank - 1] = Math.pow(rank, -LISTENER_ACTIVITY_EXPONENT);
+            total += weights[rank - 1];
+        }
+        long requested = properties.listens();
+        long cap = Math.max(1, properties.tracks() / 2);
+        long[] rows = new long[listeners];
+        long assigned = 0;
+        for (int rank = 0; rank < listeners; rank++) {
+            rows[byActivity[rank]] = Math.min(cap, (long) (requested * weights[rank] / total));
+            assigned += rows[byActivity[rank]];
+        }
+        // Rounding leftovers go to the most active listeners that still have room
+        for (int rank = 0; rank < listeners && assigned < requested; rank++) {
+            if (rows[byActivity[rank]] < cap) {
+                rows[byActivity[rank]]++;
+                assigned++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Fills {@code picked} with {@code count} distinct popularity ranks. Draws with rejection, and if a large
+     * share of the catalog is asked for and the draws keep hitting taken ranks, tops up with the most popular
+     * free ones so the time stays bounded.
+     */
+    private static void pickDistinctTracks(int count, SplittableRandom random, ZipfDistribution popularity,
+                                           Set<Integer> picked) {
+        picked.clear();
+        int target = Math.min(count, popularity.size());
+        long attempts = 10L * target + 1000;
+        while (picked.size() < target && attempts-- > 0) {
+            picked.add(popularity.sample(random));
+        }
+        for (int rank = 1; picked.size() < target; rank++) {
+            picked.add(rank);
+        }
+    }
+
+    private long writeAffinities(TableWriter writer, long firstListenerId, long[] genrePlays) throws IOException {
+        writer.startTable("user_genre_affinity", List.of("user_id", "genre", "score"));
+        for (int i = 0; i < genrePlays.length; i++) {
+            if (genrePlays[i] > 0) {
+                writer.add(firstListenerId + i / GENRES.length)
+                        .add(GENRES[i % GENRES.length].name())
+                        .add(genrePlays[i]);
+                writer.endRow();
+            }
+        }
+        return writer.finishTable();
+    }
+
+    private static int[] shuffledIndexes(int n, SplittableRandom random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    private static int weightedGenre(SplittableRandom random) {
+        double target = random.nextDouble();
+        for (int g = 0; g < GENRE_WEIGHTS.length - 1; g++) {
+            target -= GENRE_WEIGHTS[g];
+            if (target < 0) {
+                return g;
+            }
+        }
+        return GENRE_WEIGHTS.length - 1;
+    }
+
+    private static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
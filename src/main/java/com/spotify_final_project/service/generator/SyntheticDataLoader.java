@@ -0,0 +1,141 @@
+package com.spotify_final_project.service.generator;
+
+import com.spotify_final_project.config.DataGeneratorProperties;
+import com.spotify_final_project.service.ArtistGenreIndex;
+import com.spotify_final_project.service.EntityCacheService;
+import com.spotify_final_project.service.generator.SyntheticDataGenerator.IdOffsets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the synthetic data set into PostgreSQL on startup when app.generator.enabled=true, in one
+ * transaction of COPY statements, then moves the id sequences past the generated rows and analyzes the
+ * tables. A database that already has the generated users (gen_artist_1) is left alone, so the flag can
+ * stay on across restarts. All generated users log in with app.generator.password.
+ * <p>
+ * Tomcat may already be serving requests while this runs, so the catalog caches are dropped once the load
+ * has committed, the same as after a bulk delete in {@link com.spotify_final_project.service.UserDeletionService}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.generator.enabled", havingValue = "true")
+public class SyntheticDataLoader implements CommandLineRunner {
+
+    private static final List<String> IDENTITY_TABLES = List.of("users", "albums", "music", "playlists");
+    private static final List<String> ANALYZED_TABLES = List.of("users", "albums", "music", "playlists",
+            "playlist_music", "listens", "user_genre_affinity");
+
+    private final DataSource dataSource;
+    private final DataGeneratorProperties properties;
+    private final PasswordEncoder passwordEncoder;
+    private final EntityCacheService entityCacheService;
+    private final ArtistGenreIndex artistGenreIndex;
+
+    public SyntheticDataLoader(DataSource dataSource, DataGeneratorProperties properties, PasswordEncoder passwordEncoder,
+                               EntityCacheService entityCacheService, ArtistGenreIndex artistGenreIndex) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.passwordEncoder = passwordEncoder;
+        this.entityCacheService = entityCacheService;
+        this.artistGenreIndex = artistGenreIndex;
+    }
+
+    @Override
+    public void run(String... args) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (alreadyGenerated(connection)) {
+                log.info("Synthetic data is already present (gen_artist_1 exists), not generating it again");
+                return;
+            }
+
+            log.info("Generating synthetic data with seed {}: {} artists, {} albums, {} tracks, {} listeners, "
+                            + "{} listen rows, {} playlists", properties.seed(), properties.artists(), properties.albums(),
+                    properties.tracks(), properties.listeners(), properties.listens(), properties.playlists());
+            long started = System.nanoTime();
+
+            connection.setAutoCommit(false);
+            try {
+                IdOffsets offsets = readOffsets(connection);
+                SyntheticDataGenerator generator = new SyntheticDataGenerator(properties, passwordEncoder.encode(properties.password()));
+                Map<String, Long> rows = generator.generate(new CopyTableWriter(connection), offsets);
+                advanceSequences(connection, offsets.playlistTracks() + rows.get("playlist_music"));
+                connection.commit();
+                // COPY bypasses Hibernate, so cached query results and the genre index don't know the new rows
+                entityCacheService.evictCatalog();
+                artistGenreIndex.invalidate();
+
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                long total = rows.values().stream().mapToLong(Long::longValue).sum();
+                log.info("Synthetic data loaded in {} ms ({} rows/s): {}", elapsedMillis,
+                        total * 1000 / Math.max(elapsedMillis, 1), rows);
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE " + String.join(", ", ANALYZED_TABLES));
+            }
+        }
+    }
+
+    private static boolean alreadyGenerated(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM users WHERE username = ?")) {
+            statement.setString(1, "gen_artist_1");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private static IdOffsets readOffsets(Connection connection) throws SQLException {
+        return new IdOffsets(
+                queryLong(connection, "SELECT COALESCE(MAX(id), 0) FROM users"),
+                queryLong(connection, "SELECT COALESCE(MAX(id), 0) FROM albums"),
+                queryLong(connection, "SELECT COALESCE(MAX(id), 0) FROM music"),
+                queryLong(connection, "SELECT COALESCE(MAX(id), 0) FROM playlists"),
+                // Hibernate hands out playlist_music ids in blocks of 50 up to the sequence value
+                queryLong(connection, "SELECT GREATEST(COALESCE(MAX(id), 0), (SELECT last_value FROM playlist_music_seq)) FROM playlist_music"));
+    }
+
+    // The generated rows carry explicit ids, which the identity columns and playlist_music_seq don't see
+    private static void advanceSequences(Connection connection, long lastPlaylistTrackId) throws SQLException {
+        for (String table : IDENTITY_TABLES) {
+            String sequence;
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_get_serial_sequence(?, 'id')")) {
+                statement.setString(1, table);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    sequence = resultSet.getString(1);
+                }
+            }
+            queryLong(connection, "SELECT setval('" + sequence + "', GREATEST((SELECT MAX(id) FROM " + table
+                    + "), (SELECT last_value FROM " + sequence + ")))");
+        }
+        queryLong(connection, "SELECT setval('playlist_music_seq', " + lastPlaylistTrackId + ")");
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.spotify_final_project.service.generator;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where SyntheticDataGenerator puts its rows: one table at a time, one value per column in order, like a
+ * PostgreSQL COPY. CopyTableWriter streams them into the database.
+ */
+public interface TableWriter {
+
+    void startTable(String table, List<String> columns) throws IOException;
+
+    TableWriter add(long value) throws IOException;
+
+    TableWriter add(String value) throws IOException;
+
+    void endRow() throws IOException;
+
+    /**
+     * Rows written since startTable.
+     */
+    long finishTable() throws IOException;
+}
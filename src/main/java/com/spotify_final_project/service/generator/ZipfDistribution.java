@@ -0,0 +1,36 @@
+package com.spotify_final_project.service.generator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Ranks 1..n drawn with probability proportional to 1 / rank^exponent, by binary search over the
+ * precomputed cumulative weights (one double per rank). Exponent 0 is uniform.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be at least 1");
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            total += Math.pow(rank, -exponent);
+            cumulative[rank - 1] = total;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public int sample(SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        // Not found: -(insertion point) - 1, and the insertion point is the first rank whose weight covers target
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+}
@@ -0,0 +1,83 @@
+package com.spotify_final_project.service.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stand-in for the SMTP server (app.mail.sink=memory): keeps the last {@code capacity} messages in memory
+ * instead of sending them, optionally after a fixed delay per batch to mimic a real server under load tests.
+ * Messages are fully rendered to MIME first, so a malformed message still fails as it would over SMTP.
+ */
+@Slf4j
+public class InMemoryMailSender extends JavaMailSenderImpl {
+
+    private final int capacity;
+    private final long latencyMillis;
+    private final Deque<MimeMessage> messages = new ArrayDeque<>();
+    private long receivedCount;
+
+    public InMemoryMailSender(int capacity, long latencyMillis) {
+        this.capacity = capacity;
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MailSendException("Interrupted while sending", e);
+            }
+        }
+
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+        for (int i = 0; i < mimeMessages.length; i++) {
+            MimeMessage message = mimeMessages[i];
+            try {
+                message.saveChanges();
+                store(message);
+            } catch (MessagingException e) {
+                failed.put(originalMessages != null ? originalMessages[i] : message, e);
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new MailSendException(failed);
+        }
+    }
+
+    /**
+     * The retained messages, oldest first.
+     */
+    public synchronized List<MimeMessage> getMessages() {
+        return new ArrayList<>(messages);
+    }
+
+    public synchronized long getReceivedCount() {
+        return receivedCount;
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+    }
+
+    private synchronized void store(MimeMessage message) {
+        receivedCount++;
+        messages.addLast(message);
+        if (messages.size() > capacity) {
+            messages.removeFirst();
+        }
+    }
+}
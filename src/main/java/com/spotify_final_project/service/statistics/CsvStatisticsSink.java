@@ -0,0 +1,50 @@
+package com.spotify_final_project.service.statistics;
+
+import com.spotify_final_project.dto.listen.ListenStatRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "app.statistics.sink", havingValue = "csv")
+public class CsvStatisticsSink implements StatisticsSink {
+
+    @Value("${app.statistics.output-dir:statistics}")
+    private Path outputDir;
+
+    @Override
+    public void export(String reportName, Stream<ListenStatRow> rows) throws IOException {
+        Files.createDirectories(outputDir);
+        Path file = outputDir.resolve(ReportFiles.fileName(reportName, "csv"));
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("username,song,count");
+            writer.newLine();
+            rows.forEach(row -> {
+                try {
+                    writer.write(escape(row.username()) + "," + escape(row.musicTitle()) + "," + row.count());
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String escape(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,48 @@
+package com.spotify_final_project.service.statistics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spotify_final_project.dto.listen.ListenStatRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.statistics.sink", havingValue = "json")
+public class JsonStatisticsSink implements StatisticsSink {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.statistics.output-dir:statistics}")
+    private Path outputDir;
+
+    @Override
+    public void export(String reportName, Stream<ListenStatRow> rows) throws IOException {
+        Files.createDirectories(outputDir);
+        Path file = outputDir.resolve(ReportFiles.fileName(reportName, "json"));
+
+        // Streaming generator: each row is written and dropped, the array is never built in memory
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            rows.forEach(row -> {
+                try {
+                    objectMapper.writeValue(generator, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.spotify_final_project.service.statistics;
+
+import com.spotify_final_project.dto.listen.ListenStatRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.statistics.sink", havingValue = "log", matchIfMissing = true)
+public class LogStatisticsSink implements StatisticsSink {
+
+    @Override
+    public void export(String reportName, Stream<ListenStatRow> rows) {
+        rows.forEach(row -> log.info("[{}] User: {}, Song: {}, Count: {}",
+                reportName, row.username(), row.musicTitle(), row.count()));
+    }
+}
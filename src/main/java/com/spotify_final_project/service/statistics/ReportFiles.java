@@ -0,0 +1,16 @@
+package com.spotify_final_project.service.statistics;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+final class ReportFiles {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH-mm-ss");
+
+    private ReportFiles() {
+    }
+
+    static String fileName(String reportName, String extension) {
+        return reportName + "-" + LocalDateTime.now().format(TIMESTAMP) + "." + extension;
+    }
+}
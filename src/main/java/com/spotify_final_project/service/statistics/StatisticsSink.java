@@ -0,0 +1,15 @@
+package com.spotify_final_project.service.statistics;
+
+import com.spotify_final_project.dto.listen.ListenStatRow;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+/**
+ * Destination for listen statistics reports. Implementations must consume the rows
+ * one at a time so a report never holds the whole table in memory.
+ */
+public interface StatisticsSink {
+
+    void export(String reportName, Stream<ListenStatRow> rows) throws IOException;
+}
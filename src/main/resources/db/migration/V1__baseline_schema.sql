@@ -0,0 +1,118 @@
+-- Full schema, starting from what Hibernate generated with ddl-auto=create. Databases created by that
+-- older app lack tables and columns added here (listen_events, mail_outbox, playlist_music.position, ...)
+-- and are not migrated: recreate them empty and let this script run.
+
+CREATE TABLE users (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username          VARCHAR(255) NOT NULL UNIQUE,
+    email             VARCHAR(255) NOT NULL UNIQUE,
+    password          VARCHAR(255) NOT NULL,
+    first_name        VARCHAR(255) NOT NULL,
+    last_name         VARCHAR(255) NOT NULL,
+    birth_date        DATE         NOT NULL,
+    role              VARCHAR(255) NOT NULL CHECK (role IN ('ADMIN', 'ARTIST', 'LISTENER')),
+    status            VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'ACTIVE', 'BLOCKED')),
+    verified          BOOLEAN      NOT NULL,
+    verification_code VARCHAR(255)
+);
+
+CREATE TABLE albums (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title        VARCHAR(255) NOT NULL,
+    description  VARCHAR(255),
+    genre        VARCHAR(255) CHECK (genre IN ('ROCK', 'POP', 'RAP', 'METAL', 'JAZZ', 'CLASSICAL', 'COUNTRY', 'ELECTRONIC', 'OTHER')),
+    release_date DATE,
+    artist_id    BIGINT       NOT NULL,
+    CONSTRAINT fk_albums_artist FOREIGN KEY (artist_id) REFERENCES users
+);
+
+CREATE TABLE music (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title     VARCHAR(255) NOT NULL,
+    genre     VARCHAR(255) NOT NULL CHECK (genre IN ('ROCK', 'POP', 'RAP', 'METAL', 'JAZZ', 'CLASSICAL', 'COUNTRY', 'ELECTRONIC', 'OTHER')),
+    duration  INTEGER      NOT NULL,
+    artist_id BIGINT       NOT NULL,
+    album_id  BIGINT,
+    CONSTRAINT fk_music_artist FOREIGN KEY (artist_id) REFERENCES users,
+    CONSTRAINT fk_music_album FOREIGN KEY (album_id) REFERENCES albums
+);
+
+CREATE TABLE playlists (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    user_id     BIGINT       NOT NULL,
+    CONSTRAINT fk_playlists_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE SEQUENCE playlist_music_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE playlist_music (
+    id          BIGINT  NOT NULL PRIMARY KEY,
+    playlist_id BIGINT  NOT NULL,
+    music_id    BIGINT  NOT NULL,
+    position    INTEGER NOT NULL,
+    CONSTRAINT uk_playlist_music UNIQUE (playlist_id, music_id),
+    CONSTRAINT fk_playlist_music_playlist FOREIGN KEY (playlist_id) REFERENCES playlists ON DELETE CASCADE,
+    CONSTRAINT fk_playlist_music_music FOREIGN KEY (music_id) REFERENCES music ON DELETE CASCADE
+);
+
+CREATE INDEX idx_playlist_music_position ON playlist_music (playlist_id, position);
+
+CREATE TABLE listens (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id  BIGINT NOT NULL,
+    music_id BIGINT NOT NULL,
+    count    BIGINT,
+    UNIQUE (user_id, music_id),
+    CONSTRAINT fk_listens_user FOREIGN KEY (user_id) REFERENCES users,
+    CONSTRAINT fk_listens_music FOREIGN KEY (music_id) REFERENCES music
+);
+
+CREATE TABLE user_genre_affinity (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT       NOT NULL,
+    genre   VARCHAR(255) NOT NULL CHECK (genre IN ('ROCK', 'POP', 'RAP', 'METAL', 'JAZZ', 'CLASSICAL', 'COUNTRY', 'ELECTRONIC', 'OTHER')),
+    score   BIGINT       NOT NULL,
+    UNIQUE (user_id, genre)
+);
+
+CREATE TABLE mail_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient       VARCHAR(255)             NOT NULL,
+    subject         VARCHAR(255)             NOT NULL,
+    body            TEXT                     NOT NULL,
+    status          VARCHAR(255)             NOT NULL CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED')),
+    attempts        INTEGER                  NOT NULL,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    sent_at         TIMESTAMP(6) WITH TIME ZONE,
+    last_error      VARCHAR(500)
+);
+
+CREATE INDEX idx_mail_outbox_status_next_attempt ON mail_outbox (status, next_attempt_at);
+
+-- Trigram indexes back the ILIKE '%q%' search queries in MusicRepository
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_music_title_trgm ON music USING gin (title gin_trgm_ops);
+CREATE INDEX idx_users_username_trgm ON users USING gin (username gin_trgm_ops);
+
+-- Chart counter buckets (ChartSnapshotRepository)
+CREATE TABLE chart_snapshots (
+    granularity  VARCHAR(8)               NOT NULL,
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    music_id     BIGINT                   NOT NULL,
+    plays        BIGINT                   NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, music_id)
+);
+
+-- Append-only play log, partitioned by month (ListenEventPartitionService creates the monthly partitions);
+-- the default partition only catches plays outside the created months
+CREATE TABLE listen_events (
+    user_id         BIGINT                   NOT NULL,
+    music_id        BIGINT                   NOT NULL,
+    played_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    duration_played INTEGER
+) PARTITION BY RANGE (played_at);
+CREATE TABLE listen_events_default PARTITION OF listen_events DEFAULT;
+CREATE INDEX idx_listen_events_user ON listen_events (user_id, played_at);
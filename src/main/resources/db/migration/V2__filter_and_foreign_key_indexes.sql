@@ -0,0 +1,20 @@
+-- Indexes for the columns repository queries filter on. PostgreSQL doesn't index foreign keys by itself, so
+-- deleting a track or user also scanned every referencing table. CONCURRENTLY keeps the tables writable
+-- while existing data is indexed (Flyway runs this migration outside a transaction for that).
+
+-- findByGenre / findAllByGenre / findResponsesByGenre (ORDER BY id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_music_genre_id ON music (genre, id);
+-- findAllByArtist / findResponsesByArtistId (ORDER BY id), user deletion
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_music_artist_id ON music (artist_id, id);
+-- Album.tracks, album deletion
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_music_album_id ON music (album_id);
+-- AlbumRepository.findByArtist
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_albums_artist_id ON albums (artist_id);
+-- PlaylistRepository.findByOwner
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_playlists_user_id ON playlists (user_id);
+-- PlaylistRepository.removeMusicFromAllPlaylists and the music_id foreign key
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_playlist_music_music_id ON playlist_music (music_id);
+-- listens by track when a track is deleted ((user_id, music_id) already covers lookups by user)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_listens_music_id ON listens (music_id);
+-- UserGenreAffinityRepository.findTop3ByUserIdOrderByScoreDesc reads the first three index entries
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_genre_affinity_user_score ON user_genre_affinity (user_id, score DESC);
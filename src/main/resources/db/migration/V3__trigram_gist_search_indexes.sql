@@ -0,0 +1,11 @@
+-- The search queries order by trigram distance (<->) and stop at the page limit. Only GiST trigram indexes
+-- can return rows in distance order, and they serve the ILIKE filter as well, so they replace the GIN ones.
+-- CONCURRENTLY keeps music and users writable while the indexes are built (Flyway runs this outside a transaction).
+
+-- MusicRepository.searchByTitle / searchByTitleOrArtistUsername
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_music_title_trgm_gist ON music USING gist (title gist_trgm_ops);
+-- MusicRepository.searchByArtistUsername / searchByTitleOrArtistUsername
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_trgm_gist ON users USING gist (username gist_trgm_ops);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_music_title_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_username_trgm;
@@ -1,6 +1,9 @@
 package com.spotify_final_project;
 
+import com.spotify_final_project.dto.playlist.PlaylistResponse;
+import com.spotify_final_project.dto.user.UserDeletionStatus;
 import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.DeletionState;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.exception.album.AlbumNotFoundException;
 import com.spotify_final_project.exception.auth.UserNotFoundException;
@@ -14,6 +17,10 @@ import com.spotify_final_project.repository.MusicRepository;
 import com.spotify_final_project.repository.PlaylistRepository;
 import com.spotify_final_project.repository.UserRepository;
 import com.spotify_final_project.service.AdminService;
+import com.spotify_final_project.service.ArtistGenreIndex;
+import com.spotify_final_project.service.PlaylistService;
+import com.spotify_final_project.service.PrincipalCacheService;
+import com.spotify_final_project.service.UserDeletionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -29,6 +36,9 @@ class AdminServiceTest {
     private AlbumRepository albumRepository;
     private MusicRepository musicRepository;
     private PlaylistRepository playlistRepository;
+    private ArtistGenreIndex artistGenreIndex;
+    private PrincipalCacheService principalCacheService;
+    private UserDeletionService userDeletionService;
     private AdminService adminService;
 
     @BeforeEach
@@ -37,39 +47,33 @@ class AdminServiceTest {
         albumRepository = mock(AlbumRepository.class);
         musicRepository = mock(MusicRepository.class);
         playlistRepository = mock(PlaylistRepository.class);
-        adminService = new AdminService(userRepository, albumRepository, musicRepository, playlistRepository);
+        artistGenreIndex = mock(ArtistGenreIndex.class);
+        principalCacheService = mock(PrincipalCacheService.class);
+        userDeletionService = mock(UserDeletionService.class);
+        adminService = new AdminService(userRepository, albumRepository, musicRepository, playlistRepository, artistGenreIndex, principalCacheService, userDeletionService, mock(PlaylistService.class));
     }
 
     // ===== User Management =====
 
     @Test
-    void deleteUser_ShouldDeleteUserAndAllAssociatedData() {
-        User user = new User();
-        user.setId(1L);
-        Music music1 = new Music();
-        music1.setId(101L);
-        Music music2 = new Music();
-        music2.setId(102L);
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(musicRepository.findAllByArtist(user)).thenReturn(List.of(music1, music2));
+    void deleteUser_ShouldDelegateToSetBasedDeletion() {
+        UserDeletionStatus completed = new UserDeletionStatus(1L, DeletionState.COMPLETED, 2, 2, null, null, null);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userDeletionService.deleteUser(1L)).thenReturn(completed);
 
-        adminService.deleteUser(1L);
+        assertEquals(completed, adminService.deleteUser(1L));
 
-        // Verify all associated music removed from playlists
-        verify(playlistRepository, times(1)).removeMusicFromAllPlaylists(101L);
-        verify(playlistRepository, times(1)).removeMusicFromAllPlaylists(102L);
-
-        verify(musicRepository, times(1)).deleteAllByArtist(user);
-        verify(albumRepository, times(1)).deleteAllByArtist(user);
-        verify(playlistRepository, times(1)).deleteAllByOwner(user);
-        verify(userRepository, times(1)).delete(user);
+        // No per-track or entity-by-entity deletes any more
+        verify(musicRepository, never()).findAllByArtist(any());
+        verify(playlistRepository, never()).removeMusicFromAllPlaylists(any());
+        verify(userRepository, never()).delete(any());
     }
 
     @Test
     void deleteUser_ShouldThrow_WhenUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
         assertThrows(UserNotFoundException.class, () -> adminService.deleteUser(1L));
+        verifyNoInteractions(userDeletionService);
     }
 
     @Test
@@ -104,6 +108,7 @@ class AdminServiceTest {
 
         User blocked = adminService.blockUser(1L);
         assertEquals(AccountStatus.BLOCKED, blocked.getStatus());
+        verify(principalCacheService).evictUser(1L);
     }
 
     @Test
@@ -221,8 +226,12 @@ class AdminServiceTest {
 
     @Test
     void updatePlaylist_ShouldUpdatePlaylist() {
+        User owner = new User();
+        owner.setUsername("owner");
+
         Playlist oldPlaylist = new Playlist();
         oldPlaylist.setId(1L);
+        oldPlaylist.setOwner(owner);
         oldPlaylist.setName("Old");
         oldPlaylist.setDescription("Old Desc");
 
@@ -230,10 +239,10 @@ class AdminServiceTest {
         updatedPlaylist.setName("New");
         updatedPlaylist.setDescription("New Desc");
 
-        when(playlistRepository.findById(1L)).thenReturn(Optional.of(oldPlaylist));
+        when(playlistRepository.findDetailById(1L)).thenReturn(Optional.of(oldPlaylist));
         when(playlistRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
 
-        Playlist result = adminService.updatePlaylist(1L, updatedPlaylist);
+        PlaylistResponse result = adminService.updatePlaylist(1L, updatedPlaylist);
         assertEquals("New", result.getName());
         assertEquals("New Desc", result.getDescription());
     }
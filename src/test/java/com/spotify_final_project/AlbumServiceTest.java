@@ -2,6 +2,8 @@ package com.spotify_final_project;
 
 import com.spotify_final_project.dto.album.AlbumRequest;
 import com.spotify_final_project.dto.album.AlbumResponse;
+import com.spotify_final_project.dto.album.AlbumTrackTitle;
+import com.spotify_final_project.dto.response.CursorPage;
 import com.spotify_final_project.enums.GenreType;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.exception.album.AlbumNotFoundException;
@@ -12,8 +14,10 @@ import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.AlbumRepository;
 import com.spotify_final_project.repository.UserRepository;
 import com.spotify_final_project.service.AlbumService;
+import com.spotify_final_project.service.ArtistGenreIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -26,13 +30,15 @@ class AlbumServiceTest {
 
     private AlbumRepository albumRepository;
     private UserRepository userRepository;
+    private ArtistGenreIndex artistGenreIndex;
     private AlbumService albumService;
 
     @BeforeEach
     void setUp() {
         albumRepository = mock(AlbumRepository.class);
         userRepository = mock(UserRepository.class);
-        albumService = new AlbumService(albumRepository, userRepository);
+        artistGenreIndex = mock(ArtistGenreIndex.class);
+        albumService = new AlbumService(albumRepository, userRepository, artistGenreIndex);
     }
 
     @Test
@@ -135,7 +141,7 @@ class AlbumServiceTest {
         album.setTitle("Test Album");
         album.setArtist(artist); // ✅ FIX
 
-        when(albumRepository.findById(1L)).thenReturn(Optional.of(album));
+        when(albumRepository.findDetailById(1L)).thenReturn(Optional.of(album));
 
         AlbumResponse response = albumService.getAlbumById(1L);
 
@@ -146,7 +152,7 @@ class AlbumServiceTest {
 
     @Test
     void getAlbumById_ShouldThrow_WhenNotFound() {
-        when(albumRepository.findById(5L)).thenReturn(Optional.empty());
+        when(albumRepository.findDetailById(5L)).thenReturn(Optional.empty());
         assertThrows(AlbumNotFoundException.class, () -> albumService.getAlbumById(5L));
     }
 
@@ -166,11 +172,17 @@ class AlbumServiceTest {
         album2.setTitle("Album2");
         album2.setArtist(artist); // ✅ Fix
 
-        when(albumRepository.findAll()).thenReturn(List.of(album1, album2));
-
-        List<AlbumResponse> albums = albumService.getAllAlbums();
-        assertEquals(2, albums.size());
-        assertEquals("artist1", albums.get(0).getArtistUsername());
+        when(albumRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(List.of(album1, album2));
+        when(albumRepository.findTrackTitlesByAlbumIds(List.of(1L, 2L))).thenReturn(List.of(
+                new AlbumTrackTitle(2L, "track"),
+                new AlbumTrackTitle(1L, "intro")));
+
+        CursorPage<AlbumResponse> albums = albumService.getAllAlbums(null, 20);
+        assertEquals(2, albums.items().size());
+        assertEquals("artist1", albums.items().get(0).getArtistUsername());
+        assertEquals(List.of("intro"), albums.items().get(0).getTrackTitles());
+        assertEquals(List.of("track"), albums.items().get(1).getTrackTitles());
+        assertFalse(albums.hasMore());
     }
 
     @Test
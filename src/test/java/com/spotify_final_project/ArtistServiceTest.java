@@ -1,11 +1,12 @@
 package com.spotify_final_project;
 
+import com.spotify_final_project.dto.Artist.ArtistGenre;
 import com.spotify_final_project.dto.Artist.ArtistProfileResponse;
 import com.spotify_final_project.enums.GenreType;
-import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.MusicRepository;
 import com.spotify_final_project.repository.UserRepository;
+import com.spotify_final_project.service.ArtistGenreIndex;
 import com.spotify_final_project.service.ArtistService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,13 +22,15 @@ class ArtistServiceTest {
 
     private UserRepository userRepository;
     private MusicRepository musicRepository;
+    private ArtistGenreIndex artistGenreIndex;
     private ArtistService artistService;
 
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
         musicRepository = mock(MusicRepository.class);
-        artistService = new ArtistService(userRepository, musicRepository);
+        artistGenreIndex = new ArtistGenreIndex(musicRepository);
+        artistService = new ArtistService(userRepository, artistGenreIndex);
     }
 
     @Test
@@ -38,22 +41,12 @@ class ArtistServiceTest {
         artist.setFirstName("John");
         artist.setLastName("Doe");
 
-        Music music1 = new Music();
-        music1.setGenre(GenreType.ROCK);
-        Music music2 = new Music();
-        music2.setGenre(GenreType.POP);
-
-        User otherUser = new User();
-        otherUser.setId(2L);
-        otherUser.setUsername("artist2");
-
-        Music otherMusic = new Music();
-        otherMusic.setGenre(GenreType.ROCK);
-
         when(userRepository.findById(1L)).thenReturn(Optional.of(artist));
-        when(musicRepository.findAllByArtist(artist)).thenReturn(List.of(music1, music2));
-        when(userRepository.findAll()).thenReturn(List.of(artist, otherUser));
-        when(musicRepository.findAllByArtist(otherUser)).thenReturn(List.of(otherMusic));
+        when(musicRepository.findDistinctArtistGenres()).thenReturn(List.of(
+                new ArtistGenre(1L, "artist1", GenreType.ROCK),
+                new ArtistGenre(1L, "artist1", GenreType.POP),
+                new ArtistGenre(2L, "artist2", GenreType.ROCK)
+        ));
 
         ArtistProfileResponse response = artistService.getArtistProfile(1L);
 
@@ -62,6 +55,7 @@ class ArtistServiceTest {
         assertEquals("Doe", response.getLastName());
         assertEquals(Set.of(GenreType.ROCK, GenreType.POP), response.getGenres());
         assertEquals(List.of("artist2"), response.getSimilarArtists());
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -79,8 +73,7 @@ class ArtistServiceTest {
         artist.setUsername("artist1");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(artist));
-        when(musicRepository.findAllByArtist(artist)).thenReturn(List.of());
-        when(userRepository.findAll()).thenReturn(List.of(artist));
+        when(musicRepository.findDistinctArtistGenres()).thenReturn(List.of());
 
         ArtistProfileResponse response = artistService.getArtistProfile(1L);
 
@@ -93,22 +86,56 @@ class ArtistServiceTest {
         User artist = new User();
         artist.setId(1L);
 
-        Music music1 = new Music();
-        music1.setGenre(GenreType.ROCK);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(artist));
+        when(musicRepository.findDistinctArtistGenres()).thenReturn(List.of(
+                new ArtistGenre(1L, "artist1", GenreType.ROCK),
+                new ArtistGenre(2L, "artist2", GenreType.POP)
+        ));
 
-        User otherUser = new User();
-        otherUser.setId(2L);
+        ArtistProfileResponse response = artistService.getArtistProfile(1L);
 
-        Music otherMusic = new Music();
-        otherMusic.setGenre(GenreType.POP);
+        assertEquals(List.of(), response.getSimilarArtists());
+    }
+
+    @Test
+    void getArtistProfile_ShouldRankSimilarArtistsByGenreOverlap() {
+        User artist = new User();
+        artist.setId(1L);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(artist));
-        when(musicRepository.findAllByArtist(artist)).thenReturn(List.of(music1));
-        when(userRepository.findAll()).thenReturn(List.of(artist, otherUser));
-        when(musicRepository.findAllByArtist(otherUser)).thenReturn(List.of(otherMusic));
+        when(musicRepository.findDistinctArtistGenres()).thenReturn(List.of(
+                new ArtistGenre(1L, "artist1", GenreType.ROCK),
+                new ArtistGenre(1L, "artist1", GenreType.METAL),
+                new ArtistGenre(2L, "partial", GenreType.ROCK),
+                new ArtistGenre(2L, "partial", GenreType.JAZZ),
+                new ArtistGenre(3L, "exact", GenreType.ROCK),
+                new ArtistGenre(3L, "exact", GenreType.METAL)
+        ));
 
         ArtistProfileResponse response = artistService.getArtistProfile(1L);
 
-        assertEquals(List.of(), response.getSimilarArtists());
+        assertEquals(List.of("exact", "partial"), response.getSimilarArtists());
+    }
+
+    @Test
+    void getArtistProfile_ShouldReuseIndexUntilInvalidated() {
+        User artist = new User();
+        artist.setId(1L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(artist));
+        when(musicRepository.findDistinctArtistGenres())
+                .thenReturn(List.of(new ArtistGenre(1L, "artist1", GenreType.ROCK)))
+                .thenReturn(List.of(
+                        new ArtistGenre(1L, "artist1", GenreType.ROCK),
+                        new ArtistGenre(2L, "artist2", GenreType.ROCK)));
+
+        assertEquals(List.of(), artistService.getArtistProfile(1L).getSimilarArtists());
+        assertEquals(List.of(), artistService.getArtistProfile(1L).getSimilarArtists());
+        verify(musicRepository, times(1)).findDistinctArtistGenres();
+
+        artistGenreIndex.invalidate();
+
+        assertEquals(List.of("artist2"), artistService.getArtistProfile(1L).getSimilarArtists());
+        verify(musicRepository, times(2)).findDistinctArtistGenres();
     }
 }
@@ -6,13 +6,18 @@ import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.UserRepository;
 import com.spotify_final_project.service.AuthorizationService;
 import com.spotify_final_project.service.JwtService;
+import com.spotify_final_project.service.PrincipalCacheService;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Optional;
 
+import static com.spotify_final_project.enums.AccountStatus.ACTIVE;
+import static com.spotify_final_project.enums.Role.LISTENER;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -28,19 +33,27 @@ class AuthorizationServiceTest {
         jwtService = mock(JwtService.class);
         userRepository = mock(UserRepository.class);
         request = mock(HttpServletRequest.class);
-        authorizationService = new AuthorizationService(jwtService, userRepository);
+        PrincipalCacheService principalCacheService = new PrincipalCacheService(jwtService, userRepository, 300, 100);
+        authorizationService = new AuthorizationService(principalCacheService, userRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
     void getLoggedInUser_ShouldReturnUser_WhenTokenValid() {
         String token = "valid-token";
         User user = new User();
+        user.setId(1L);
         user.setUsername("user1");
+        user.setRole(LISTENER);
+        user.setStatus(ACTIVE);
 
-        CustomAuthentication customAuth = mock(CustomAuthentication.class);
-        when(customAuth.getUsername()).thenReturn("user1");
-        when(jwtService.parseToken(token)).thenReturn(customAuth);
+        when(jwtService.parseClaims(token)).thenReturn(Jwts.claims().add("username", "user1").build());
         when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
 
         User result = authorizationService.getLoggedInUser(request);
@@ -48,6 +61,15 @@ class AuthorizationServiceTest {
         assertEquals(user, result);
     }
 
+    @Test
+    void getLoggedInUserId_ShouldUseResolvedPrincipal_WhenFilterAlreadyAuthenticated() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new CustomAuthentication(7L, "LISTENER", "user@mail.com", "user1"));
+
+        assertEquals(7L, authorizationService.getLoggedInUserId(request));
+        verifyNoInteractions(jwtService, userRepository);
+    }
+
     @Test
     void getLoggedInUser_ShouldThrow_WhenHeaderMissing() {
         when(request.getHeader("Authorization")).thenReturn(null);
@@ -75,9 +97,7 @@ class AuthorizationServiceTest {
     @Test
     void getLoggedInUser_ShouldThrow_WhenUserNotFound() {
         String token = "token";
-        CustomAuthentication customAuth = mock(CustomAuthentication.class);
-        when(customAuth.getUsername()).thenReturn("ghost");
-        when(jwtService.parseToken(token)).thenReturn(customAuth);
+        when(jwtService.parseClaims(token)).thenReturn(Jwts.claims().add("username", "ghost").build());
         when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
 
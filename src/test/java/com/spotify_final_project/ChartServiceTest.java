@@ -0,0 +1,214 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.dto.chart.ChartEntry;
+import com.spotify_final_project.dto.chart.ChartResponse;
+import com.spotify_final_project.dto.chart.ChartSnapshotRow;
+import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.enums.ChartWindow;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.exception.chart.InvalidChartWindowException;
+import com.spotify_final_project.repository.ChartSnapshotRepository;
+import com.spotify_final_project.repository.MusicRepository;
+import com.spotify_final_project.service.ChartService;
+import com.spotify_final_project.service.charts.SlidingWindowCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChartServiceTest {
+
+    private static final Instant START = Instant.parse("2026-01-05T10:00:30Z");
+
+    private ChartSnapshotRepository chartSnapshotRepository;
+    private MusicRepository musicRepository;
+    private MutableClock clock;
+    private ChartService chartService;
+
+    @BeforeEach
+    void setUp() {
+        chartSnapshotRepository = mock(ChartSnapshotRepository.class);
+        musicRepository = mock(MusicRepository.class);
+        clock = new MutableClock(START);
+        chartService = new ChartService(chartSnapshotRepository, musicRepository, 10, clock);
+
+        when(musicRepository.findResponsesByIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream()
+                    .filter(id -> id < 100) // ids from 100 on are "deleted"
+                    .map(id -> new MusicResponse(id, "song" + id, id % 2 == 0 ? GenreType.ROCK : GenreType.POP, 180, "artist", null))
+                    .toList();
+        });
+    }
+
+    @Test
+    void getTopTracks_ShouldRankByPlays_AfterRefresh() {
+        play(10L, 3);
+        play(11L, 5);
+        play(12L, 1);
+
+        assertTrue(chartService.getTopTracks(ChartWindow.LAST_HOUR, null, 10).entries().isEmpty());
+        chartService.refresh();
+
+        ChartResponse chart = chartService.getTopTracks(ChartWindow.LAST_HOUR, null, 2);
+        assertEquals("1h", chart.window());
+        assertEquals(List.of(11L, 10L), chart.entries().stream().map(ChartEntry::musicId).toList());
+        assertEquals(1, chart.entries().get(0).rank());
+        assertEquals(5, chart.entries().get(0).plays());
+        assertEquals("song11", chart.entries().get(0).title());
+    }
+
+    @Test
+    void getTopTracks_ShouldFilterByGenre() {
+        play(10L, 3);
+        play(11L, 5);
+        play(12L, 1);
+        chartService.refresh();
+
+        ChartResponse chart = chartService.getTopTracks(ChartWindow.LAST_WEEK, GenreType.ROCK, 10);
+
+        assertEquals(List.of(10L, 12L), chart.entries().stream().map(ChartEntry::musicId).toList());
+        assertEquals(List.of(1, 2), chart.entries().stream().map(ChartEntry::rank).toList());
+        assertTrue(chartService.getTopTracks(ChartWindow.LAST_WEEK, GenreType.JAZZ, 10).entries().isEmpty());
+    }
+
+    @Test
+    void getTopTracks_ShouldKeepOnlyTheTopTracks() {
+        for (long id = 1; id <= 20; id++) {
+            play(id, (int) id);
+        }
+        chartService.refresh();
+
+        List<ChartEntry> entries = chartService.getTopTracks(ChartWindow.LAST_DAY, null, 50).entries();
+
+        assertEquals(10, entries.size());
+        assertEquals(20L, entries.get(0).musicId());
+        assertEquals(11L, entries.get(9).musicId());
+    }
+
+    @Test
+    void refresh_ShouldSlideOldPlaysOutOfShorterWindows() {
+        play(10L, 5);
+        chartService.refresh();
+
+        clock.advance(Duration.ofHours(2));
+        play(11L, 1);
+        chartService.refresh();
+
+        assertEquals(List.of(11L), musicIds(ChartWindow.LAST_HOUR));
+        assertEquals(List.of(10L, 11L), musicIds(ChartWindow.LAST_DAY));
+
+        clock.advance(Duration.ofDays(1));
+        chartService.refresh();
+
+        assertEquals(List.of(), musicIds(ChartWindow.LAST_DAY));
+        assertEquals(List.of(10L, 11L), musicIds(ChartWindow.LAST_WEEK));
+    }
+
+    @Test
+    void refresh_ShouldForgetTracks_WhenBucketsAbove127PlaysExpire() {
+        // Boxed counts above the Long cache used to compare unequal and leave a 0 total behind
+        play(10L, 500);
+        chartService.refresh();
+
+        clock.advance(Duration.ofHours(2));
+        chartService.refresh();
+
+        assertEquals(List.of(), musicIds(ChartWindow.LAST_HOUR));
+        SlidingWindowCounter counter = new SlidingWindowCounter(60_000, 60);
+        counter.add(0, Map.of(10L, 500L));
+        counter.advance(Duration.ofHours(2).toMillis());
+        assertTrue(counter.totals().isEmpty());
+    }
+
+    @Test
+    void refresh_ShouldSkipDeletedTracks() {
+        play(100L, 9);
+        play(10L, 1);
+        chartService.refresh();
+
+        assertEquals(List.of(10L), musicIds(ChartWindow.LAST_HOUR));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void restore_ShouldRebuildCountersFromSnapshot() {
+        play(10L, 4);
+        chartService.refresh();
+        chartService.snapshot();
+
+        ArgumentCaptor<Map<Instant, Map<Long, Long>>> hourBuckets = ArgumentCaptor.forClass(Map.class);
+        verify(chartSnapshotRepository).saveBuckets(eq("HOUR"), hourBuckets.capture(), any());
+        verify(chartSnapshotRepository).saveBuckets(eq("MINUTE"), anyMap(), any());
+        Instant hourStart = Instant.parse("2026-01-05T10:00:00Z");
+        assertEquals(Map.of(hourStart, Map.of(10L, 4L)), hourBuckets.getValue());
+
+        // Unchanged buckets aren't written again
+        chartService.snapshot();
+        verify(chartSnapshotRepository).saveBuckets(eq("HOUR"), eq(Map.of()), any());
+
+        ChartService restarted = new ChartService(chartSnapshotRepository, musicRepository, 10, clock);
+        when(chartSnapshotRepository.findSince(eq("HOUR"), any())).thenReturn(List.of(new ChartSnapshotRow(hourStart, 10L, 4L)));
+        when(chartSnapshotRepository.findSince(eq("MINUTE"), any())).thenReturn(List.of(new ChartSnapshotRow(START.minusSeconds(30), 10L, 4L)));
+        restarted.restore();
+
+        assertEquals(4, restarted.getTopTracks(ChartWindow.LAST_HOUR, null, 10).entries().get(0).plays());
+        assertEquals(4, restarted.getTopTracks(ChartWindow.LAST_DAY, null, 10).entries().get(0).plays());
+        assertEquals(4, restarted.getTopTracks(ChartWindow.LAST_WEEK, null, 10).entries().get(0).plays());
+    }
+
+    @Test
+    void fromParam_ShouldRejectUnknownWindow() {
+        assertEquals(ChartWindow.LAST_WEEK, ChartWindow.fromParam("7d"));
+        assertThrows(InvalidChartWindowException.class, () -> ChartWindow.fromParam("30d"));
+    }
+
+    private void play(Long musicId, int times) {
+        for (int i = 0; i < times; i++) {
+            chartService.recordPlay(musicId);
+        }
+    }
+
+    private List<Long> musicIds(ChartWindow window) {
+        return chartService.getTopTracks(window, null, 10).entries().stream().map(ChartEntry::musicId).toList();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.spotify_final_project;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.spotify_final_project.config.ConcurrencyLimitFilter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void doFilter_ShouldReject_WhenNoSlotFreesUpInTime() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 10, 10, objectMapper, new MockEnvironment());
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // The outer request holds the only slot while the inner one arrives
+        FilterChain holdingChain = (req, res) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/musics"), rejected, (r, s) -> fail("should not run"));
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/musics"), admitted, holdingChain);
+
+        assertEquals(200, admitted.getStatus());
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"endpoint\":\"/musics\""));
+    }
+
+    @Test
+    void doFilter_ShouldReleaseSlots_AfterEachRequest() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 10, 10, objectMapper, new MockEnvironment());
+        AtomicInteger served = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/musics"), new MockHttpServletResponse(),
+                    (req, res) -> served.incrementAndGet());
+        }
+
+        assertEquals(3, served.get());
+    }
+}
@@ -0,0 +1,179 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.dto.cache.CacheRegionStats;
+import com.spotify_final_project.dto.music.MusicRequest;
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.exception.music.MusicNotFoundException;
+import com.spotify_final_project.model.Album;
+import com.spotify_final_project.model.Music;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.repository.AlbumRepository;
+import com.spotify_final_project.repository.MusicRepository;
+import com.spotify_final_project.repository.UserRepository;
+import com.spotify_final_project.service.ArtistGenreIndex;
+import com.spotify_final_project.service.EntityCacheService;
+import com.spotify_final_project.service.MusicService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Second-level and query cache behaviour against a real session factory. Tests run without a surrounding
+ * transaction so that every repository call commits, as it does in the application.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:entitycache;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        // Migrations are PostgreSQL-specific; the H2 schema comes from the entities
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.import_files=/h2-import.sql",
+        // Keeps these regions apart from other test contexts sharing the same JCache provider
+        "spring.jpa.properties.hibernate.cache.region_prefix=entitycachetest"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// The service bean, so its own transactions load the lazy artist and album like in the application
+@Import({MusicService.class, ArtistGenreIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MusicRepository musicRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AlbumRepository albumRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MusicService musicService;
+
+    private EntityCacheService entityCacheService;
+    private Statistics statistics;
+    private User artist;
+    private Album album;
+    private Music music;
+
+    @BeforeEach
+    void setUp() {
+        entityCacheService = new EntityCacheService(entityManagerFactory);
+
+        artist = userRepository.save(new User()
+                .setUsername("artist")
+                .setEmail("artist@example.com")
+                .setFirstName("First")
+                .setLastName("Last")
+                .setBirthDate(LocalDate.of(1990, 1, 1))
+                .setPassword("x")
+                .setRole(Role.ARTIST)
+                .setStatus(AccountStatus.ACTIVE));
+        album = albumRepository.save(new Album().setTitle("album").setArtist(artist));
+        music = musicRepository.save(new Music()
+                .setTitle("Old")
+                .setGenre(GenreType.ROCK)
+                .setDuration(180)
+                .setArtist(artist)
+                .setAlbum(album));
+
+        entityCacheService.evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM music");
+        jdbcTemplate.update("DELETE FROM albums");
+        jdbcTemplate.update("DELETE FROM users");
+        entityCacheService.evictAll();
+    }
+
+    @Test
+    void getMusicById_ShouldBeServedFromCache_AfterFirstLoad() {
+        musicService.getMusicById(music.getId());
+        long statementsAfterFirstLoad = statistics.getPrepareStatementCount();
+        assertTrue(statementsAfterFirstLoad > 0);
+
+        assertEquals("Old", musicService.getMusicById(music.getId()).getTitle());
+        assertEquals(statementsAfterFirstLoad, statistics.getPrepareStatementCount(), "statements issued");
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void updateMusic_ShouldReplaceCachedEntity() {
+        musicService.getMusicById(music.getId());
+
+        MusicRequest request = new MusicRequest();
+        request.setTitle("New");
+        request.setGenre(GenreType.POP);
+        request.setDuration(200);
+        musicService.updateMusic(music.getId(), request, artist.getId());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals("New", musicService.getMusicById(music.getId()).getTitle());
+        assertEquals(statements, statistics.getPrepareStatementCount(), "statements issued");
+    }
+
+    @Test
+    void getMusicByGenre_ShouldUseQueryCache_UntilMusicChanges() {
+        assertEquals(1, musicService.getMusicByGenre(GenreType.ROCK).size());
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(1, musicService.getMusicByGenre(GenreType.ROCK).size());
+        assertEquals(statements, statistics.getPrepareStatementCount(), "statements issued");
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        MusicRequest request = new MusicRequest();
+        request.setTitle("Another");
+        request.setGenre(GenreType.ROCK);
+        request.setDuration(100);
+        request.setAlbumId(album.getId());
+        musicService.createMusic(request, artist.getId());
+
+        assertEquals(2, musicService.getMusicByGenre(GenreType.ROCK).size());
+    }
+
+    @Test
+    void evictCatalog_ShouldDropMusicDeletedWithPlainSql() {
+        musicService.getMusicById(music.getId());
+        jdbcTemplate.update("DELETE FROM music WHERE id = ?", music.getId());
+
+        // Plain SQL bypasses Hibernate, so the row is still cached until it is evicted
+        assertEquals("Old", musicService.getMusicById(music.getId()).getTitle());
+
+        entityCacheService.evictCatalog();
+        assertThrows(MusicNotFoundException.class, () -> musicService.getMusicById(music.getId()));
+    }
+
+    @Test
+    void getRegionStats_ShouldReportHitsPerRegion() {
+        musicService.getMusicById(music.getId());
+        musicService.getMusicById(music.getId());
+
+        CacheRegionStats musicRegion = entityCacheService.getRegionStats().stream()
+                .filter(stats -> stats.region().equals("music"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, musicRegion.hits());
+        assertEquals(1, musicRegion.misses());
+        assertEquals(0.5, musicRegion.hitRate());
+    }
+}
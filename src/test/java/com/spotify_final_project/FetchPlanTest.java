@@ -0,0 +1,252 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.dto.album.AlbumResponse;
+import com.spotify_final_project.dto.playlist.PlaylistResponse;
+import com.spotify_final_project.dto.response.CursorPage;
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.model.Album;
+import com.spotify_final_project.model.Listen;
+import com.spotify_final_project.model.Music;
+import com.spotify_final_project.model.Playlist;
+import com.spotify_final_project.model.PlaylistTrack;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.repository.ListenRepository;
+import com.spotify_final_project.repository.MusicRepository;
+import com.spotify_final_project.service.AlbumService;
+import com.spotify_final_project.service.ArtistGenreIndex;
+import com.spotify_final_project.service.PlaylistService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction, like a request with open-in-view off: the persistence context closes with
+ * each service or repository call. Associations are lazy, so anything a caller reads afterwards must have been
+ * fetched by the use case's entity graph, and touching anything else fails instead of quietly querying.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetchplan;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        // Migrations are PostgreSQL-specific; the H2 schema comes from the entities
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AlbumService.class, PlaylistService.class, ArtistGenreIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FetchPlanTest {
+
+    private static final int TRACKS = 4;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MusicRepository musicRepository;
+    @Autowired
+    private ListenRepository listenRepository;
+    @Autowired
+    private AlbumService albumService;
+    @Autowired
+    private PlaylistService playlistService;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private User listener;
+    private Long albumId;
+    private Long playlistId;
+    private Long musicId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User artist = user("artist", Role.ARTIST);
+            listener = user("listener", Role.LISTENER);
+            entityManager.persist(artist);
+            entityManager.persist(listener);
+
+            Album album = new Album().setTitle("album").setArtist(artist);
+            entityManager.persist(album);
+
+            Playlist playlist = new Playlist().setName("playlist").setOwner(listener);
+            entityManager.persist(playlist);
+
+            for (int t = 0; t < TRACKS; t++) {
+                Music music = new Music()
+                        .setTitle("song" + t)
+                        .setGenre(GenreType.ROCK)
+                        .setDuration(180)
+                        .setArtist(artist)
+                        .setAlbum(album);
+                entityManager.persist(music);
+                entityManager.persist(new PlaylistTrack(playlist, music, t));
+                entityManager.persist(new Listen().setListener(listener).setMusic(music).setCount(1L));
+                musicId = music.getId();
+            }
+            entityManager.flush();
+            albumId = album.getId();
+            playlistId = playlist.getId();
+        });
+
+        // Nothing may come from the second-level cache, so every load shows up in the statistics
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("PlaylistTrack", "Playlist", "Listen", "Music", "Album", "User")) {
+                entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findById_ShouldNotLoadAssociations() {
+        Music music = musicRepository.findById(musicId).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(music.getArtist()));
+        assertFalse(Hibernate.isInitialized(music.getAlbum()));
+        assertThrows(LazyInitializationException.class, () -> music.getArtist().getUsername());
+    }
+
+    @Test
+    void getAlbumById_ShouldFetchArtistAndTracksInOneStatement() {
+        AlbumResponse album = albumService.getAlbumById(albumId);
+
+        assertEquals("artist", album.getArtistUsername());
+        assertEquals(TRACKS, album.getTrackTitles().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getPlaylistById_ShouldFetchOwnerAndTracksInOneStatement() {
+        PlaylistResponse playlist = playlistService.getPlaylistById(playlistId);
+
+        assertEquals("listener", playlist.getOwnerUsername());
+        assertEquals(List.of("song0", "song1", "song2", "song3"), playlist.getTrackTitles());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByGenre_ShouldFetchArtistAndAlbumOnly() {
+        List<Music> tracks = musicRepository.findAllByGenre(GenreType.ROCK, PageRequest.of(0, 10));
+
+        assertEquals(TRACKS, tracks.size());
+        for (Music music : tracks) {
+            assertTrue(Hibernate.isInitialized(music.getArtist()));
+            assertTrue(Hibernate.isInitialized(music.getAlbum()));
+            assertFalse(Hibernate.isInitialized(music.getAlbum().getTracks()));
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByListener_ShouldFetchListenerAndMusic() {
+        List<Listen> listens = listenRepository.findAllByListener(listener);
+
+        assertEquals(TRACKS, listens.size());
+        for (Listen listen : listens) {
+            assertEquals("listener", listen.getListener().getUsername());
+            assertTrue(listen.getMusic().getTitle().startsWith("song"));
+            assertFalse(Hibernate.isInitialized(listen.getMusic().getArtist()));
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllAlbums_ShouldUseTwoStatements_WhateverThePageSize() {
+        addAlbumsAndPlaylists(30);
+
+        CursorPage<AlbumResponse> small = albumService.getAllAlbums(null, 5);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(5, small.items().size());
+
+        statistics.clear();
+        CursorPage<AlbumResponse> large = albumService.getAllAlbums(null, 100);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(31, large.items().size());
+        assertEquals(TRACKS, large.items().get(0).getTrackTitles().size());
+        assertEquals(List.of("extra1-a", "extra1-b"), large.items().get(2).getTrackTitles());
+    }
+
+    @Test
+    void getAllPlaylists_ShouldUseTwoStatements_WhateverThePageSize() {
+        addAlbumsAndPlaylists(30);
+
+        playlistService.getAllPlaylists(null, 5);
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        CursorPage<PlaylistResponse> large = playlistService.getAllPlaylists(null, 100);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(31, large.items().size());
+        assertEquals(List.of("song0", "song1", "song2", "song3"), large.items().get(0).getTrackTitles());
+        // Added b first, then a at position 0
+        assertEquals(List.of("extra1-a", "extra1-b"), large.items().get(2).getTrackTitles());
+    }
+
+    private void addAlbumsAndPlaylists(int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User artist = entityManager.getReference(User.class, listener.getId());
+            for (int i = 0; i < count; i++) {
+                Album album = new Album().setTitle("extra" + i).setArtist(artist);
+                entityManager.persist(album);
+                Playlist playlist = new Playlist().setName("extra" + i).setOwner(artist);
+                entityManager.persist(playlist);
+                Music b = new Music().setTitle("extra" + i + "-b").setGenre(GenreType.POP).setArtist(artist).setAlbum(album);
+                Music a = new Music().setTitle("extra" + i + "-a").setGenre(GenreType.POP).setArtist(artist).setAlbum(album);
+                entityManager.persist(a);
+                entityManager.persist(b);
+                entityManager.persist(new PlaylistTrack(playlist, b, 1));
+                entityManager.persist(new PlaylistTrack(playlist, a, 0));
+            }
+        });
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    private static User user(String username, Role role) {
+        return new User()
+                .setUsername(username)
+                .setEmail(username + "@example.com")
+                .setFirstName("First")
+                .setLastName("Last")
+                .setBirthDate(LocalDate.of(1990, 1, 1))
+                .setPassword("x")
+                .setRole(role)
+                .setStatus(AccountStatus.ACTIVE);
+    }
+}
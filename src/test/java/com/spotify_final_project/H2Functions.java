@@ -0,0 +1,18 @@
+package com.spotify_final_project;
+
+/**
+ * Java implementations of PostgreSQL functions used by native queries, registered in H2 by h2-import.sql.
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    // 1 - similarity, like pg_trgm; similarity here is just the share of the value the query covers
+    public static double similarityDist(String value, String query) {
+        if (value == null || query == null) {
+            return 1;
+        }
+        return value.toLowerCase().contains(query.toLowerCase()) ? 1 - (double) query.length() / value.length() : 1;
+    }
+}
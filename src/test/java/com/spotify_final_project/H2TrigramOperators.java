@@ -0,0 +1,20 @@
+package com.spotify_final_project;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.regex.Pattern;
+
+/**
+ * H2 has no pg_trgm operators, so {@code column <-> ?} in the search queries is rewritten to the
+ * similarity_dist function registered by h2-import.sql, which is what the operator calls in PostgreSQL.
+ * Set as hibernate.session_factory.statement_inspector in tests that run the search queries.
+ */
+public class H2TrigramOperators implements StatementInspector {
+
+    private static final Pattern DISTANCE = Pattern.compile("(\\w+\\.\\w+) <-> \\?");
+
+    @Override
+    public String inspect(String sql) {
+        return DISTANCE.matcher(sql).replaceAll("similarity_dist($1, ?)");
+    }
+}
@@ -1,13 +1,16 @@
 package com.spotify_final_project;
 
 import com.spotify_final_project.config.CustomAuthentication;
+import com.spotify_final_project.config.JwtProperties;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.exception.auth.InvalidCredentialsException;
 import com.spotify_final_project.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,18 +18,12 @@ class JwtServiceTest {
 
     private JwtService jwtService;
 
-    @BeforeEach
-    void setUp() throws Exception {
-        jwtService = new JwtService();
-
-        // Set secret and expiration via reflection
-        Field secretField = JwtService.class.getDeclaredField("secret");
-        secretField.setAccessible(true);
-        secretField.set(jwtService, "01234567890123456789012345678901"); // 32 bytes for HMAC-SHA
+    private static final String SECRET = "01234567890123456789012345678901"; // 32 bytes for HMAC-SHA
+    private static final String OLD_SECRET = "abcdefghijabcdefghijabcdefghij12";
 
-        Field expirationField = JwtService.class.getDeclaredField("expirationMs");
-        expirationField.setAccessible(true);
-        expirationField.set(jwtService, 3600000L); // 1 hour
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new JwtProperties(SECRET, 3600000L, "k2", Map.of())); // 1 hour
     }
 
     @Test
@@ -52,6 +49,34 @@ class JwtServiceTest {
         assertThrows(InvalidCredentialsException.class, () -> jwtService.parseToken(invalidToken));
     }
 
+    @Test
+    void generateToken_ShouldWriteActiveKid() {
+        String token = jwtService.generateToken("user1", "user1@example.com", Role.LISTENER);
+        String header = new String(java.util.Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+        assertTrue(header.contains("\"kid\":\"k2\""));
+    }
+
+    @Test
+    void parseClaims_ShouldAcceptTokensSignedWithRotatedOutKey() {
+        JwtService oldService = new JwtService(new JwtProperties(OLD_SECRET, 3600000L, "k1", Map.of()));
+        String oldToken = oldService.generateToken("user1", "user1@example.com", Role.LISTENER);
+
+        JwtService rotated = new JwtService(new JwtProperties(SECRET, 3600000L, "k2", Map.of("k1", OLD_SECRET)));
+
+        assertEquals("user1", rotated.parseClaims(oldToken).get("username", String.class));
+        assertThrows(InvalidCredentialsException.class, () -> jwtService.parseClaims(oldToken));
+    }
+
+    @Test
+    void parseClaims_ShouldAcceptLegacyTokenWithoutKid() {
+        String legacy = Jwts.builder()
+                .claim("username", "user1")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        assertEquals("user1", jwtService.parseClaims(legacy).get("username", String.class));
+    }
+
     @Test
     void getExpirationTimestamp_ShouldReturnFutureTimestamp() {
         long now = System.currentTimeMillis();
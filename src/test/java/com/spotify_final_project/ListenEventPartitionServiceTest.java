@@ -0,0 +1,48 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.repository.ListenEventPartitionRepository;
+import com.spotify_final_project.service.ListenEventPartitionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ListenEventPartitionServiceTest {
+
+    private ListenEventPartitionRepository partitionRepository;
+    private ListenEventPartitionService partitionService;
+
+    @BeforeEach
+    void setUp() {
+        partitionRepository = mock(ListenEventPartitionRepository.class);
+        partitionService = new ListenEventPartitionService(partitionRepository, 2, 3);
+    }
+
+    @Test
+    void maintainPartitions_ShouldCreateCurrentAndUpcomingMonths() {
+        when(partitionRepository.findPartitionMonths()).thenReturn(List.of());
+
+        partitionService.maintainPartitions(YearMonth.of(2026, 11));
+
+        verify(partitionRepository).createPartition(YearMonth.of(2026, 11));
+        verify(partitionRepository).createPartition(YearMonth.of(2026, 12));
+        verify(partitionRepository).createPartition(YearMonth.of(2027, 1));
+        verify(partitionRepository, times(3)).createPartition(any());
+    }
+
+    @Test
+    void maintainPartitions_ShouldDropMonthsPastRetention() {
+        when(partitionRepository.findPartitionMonths()).thenReturn(List.of(
+                YearMonth.of(2026, 7), YearMonth.of(2026, 8), YearMonth.of(2026, 9), YearMonth.of(2026, 10)));
+
+        partitionService.maintainPartitions(YearMonth.of(2026, 11));
+
+        verify(partitionRepository).dropPartition(YearMonth.of(2026, 7));
+        verify(partitionRepository).dropPartition(YearMonth.of(2026, 8));
+        verify(partitionRepository, times(2)).dropPartition(any());
+    }
+}
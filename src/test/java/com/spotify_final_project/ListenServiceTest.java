@@ -1,58 +1,170 @@
 package com.spotify_final_project;
 
-import com.spotify_final_project.model.Listen;
+import com.spotify_final_project.dto.listen.ListenEvent;
+import com.spotify_final_project.dto.listen.ListenFlushStats;
 import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.User;
-import com.spotify_final_project.repository.ListenRepository;
+import com.spotify_final_project.repository.ListenBatchRepository;
+import com.spotify_final_project.service.ChartService;
 import com.spotify_final_project.service.ListenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.Optional;
+import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 class ListenServiceTest {
 
-    private ListenRepository listenRepository;
+    private ListenBatchRepository listenBatchRepository;
+    private ChartService chartService;
     private ListenService listenService;
 
     @BeforeEach
     void setUp() {
-        listenRepository = mock(ListenRepository.class);
-        listenService = new ListenService(listenRepository);
+        listenBatchRepository = mock(ListenBatchRepository.class);
+        chartService = mock(ChartService.class);
+        listenService = new ListenService(listenBatchRepository, chartService);
     }
 
     @Test
-    void incrementListenCount_ShouldCreateNewListen_WhenNoExistingRecord() {
-        User listener = new User();
-        Music music = new Music();
+    void incrementListenCount_ShouldNotWrite_UntilFlushed() {
+        listenService.incrementListenCount(user(1L), music(10L));
+
+        verifyNoInteractions(listenBatchRepository);
+        assertEquals(1, listenService.getFlushStats().pendingEvents());
+        verify(chartService).recordPlay(10L);
+    }
 
-        when(listenRepository.findByListenerAndMusic(listener, music))
-                .thenReturn(Optional.empty());
+    @Test
+    void flush_ShouldAppendEveryPlayAsAnEvent() {
+        User listener = user(1L);
+        listenService.incrementListenCount(listener, music(10L));
+        listenService.incrementListenCount(listener, music(10L));
+        listenService.recordListen(2L, 11L, 95);
+
+        listenService.flush();
 
-        listenService.incrementListenCount(listener, music);
+        List<ListenEvent> events = appendedEvents().get(0);
+        assertEquals(List.of(1L, 1L, 2L), events.stream().map(ListenEvent::userId).toList());
+        assertEquals(List.of(10L, 10L, 11L), events.stream().map(ListenEvent::musicId).toList());
+        assertNull(events.get(0).durationPlayed());
+        assertEquals(95, events.get(2).durationPlayed());
+        assertTrue(events.stream().allMatch(event -> event.playedAt() != null));
 
-        verify(listenRepository, times(1)).save(argThat(listen ->
-                listen.getListener() == listener &&
-                        listen.getMusic() == music &&
-                        listen.getCount() == 1L
-        ));
+        ListenFlushStats stats = listenService.getFlushStats();
+        assertEquals(0, stats.pendingEvents());
+        assertEquals(1, stats.flushCount());
+        assertEquals(3, stats.flushedEvents());
     }
 
     @Test
-    void incrementListenCount_ShouldIncrementExistingListen() {
-        User listener = new User();
-        Music music = new Music();
-        Listen existingListen = new Listen().setListener(listener).setMusic(music).setCount(5L);
+    void flush_ShouldWriteBacklogInBoundedBatches() {
+        ReflectionTestUtils.setField(listenService, "flushBatchSize", 2);
+        listenService.recordListen(1L, 10L, null);
+        // Reaching the batch size flushes right away
+        listenService.recordListen(1L, 11L, null);
+        verify(listenBatchRepository, times(1)).appendEvents(anyList());
+
+        listenService.recordListen(1L, 12L, null);
+        listenService.flush();
+
+        assertEquals(List.of(2, 1), appendedEvents().stream().map(List::size).toList());
+    }
+
+    @Test
+    void flush_ShouldDoNothing_WhenNothingPending() {
+        listenService.flush();
 
-        when(listenRepository.findByListenerAndMusic(listener, music))
-                .thenReturn(Optional.of(existingListen));
+        verifyNoInteractions(listenBatchRepository);
+    }
+
+    @Test
+    void flush_ShouldKeepEvents_WhenAppendFails() {
+        listenService.incrementListenCount(user(1L), music(10L));
+        doThrow(new RuntimeException("db down")).when(listenBatchRepository).appendEvents(anyList());
 
-        listenService.incrementListenCount(listener, music);
+        listenService.flush();
 
-        assertEquals(6L, existingListen.getCount());
-        verify(listenRepository, times(1)).save(existingListen);
+        ListenFlushStats stats = listenService.getFlushStats();
+        assertEquals(1, stats.pendingEvents());
+        assertEquals(1, stats.failedFlushCount());
+
+        doNothing().when(listenBatchRepository).appendEvents(anyList());
+        listenService.incrementListenCount(user(1L), music(10L));
+        listenService.flush();
+
+        assertEquals(2, listenService.getFlushStats().flushedEvents());
+        assertEquals(0, listenService.getFlushStats().pendingEvents());
+    }
+
+    @Test
+    void flush_ShouldDropEventsBeyondLimit_WhenAppendKeepsFailing() {
+        ReflectionTestUtils.setField(listenService, "maxPendingEvents", 1);
+        doThrow(new RuntimeException("db down")).when(listenBatchRepository).appendEvents(anyList());
+        listenService.recordListen(1L, 10L, null);
+        listenService.recordListen(1L, 11L, null);
+
+        listenService.flush();
+
+        ListenFlushStats stats = listenService.getFlushStats();
+        assertEquals(1, stats.pendingEvents());
+        assertEquals(1, stats.droppedEvents());
+    }
+
+    @Test
+    void discardUser_ShouldDropBufferedEventsOfThatUser() {
+        listenService.recordListen(1L, 10L, null);
+        listenService.recordListen(2L, 10L, null);
+
+        listenService.discardUser(1L);
+        listenService.flush();
+
+        assertEquals(List.of(2L), appendedEvents().get(0).stream().map(ListenEvent::userId).toList());
+    }
+
+    @Test
+    void discardTracks_ShouldDropBufferedEventsOfThoseTracksByAnyUser() {
+        listenService.recordListen(1L, 10L, null);
+        listenService.recordListen(2L, 10L, null);
+        listenService.recordListen(2L, 11L, null);
+
+        listenService.discardTracks(List.of(10L));
+        listenService.flush();
+
+        assertEquals(List.of(11L), appendedEvents().get(0).stream().map(ListenEvent::musicId).toList());
+        assertEquals(0, listenService.getFlushStats().pendingEvents());
+    }
+
+    @Test
+    void flushOnShutdown_ShouldWritePendingEvents() {
+        listenService.incrementListenCount(user(1L), music(10L));
+
+        listenService.flushOnShutdown();
+
+        assertEquals(1, appendedEvents().get(0).size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<ListenEvent>> appendedEvents() {
+        ArgumentCaptor<List<ListenEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(listenBatchRepository, atLeastOnce()).appendEvents(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static Music music(Long id) {
+        Music music = new Music();
+        music.setId(id);
+        return music;
     }
 }
@@ -0,0 +1,147 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.config.MailOutboxProperties;
+import com.spotify_final_project.dto.mail.MailOutboxStats;
+import com.spotify_final_project.enums.MailStatus;
+import com.spotify_final_project.model.OutboxMail;
+import com.spotify_final_project.repository.OutboxMailRepository;
+import com.spotify_final_project.service.MailOutboxWorker;
+import com.spotify_final_project.service.mail.InMemoryMailSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MailOutboxWorkerTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+    private static final MailOutboxProperties PROPERTIES = new MailOutboxProperties(10, 1, 3,
+            Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofDays(7));
+
+    private OutboxMailRepository outboxMailRepository;
+    private JavaMailSender mailSender;
+    private MailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        outboxMailRepository = mock(OutboxMailRepository.class);
+        mailSender = mock(JavaMailSender.class);
+        worker = newWorker(mailSender);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.shutdown();
+    }
+
+    @Test
+    void processBatch_ShouldClaimAndSendDueMails_InOneBatch() {
+        OutboxMail first = mail(1L, 0);
+        OutboxMail second = mail(2L, 0);
+        when(outboxMailRepository.findDueForUpdate(NOW, Limit.of(10))).thenReturn(List.of(first, second));
+
+        assertEquals(2, worker.processBatch());
+
+        ArgumentCaptor<SimpleMailMessage> messages = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender).send(messages.capture(), messages.capture());
+        assertEquals(2, messages.getAllValues().size());
+        assertEquals("user1@example.com", messages.getAllValues().get(0).getTo()[0]);
+        assertEquals("body 2", messages.getAllValues().get(1).getText());
+        assertEquals(MailStatus.SENDING, first.getStatus());
+        assertEquals(1, first.getAttempts());
+        assertEquals(NOW.plus(Duration.ofMinutes(5)), first.getNextAttemptAt()); // lease
+        verify(outboxMailRepository).markSent(List.of(1L, 2L), NOW);
+        verify(outboxMailRepository, never()).markFailedAttempt(any(), any(), any(), any());
+    }
+
+    @Test
+    void processBatch_ShouldRetryOnlyFailedMessages_WithBackoff() {
+        OutboxMail first = mail(1L, 0);
+        OutboxMail second = mail(2L, 1);
+        when(outboxMailRepository.findDueForUpdate(any(), any())).thenReturn(List.of(first, second));
+        doAnswer(inv -> {
+            SimpleMailMessage secondMessage = inv.getArgument(1);
+            throw new MailSendException(Map.of(secondMessage, new RuntimeException("mailbox full")));
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        worker.processBatch();
+
+        verify(outboxMailRepository).markSent(List.of(1L), NOW);
+        // Second attempt failed: the first retry waits 30s, the second one 60s
+        verify(outboxMailRepository).markFailedAttempt(2L, MailStatus.PENDING, NOW.plusSeconds(60), "mailbox full");
+        MailOutboxStats stats = worker.getStats();
+        assertEquals(1, stats.sentMails());
+        assertEquals(1, stats.failedAttempts());
+    }
+
+    @Test
+    void processBatch_ShouldGiveUp_AfterMaxAttempts() {
+        OutboxMail mail = mail(1L, 2);
+        when(outboxMailRepository.findDueForUpdate(any(), any())).thenReturn(List.of(mail));
+        doThrow(new MailAuthenticationException("bad credentials")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        worker.processBatch();
+
+        verify(outboxMailRepository).markFailedAttempt(1L, MailStatus.FAILED, NOW, "bad credentials");
+        verify(outboxMailRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void processBatch_ShouldDoNothing_WhenNothingIsDue() {
+        when(outboxMailRepository.findDueForUpdate(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, worker.processBatch());
+
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void processBatch_ShouldDeliverToInMemorySink() throws Exception {
+        InMemoryMailSender sink = new InMemoryMailSender(1, 0);
+        worker.shutdown();
+        worker = newWorker(sink);
+        when(outboxMailRepository.findDueForUpdate(any(), any())).thenReturn(List.of(mail(1L, 0), mail(2L, 0)));
+
+        worker.processBatch();
+
+        assertEquals(2, sink.getReceivedCount());
+        assertEquals(1, sink.getMessages().size()); // capacity 1 keeps the newest only
+        assertEquals("subject 2", sink.getMessages().get(0).getSubject());
+        verify(outboxMailRepository).markSent(List.of(1L, 2L), NOW);
+    }
+
+    private MailOutboxWorker newWorker(JavaMailSender sender) {
+        return new MailOutboxWorker(outboxMailRepository, sender, mock(PlatformTransactionManager.class),
+                PROPERTIES, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static OutboxMail mail(Long id, int attempts) {
+        OutboxMail mail = new OutboxMail()
+                .setRecipient("user" + id + "@example.com")
+                .setSubject("subject " + id)
+                .setBody("body " + id)
+                .setStatus(MailStatus.PENDING)
+                .setAttempts(attempts)
+                .setNextAttemptAt(NOW)
+                .setCreatedAt(NOW);
+        mail.setId(id);
+        return mail;
+    }
+}
@@ -1,37 +1,42 @@
 package com.spotify_final_project;
 
+import com.spotify_final_project.enums.MailStatus;
+import com.spotify_final_project.repository.OutboxMailRepository;
+import com.spotify_final_project.service.MailOutboxWorker;
 import com.spotify_final_project.service.MailService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 
 import static org.mockito.Mockito.*;
 
 class MailServiceTest {
 
-    private JavaMailSender mailSender;
+    private OutboxMailRepository outboxMailRepository;
+    private MailOutboxWorker mailOutboxWorker;
     private MailService mailService;
 
     @BeforeEach
     void setUp() {
-        mailSender = mock(JavaMailSender.class);
-        mailService = new MailService(mailSender);
+        outboxMailRepository = mock(OutboxMailRepository.class);
+        mailOutboxWorker = mock(MailOutboxWorker.class);
+        mailService = new MailService(outboxMailRepository, mailOutboxWorker);
     }
 
     @Test
-    void sendVerificationEmail_ShouldSendEmail() {
+    void queueVerificationEmail_ShouldQueueEmail() {
         String email = "test@example.com";
         String code = "123456";
 
-        // Call the service method
-        mailService.sendVerificationEmail(email, code);
+        mailService.queueVerificationEmail(email, code);
 
-        // Capture the sent message
-        verify(mailSender, times(1)).send(argThat((SimpleMailMessage message) ->
-                message.getTo()[0].equals(email) &&
-                        message.getSubject().equals("Verify your account") &&
-                        message.getText().contains(code)
+        verify(outboxMailRepository, times(1)).save(argThat(mail ->
+                mail.getRecipient().equals(email) &&
+                        mail.getSubject().equals("Verify your account") &&
+                        mail.getBody().contains(code) &&
+                        mail.getStatus() == MailStatus.PENDING &&
+                        mail.getNextAttemptAt() != null
         ));
+        // No transaction in this test, so the worker is woken up right away
+        verify(mailOutboxWorker).wakeUp();
     }
 }
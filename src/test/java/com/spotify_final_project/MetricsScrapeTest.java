@@ -0,0 +1,113 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.repository.UserRepository;
+import com.spotify_final_project.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots the whole application on H2 and scrapes /actuator/prometheus the way Prometheus would: on the management
+ * port without credentials, after one request has gone through a controller, a repository and Hibernate.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:scrape;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        // Migrations are PostgreSQL-specific; the H2 schema comes from the entities
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.mail.sink=memory",
+        "management.server.port=0"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsScrapeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void prometheus_ShouldNotBeServed_OnTheApiPort() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor("metrics_listener", Role.LISTENER)))
+                .andExpect(status().isForbidden());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(managementUrl("/actuator/health"), String.class).getStatusCode());
+    }
+
+    @Test
+    void prometheus_ShouldPublishRequestRepositoryHibernateAndPoolMetrics() throws Exception {
+        mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"nobody\",\"password\":\"secret\"}"))
+                .andExpect(status().is4xxClientError());
+
+        ResponseEntity<String> response = restTemplate.getForEntity(managementUrl("/actuator/prometheus"), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String scrape = response.getBody();
+
+        assertAll(
+                () -> assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint histogram"),
+                () -> assertTrue(scrape.contains("uri=\"/users/login\""), "endpoint uri tag"),
+                () -> assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"), "repository histogram"),
+                () -> assertTrue(scrape.contains("repository=\"UserRepository\""), "repository tag"),
+                () -> assertTrue(scrape.contains("hibernate_statements_per_request_statements_count{"), "statements per request"),
+                () -> assertTrue(scrape.contains("hibernate_second_level_cache_requests_total{"), "second-level cache"),
+                () -> assertTrue(scrape.contains("hibernate_entities_loads_total{"), "entity loads"),
+                () -> assertTrue(scrape.contains("hikaricp_connections_active{"), "pool gauges"),
+                () -> assertTrue(scrape.contains("tasks_scheduled_execution_seconds"), "scheduled jobs"),
+                () -> assertTrue(scrape.contains("security_password_hashing_rejected_total{"), "application meters"),
+                () -> assertTrue(scrape.contains("application=\"social-platform-api\""), "common tag"));
+    }
+
+    private String managementUrl(String path) {
+        return "http://localhost:" + managementPort + path;
+    }
+
+    private String tokenFor(String username, Role role) {
+        User user = new User();
+        user.setFirstName("Metrics");
+        user.setLastName("Scraper");
+        user.setUsername(username);
+        user.setEmail(username + "@mail.com");
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        user.setPassword("unused");
+        user.setRole(role);
+        user.setStatus(AccountStatus.ACTIVE);
+        userRepository.save(user);
+        return jwtService.generateToken(username, user.getEmail(), role);
+    }
+}
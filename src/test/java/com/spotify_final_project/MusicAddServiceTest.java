@@ -1,102 +1,168 @@
 package com.spotify_final_project;
 
+import com.spotify_final_project.dto.playlist.PlaylistTracksResult;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.exception.auth.AuthenticationException;
 import com.spotify_final_project.exception.auth.UserNotFoundException;
 import com.spotify_final_project.exception.music.MusicNotFoundException;
+import com.spotify_final_project.exception.playlist.InvalidPlaylistTracksException;
 import com.spotify_final_project.exception.playlist.PlaylistNotFoundException;
+import com.spotify_final_project.exception.playlist.PlaylistTracksConflictException;
 import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.Playlist;
-import com.spotify_final_project.repository.AlbumRepository;
+import com.spotify_final_project.model.PlaylistTrack;
+import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.MusicRepository;
 import com.spotify_final_project.repository.PlaylistRepository;
+import com.spotify_final_project.repository.PlaylistTrackRepository;
 import com.spotify_final_project.repository.UserRepository;
 import com.spotify_final_project.service.MusicAddService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 class MusicAddServiceTest {
 
-    private AlbumRepository albumRepository;
     private PlaylistRepository playlistRepository;
+    private PlaylistTrackRepository playlistTrackRepository;
     private MusicRepository musicRepository;
     private UserRepository userRepository;
     private MusicAddService musicAddService;
+    private Playlist playlist;
+    private User owner;
 
     @BeforeEach
     void setUp() {
-        albumRepository = mock(AlbumRepository.class);
         playlistRepository = mock(PlaylistRepository.class);
+        playlistTrackRepository = mock(PlaylistTrackRepository.class);
         musicRepository = mock(MusicRepository.class);
         userRepository = mock(UserRepository.class);
-        musicAddService = new MusicAddService(albumRepository, playlistRepository, musicRepository, userRepository);
+        musicAddService = new MusicAddService(playlistRepository, playlistTrackRepository, musicRepository, userRepository);
+
+        owner = new User();
+        owner.setId(3L);
+        owner.setRole(Role.LISTENER);
+        playlist = new Playlist();
+        playlist.setId(1L);
+        playlist.setOwner(owner);
+
+        when(playlistRepository.findLockedById(1L)).thenReturn(Optional.of(playlist));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(owner));
+        when(musicRepository.getReferenceById(anyLong())).thenAnswer(inv -> new Music().setId(inv.getArgument(0)));
     }
 
     @Test
-    void addMusicToPlaylist_ShouldAddMusic_WhenAllExist() {
-        Playlist playlist = new Playlist();
-        playlist.setTracks(new ArrayList<>());
-        Music music = new Music();
-
-        when(playlistRepository.findById(1L)).thenReturn(Optional.of(playlist));
-        when(musicRepository.findById(2L)).thenReturn(Optional.of(music));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(mock(com.spotify_final_project.model.User.class)));
-        when(playlistRepository.save(playlist)).thenReturn(playlist);
-
-        Playlist result = musicAddService.addMusicToPlaylist(1L, 2L, 3L);
-
-        assertTrue(result.getTracks().contains(music));
-        verify(playlistRepository, times(1)).save(playlist);
+    @SuppressWarnings("unchecked")
+    void addTracks_ShouldInsertOnlyNewTracksAfterLastPosition() {
+        when(musicRepository.findExistingIds(anyCollection())).thenReturn(Set.of(10L, 11L, 12L));
+        when(playlistTrackRepository.findMusicIdsInPlaylist(eq(1L), anyCollection())).thenReturn(Set.of(11L));
+        when(playlistTrackRepository.findMaxPosition(1L)).thenReturn(4);
+        when(playlistTrackRepository.countByPlaylistId(1L)).thenReturn(7L);
+
+        PlaylistTracksResult result = musicAddService.addTracks(1L, List.of(10L, 11L, 12L, 10L), 3L);
+
+        ArgumentCaptor<List<PlaylistTrack>> saved = ArgumentCaptor.forClass(List.class);
+        verify(playlistTrackRepository).saveAllAndFlush(saved.capture());
+        assertEquals(List.of(10L, 12L), saved.getValue().stream().map(t -> t.getMusic().getId()).toList());
+        assertEquals(List.of(5, 6), saved.getValue().stream().map(PlaylistTrack::getPosition).toList());
+        assertEquals(2, result.changed());
+        assertEquals(7L, result.trackCount());
+        verify(playlistRepository, never()).save(any());
     }
 
     @Test
     void addMusicToPlaylist_ShouldThrow_WhenPlaylistNotFound() {
-        when(playlistRepository.findById(1L)).thenReturn(Optional.empty());
+        when(playlistRepository.findLockedById(1L)).thenReturn(Optional.empty());
         assertThrows(PlaylistNotFoundException.class, () -> musicAddService.addMusicToPlaylist(1L, 2L, 3L));
     }
 
     @Test
     void addMusicToPlaylist_ShouldThrow_WhenMusicNotFound() {
-        Playlist playlist = new Playlist();
-        playlist.setTracks(new ArrayList<>());
-        when(playlistRepository.findById(1L)).thenReturn(Optional.of(playlist));
-        when(musicRepository.findById(2L)).thenReturn(Optional.empty());
-        when(userRepository.findById(3L)).thenReturn(Optional.of(mock(com.spotify_final_project.model.User.class)));
+        when(musicRepository.findExistingIds(anyCollection())).thenReturn(Set.of());
 
         assertThrows(MusicNotFoundException.class, () -> musicAddService.addMusicToPlaylist(1L, 2L, 3L));
+        verify(playlistTrackRepository, never()).saveAllAndFlush(any());
     }
 
     @Test
     void addMusicToPlaylist_ShouldThrow_WhenUserNotFound() {
-        Playlist playlist = new Playlist();
-        playlist.setTracks(new ArrayList<>());
-        Music music = new Music();
-
-        when(playlistRepository.findById(1L)).thenReturn(Optional.of(playlist));
-        when(musicRepository.findById(2L)).thenReturn(Optional.of(music));
         when(userRepository.findById(3L)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> musicAddService.addMusicToPlaylist(1L, 2L, 3L));
     }
 
+    @Test
+    void addMusicToPlaylist_ShouldThrow_WhenNotOwnerOrAdmin() {
+        User stranger = new User();
+        stranger.setId(4L);
+        stranger.setRole(Role.LISTENER);
+        when(userRepository.findById(4L)).thenReturn(Optional.of(stranger));
+
+        assertThrows(AuthenticationException.class, () -> musicAddService.addMusicToPlaylist(1L, 2L, 4L));
+    }
+
     @Test
     void addMusicToPlaylist_ShouldNotAddDuplicateMusic() {
-        Playlist playlist = new Playlist();
-        Music music = new Music();
-        playlist.setTracks(new ArrayList<>());
-        playlist.getTracks().add(music);
+        when(musicRepository.findExistingIds(anyCollection())).thenReturn(Set.of(2L));
+        when(playlistTrackRepository.findMusicIdsInPlaylist(eq(1L), anyCollection())).thenReturn(Set.of(2L));
+        when(playlistTrackRepository.countByPlaylistId(1L)).thenReturn(1L);
+
+        PlaylistTracksResult result = musicAddService.addMusicToPlaylist(1L, 2L, 3L);
 
-        when(playlistRepository.findById(1L)).thenReturn(Optional.of(playlist));
-        when(musicRepository.findById(2L)).thenReturn(Optional.of(music));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(mock(com.spotify_final_project.model.User.class)));
-        when(playlistRepository.save(playlist)).thenReturn(playlist);
+        assertEquals(0, result.changed()); // ensure music not duplicated
+        assertEquals(1L, result.trackCount());
+    }
+
+    @Test
+    void addMusicToPlaylist_ShouldThrowConflict_WhenInsertHitsUniqueConstraint() {
+        when(musicRepository.findExistingIds(anyCollection())).thenReturn(Set.of(2L));
+        when(playlistTrackRepository.saveAllAndFlush(anyCollection()))
+                .thenThrow(new DataIntegrityViolationException("uk_playlist_music"));
 
-        Playlist result = musicAddService.addMusicToPlaylist(1L, 2L, 3L);
+        assertThrows(PlaylistTracksConflictException.class, () -> musicAddService.addMusicToPlaylist(1L, 2L, 3L));
+    }
+
+    @Test
+    void removeTracks_ShouldDeleteWithOneStatement() {
+        when(playlistTrackRepository.deleteFromPlaylist(eq(1L), anyCollection())).thenReturn(2);
+
+        PlaylistTracksResult result = musicAddService.removeTracks(1L, List.of(10L, 11L), 3L);
+
+        assertEquals(2, result.changed());
+        verify(playlistTrackRepository).deleteFromPlaylist(1L, Set.of(10L, 11L));
+    }
+
+    @Test
+    void reorderTracks_ShouldOnlyMoveTracksWhosePositionChanges() {
+        PlaylistTrack a = new PlaylistTrack(playlist, new Music().setId(10L), 0);
+        PlaylistTrack b = new PlaylistTrack(playlist, new Music().setId(11L), 1);
+        PlaylistTrack c = new PlaylistTrack(playlist, new Music().setId(12L), 2);
+        when(playlistTrackRepository.findByPlaylistIdOrderByPositionAscIdAsc(1L)).thenReturn(List.of(a, b, c));
+
+        PlaylistTracksResult result = musicAddService.reorderTracks(1L, List.of(10L, 12L, 11L), 3L);
+
+        assertEquals(2, result.changed());
+        assertEquals(0, a.getPosition());
+        assertEquals(1, c.getPosition());
+        assertEquals(2, b.getPosition());
+    }
+
+    @Test
+    void reorderTracks_ShouldThrow_WhenIdsDoNotMatchPlaylist() {
+        PlaylistTrack a = new PlaylistTrack(playlist, new Music().setId(10L), 0);
+        PlaylistTrack b = new PlaylistTrack(playlist, new Music().setId(11L), 1);
+        when(playlistTrackRepository.findByPlaylistIdOrderByPositionAscIdAsc(1L)).thenReturn(List.of(a, b));
 
-        assertEquals(1, result.getTracks().size()); // ensure music not duplicated
+        assertThrows(InvalidPlaylistTracksException.class,
+                () -> musicAddService.reorderTracks(1L, List.of(10L, 10L), 3L));
     }
 }
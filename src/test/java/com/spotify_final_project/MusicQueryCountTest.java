@@ -0,0 +1,149 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.GenreType;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.model.Album;
+import com.spotify_final_project.model.Music;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.repository.AlbumRepository;
+import com.spotify_final_project.repository.MusicRepository;
+import com.spotify_final_project.repository.UserRepository;
+import com.spotify_final_project.service.ArtistGenreIndex;
+import com.spotify_final_project.service.MusicService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards against N+1 regressions on the music listing endpoints: each call must issue a fixed number of
+ * statements and load no entities, however many rows, artists and albums it returns.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        // Migrations are PostgreSQL-specific; the H2 schema comes from the entities
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.hbm2ddl.import_files=/h2-import.sql",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.spotify_final_project.H2TrigramOperators"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MusicQueryCountTest {
+
+    private static final int ARTISTS = 3;
+    private static final int TRACKS_PER_ARTIST = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private MusicRepository musicRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    private MusicService musicService;
+    private Statistics statistics;
+    private Long firstArtistId;
+
+    @BeforeEach
+    void setUp() {
+        musicService = new MusicService(musicRepository, userRepository, albumRepository, new ArtistGenreIndex(musicRepository));
+
+        for (int a = 0; a < ARTISTS; a++) {
+            User artist = new User()
+                    .setUsername("artist" + a)
+                    .setEmail("artist" + a + "@example.com")
+                    .setFirstName("First")
+                    .setLastName("Last")
+                    .setBirthDate(LocalDate.of(1990, 1, 1))
+                    .setPassword("x")
+                    .setRole(Role.ARTIST)
+                    .setStatus(AccountStatus.ACTIVE);
+            entityManager.persist(artist);
+            if (firstArtistId == null) {
+                firstArtistId = artist.getId();
+            }
+
+            Album album = new Album();
+            album.setTitle("album" + a);
+            album.setArtist(artist);
+            entityManager.persist(album);
+
+            for (int t = 0; t < TRACKS_PER_ARTIST; t++) {
+                Music music = new Music()
+                        .setTitle("song " + a + "-" + t)
+                        .setGenre(GenreType.ROCK)
+                        .setDuration(180)
+                        .setArtist(artist)
+                        .setAlbum(t % 2 == 0 ? album : null);
+                entityManager.persist(music);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchByTitle_ShouldUseOneStatement() {
+        List<MusicResponse> results = assertStatements(1, () -> musicService.searchByTitle("song", 0, 100));
+        assertEquals(ARTISTS * TRACKS_PER_ARTIST, results.size());
+        assertTrue(results.stream().anyMatch(r -> r.getAlbumName() != null));
+    }
+
+    @Test
+    void searchByArtist_ShouldUseOneStatement() {
+        List<MusicResponse> results = assertStatements(1, () -> musicService.searchByArtist("artist", 0, 100));
+        assertEquals(ARTISTS * TRACKS_PER_ARTIST, results.size());
+    }
+
+    @Test
+    void searchByTitleOrArtist_ShouldUseOneStatement() {
+        List<MusicResponse> results = assertStatements(1, () -> musicService.searchByTitleOrArtist("artist1", 0, 100));
+        assertEquals(TRACKS_PER_ARTIST, results.size());
+        assertTrue(results.stream().allMatch(r -> r.getArtistUsername().equals("artist1")));
+    }
+
+    @Test
+    void getMusicByGenre_ShouldUseOneStatement() {
+        List<MusicResponse> results = assertStatements(1, () -> musicService.getMusicByGenre(GenreType.ROCK));
+        assertEquals(ARTISTS * TRACKS_PER_ARTIST, results.size());
+    }
+
+    @Test
+    void getMusicByArtist_ShouldUseExistenceCheckPlusOneStatement() {
+        List<MusicResponse> results = assertStatements(2, () -> musicService.getMusicByArtist(firstArtistId));
+        assertEquals(TRACKS_PER_ARTIST, results.size());
+        assertEquals("album0", results.get(0).getAlbumName());
+    }
+
+    @Test
+    void getAllMusics_ShouldUseOneStatement() {
+        assertStatements(1, () -> musicService.getAllMusics(null, 100));
+    }
+
+    private <T> T assertStatements(int expected, Supplier<T> call) {
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount(), "statements issued");
+        assertEquals(0, statistics.getEntityLoadCount(), "entities loaded");
+        return result;
+    }
+}
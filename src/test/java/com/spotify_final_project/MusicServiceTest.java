@@ -2,6 +2,8 @@ package com.spotify_final_project;
 
 import com.spotify_final_project.dto.music.MusicRequest;
 import com.spotify_final_project.dto.music.MusicResponse;
+import com.spotify_final_project.dto.music.MusicSearchRow;
+import com.spotify_final_project.dto.response.CursorPage;
 import com.spotify_final_project.enums.GenreType;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.exception.album.AlbumNotFoundException;
@@ -14,9 +16,12 @@ import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.AlbumRepository;
 import com.spotify_final_project.repository.MusicRepository;
 import com.spotify_final_project.repository.UserRepository;
+import com.spotify_final_project.service.ArtistGenreIndex;
 import com.spotify_final_project.service.MusicService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +34,7 @@ class MusicServiceTest {
     private MusicRepository musicRepository;
     private UserRepository userRepository;
     private AlbumRepository albumRepository;
+    private ArtistGenreIndex artistGenreIndex;
     private MusicService musicService;
 
     @BeforeEach
@@ -36,7 +42,8 @@ class MusicServiceTest {
         musicRepository = mock(MusicRepository.class);
         userRepository = mock(UserRepository.class);
         albumRepository = mock(AlbumRepository.class);
-        musicService = new MusicService(musicRepository, userRepository, albumRepository);
+        artistGenreIndex = mock(ArtistGenreIndex.class);
+        musicService = new MusicService(musicRepository, userRepository, albumRepository, artistGenreIndex);
     }
 
     @Test
@@ -147,6 +154,7 @@ class MusicServiceTest {
 
         musicService.deleteMusic(1L, 1L);
         verify(musicRepository, times(1)).delete(music);
+        verify(artistGenreIndex, times(1)).invalidate();
     }
 
     @Test
@@ -187,49 +195,102 @@ class MusicServiceTest {
         assertEquals("testArtist", response.getArtistUsername());
     }
 
+    @Test
+    void requireMusicExists_ShouldThrow_WhenMusicNotFound() {
+        when(musicRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(MusicNotFoundException.class, () -> musicService.requireMusicExists(1L));
+        verify(musicRepository, never()).findById(anyLong());
+    }
+
     @Test
     void getAllMusics_ShouldReturnList() {
-        User artist = new User();
-        artist.setId(1L);
-        artist.setUsername("artist1");
+        MusicResponse m1 = new MusicResponse(1L, "Song1", GenreType.ROCK, 180, "artist1", null);
+        MusicResponse m2 = new MusicResponse(2L, "Song2", GenreType.ROCK, 200, "artist1", "Album1");
 
-        Music m1 = new Music();
-        m1.setTitle("Song1");
-        m1.setArtist(artist); // ✅ Fix
+        when(musicRepository.findResponsesAfter(0L, Limit.of(21))).thenReturn(List.of(m1, m2));
 
-        Music m2 = new Music();
-        m2.setTitle("Song2");
-        m2.setArtist(artist); // ✅ Fix
+        CursorPage<MusicResponse> page = musicService.getAllMusics(null, 20);
+        assertEquals(2, page.items().size());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getAllMusics_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        MusicResponse m1 = new MusicResponse(11L, "Song1", GenreType.ROCK, 180, "artist1", null);
+        MusicResponse m2 = new MusicResponse(12L, "Song2", GenreType.ROCK, 180, "artist1", null);
+
+        when(musicRepository.findResponsesAfter(10L, Limit.of(2))).thenReturn(List.of(m1, m2));
+
+        CursorPage<MusicResponse> page = musicService.getAllMusics(10L, 1);
+        assertEquals(1, page.items().size());
+        assertTrue(page.hasMore());
+        assertEquals(11L, page.nextCursor());
+    }
 
-        when(musicRepository.findAll()).thenReturn(List.of(m1, m2));
+    @Test
+    void getAllMusics_ShouldCapLimit() {
+        when(musicRepository.findResponsesAfter(0L, Limit.of(CursorPage.MAX_LIMIT + 1))).thenReturn(List.of());
 
-        List<MusicResponse> list = musicService.getAllMusics();
-        assertEquals(2, list.size());
+        CursorPage<MusicResponse> page = musicService.getAllMusics(null, 10_000);
+        assertTrue(page.items().isEmpty());
+        verify(musicRepository).findResponsesAfter(0L, Limit.of(CursorPage.MAX_LIMIT + 1));
     }
 
 
     @Test
     void searchByTitle_ShouldReturnList() {
-        Music m1 = new Music();
-        when(musicRepository.findByTitleContainingIgnoreCase("song")).thenReturn(List.of(m1));
-        List<Music> result = musicService.searchByTitle("song");
+        MusicSearchRow row = searchRow(1L, "song", "artist1");
+        when(musicRepository.searchByTitle("song", "song", PageRequest.of(0, 20))).thenReturn(List.of(row));
+        List<MusicResponse> result = musicService.searchByTitle("song", 0, 20);
         assertEquals(1, result.size());
+        assertEquals("song", result.get(0).getTitle());
+        assertEquals("artist1", result.get(0).getArtistUsername());
     }
 
     @Test
     void searchByArtist_ShouldReturnList() {
-        Music m1 = new Music();
-        when(musicRepository.findByArtist_UsernameContainingIgnoreCase("artist")).thenReturn(List.of(m1));
-        List<Music> result = musicService.searchByArtist("artist");
+        MusicSearchRow row = searchRow(1L, "song", "artist");
+        when(musicRepository.searchByArtistUsername("artist", "artist", PageRequest.of(0, 20))).thenReturn(List.of(row));
+        List<MusicResponse> result = musicService.searchByArtist("artist", 0, 20);
         assertEquals(1, result.size());
     }
 
     @Test
     void searchByTitleOrArtist_ShouldReturnList() {
-        Music m1 = new Music();
-        when(musicRepository.findByTitleContainingIgnoreCaseOrArtist_UsernameContainingIgnoreCase("key", "key"))
-                .thenReturn(List.of(m1));
-        List<Music> result = musicService.searchByTitleOrArtist("key");
+        MusicSearchRow row = searchRow(1L, "key", "artist");
+        when(musicRepository.searchByTitleOrArtistUsername("key", "key", 20, PageRequest.of(0, 20)))
+                .thenReturn(List.of(row));
+        List<MusicResponse> result = musicService.searchByTitleOrArtist("key", 0, 20);
         assertEquals(1, result.size());
     }
+
+    @Test
+    void getMusicByArtist_ShouldThrow_WhenArtistMissing() {
+        when(userRepository.existsById(5L)).thenReturn(false);
+        assertThrows(UserNotFoundException.class, () -> musicService.getMusicByArtist(5L));
+        verify(musicRepository, never()).findResponsesByArtistId(any());
+    }
+
+    @Test
+    void searchByTitle_ShouldEscapeWildcardsAndCapPageSize() {
+        musicService.searchByTitle("100%_hits", 2, 5000);
+        verify(musicRepository).searchByTitle("100%_hits", "100\\%\\_hits", PageRequest.of(2, 100));
+    }
+
+    @Test
+    void searchByTitleOrArtist_ShouldReadEachBranchUpToTheEndOfThePage() {
+        musicService.searchByTitleOrArtist("key", 2, 20);
+        verify(musicRepository).searchByTitleOrArtistUsername("key", "key", 60, PageRequest.of(2, 20));
+    }
+
+    private static MusicSearchRow searchRow(Long id, String title, String artistUsername) {
+        MusicSearchRow row = mock(MusicSearchRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getTitle()).thenReturn(title);
+        when(row.getGenre()).thenReturn(GenreType.ROCK);
+        when(row.getArtistUsername()).thenReturn(artistUsername);
+        return row;
+    }
 }
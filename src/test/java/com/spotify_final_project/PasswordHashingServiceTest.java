@@ -0,0 +1,81 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.exception.auth.PasswordHashingBusyException;
+import com.spotify_final_project.service.PasswordHashingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void encode_ShouldHashOnThePool_AndMatch() {
+        passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(4), 2, 4, 5000);
+
+        String hash = passwordHashingService.encode("secret");
+
+        assertTrue(passwordHashingService.matches("secret", hash));
+        assertFalse(passwordHashingService.matches("wrong", hash));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldFlagHashes_WithALowerWorkFactor() {
+        passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(5), 1, 1, 5000);
+
+        assertTrue(passwordHashingService.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(passwordHashingService.upgradeEncoding(passwordHashingService.encode("secret")));
+    }
+
+    @Test
+    void encode_ShouldRejectRequests_WhenTheQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = mock(PasswordEncoder.class);
+        when(slowEncoder.encode(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        passwordHashingService = new PasswordHashingService(slowEncoder, 1, 1, 5000);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordHashingService.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordHashingService.encode("b"));
+        while (passwordHashingService.getQueuedCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingBusyException.class, () -> passwordHashingService.encode("c"));
+        assertEquals(1, passwordHashingService.getRejectedCount());
+
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_ShouldGiveUp_WhenWaitingTooLong() {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = mock(PasswordEncoder.class);
+        when(slowEncoder.matches(any(), any())).thenAnswer(inv -> release.await(5, TimeUnit.SECONDS));
+        passwordHashingService = new PasswordHashingService(slowEncoder, 1, 1, 50);
+
+        assertThrows(PasswordHashingBusyException.class, () -> passwordHashingService.matches("a", "hash"));
+        release.countDown();
+    }
+}
@@ -2,6 +2,8 @@ package com.spotify_final_project;
 
 import com.spotify_final_project.dto.playlist.CreatePlaylistRequest;
 import com.spotify_final_project.dto.playlist.PlaylistResponse;
+import com.spotify_final_project.dto.playlist.PlaylistTrackTitle;
+import com.spotify_final_project.dto.response.CursorPage;
 import com.spotify_final_project.enums.Role;
 import com.spotify_final_project.exception.auth.AuthenticationException;
 import com.spotify_final_project.exception.auth.UserNotFoundException;
@@ -9,10 +11,12 @@ import com.spotify_final_project.exception.playlist.PlaylistNotFoundException;
 import com.spotify_final_project.model.Playlist;
 import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.PlaylistRepository;
+import com.spotify_final_project.repository.PlaylistTrackRepository;
 import com.spotify_final_project.repository.UserRepository;
 import com.spotify_final_project.service.PlaylistService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,14 +28,16 @@ import static org.mockito.Mockito.*;
 class PlaylistServiceTest {
 
     private PlaylistRepository playlistRepository;
+    private PlaylistTrackRepository playlistTrackRepository;
     private UserRepository userRepository;
     private PlaylistService playlistService;
 
     @BeforeEach
     void setUp() {
         playlistRepository = mock(PlaylistRepository.class);
+        playlistTrackRepository = mock(PlaylistTrackRepository.class);
         userRepository = mock(UserRepository.class);
-        playlistService = new PlaylistService(playlistRepository, userRepository);
+        playlistService = new PlaylistService(playlistRepository, playlistTrackRepository, userRepository);
     }
 
     @Test
@@ -200,7 +206,7 @@ class PlaylistServiceTest {
         playlist.setName("My Playlist");
         playlist.setOwner(owner);
 
-        when(playlistRepository.findById(1L)).thenReturn(Optional.of(playlist));
+        when(playlistRepository.findDetailById(1L)).thenReturn(Optional.of(playlist));
 
         PlaylistResponse response = playlistService.getPlaylistById(1L);
 
@@ -223,20 +229,27 @@ class PlaylistServiceTest {
         p2.setId(2L);
         p2.setOwner(owner);
 
-        when(playlistRepository.findAll()).thenReturn(List.of(p1, p2));
+        when(playlistRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(List.of(p1, p2));
+        when(playlistTrackRepository.findTrackTitlesByPlaylistIds(List.of(1L, 2L))).thenReturn(List.of(
+                new PlaylistTrackTitle(1L, "first"),
+                new PlaylistTrackTitle(1L, "second")));
 
-        List<PlaylistResponse> playlists = playlistService.getAllPlaylists();
+        CursorPage<PlaylistResponse> playlists = playlistService.getAllPlaylists(null, 20);
 
-        assertEquals(2, playlists.size());
-        assertEquals("ownerUser", playlists.get(0).getOwnerUsername());
-        assertEquals("ownerUser", playlists.get(1).getOwnerUsername());
+        assertEquals(2, playlists.items().size());
+        assertEquals("ownerUser", playlists.items().get(0).getOwnerUsername());
+        assertEquals("ownerUser", playlists.items().get(1).getOwnerUsername());
+        assertEquals(List.of("first", "second"), playlists.items().get(0).getTrackTitles());
+        assertEquals(List.of(), playlists.items().get(1).getTrackTitles());
     }
 
     @Test
     void getAllPlaylists_ShouldReturnEmptyList_WhenNoPlaylists() {
-        when(playlistRepository.findAll()).thenReturn(List.of());
+        when(playlistRepository.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(21))).thenReturn(List.of());
 
-        List<PlaylistResponse> playlists = playlistService.getAllPlaylists();
-        assertTrue(playlists.isEmpty());
+        CursorPage<PlaylistResponse> playlists = playlistService.getAllPlaylists(5L, 20);
+        assertTrue(playlists.items().isEmpty());
+        assertNull(playlists.nextCursor());
+        verifyNoInteractions(playlistTrackRepository);
     }
 }
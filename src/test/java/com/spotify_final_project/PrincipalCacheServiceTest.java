@@ -0,0 +1,94 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.dto.auth.VerifiedPrincipal;
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.exception.auth.InvalidCredentialsException;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.repository.UserRepository;
+import com.spotify_final_project.service.JwtService;
+import com.spotify_final_project.service.PrincipalCacheService;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheServiceTest {
+
+    private JwtService jwtService;
+    private UserRepository userRepository;
+    private PrincipalCacheService principalCacheService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        userRepository = mock(UserRepository.class);
+        principalCacheService = new PrincipalCacheService(jwtService, userRepository, 300, 100);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("user1");
+        user.setEmail("user1@mail.com");
+        user.setRole(Role.LISTENER);
+        user.setStatus(AccountStatus.ACTIVE);
+
+        when(jwtService.parseClaims("token")).thenReturn(Jwts.claims()
+                .add("username", "user1")
+                .expiration(Date.from(Instant.now().plusSeconds(3600)))
+                .build());
+        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void resolve_ShouldParseAndLoadOnce_WhenTokenReused() {
+        VerifiedPrincipal first = principalCacheService.resolve("token");
+        VerifiedPrincipal second = principalCacheService.resolve("token");
+
+        assertEquals(1L, first.userId());
+        assertEquals(Role.LISTENER, first.role());
+        assertSame(first, second);
+        verify(jwtService, times(1)).parseClaims("token");
+        verify(userRepository, times(1)).findByUsername("user1");
+    }
+
+    @Test
+    void resolve_ShouldRejectBlockedUser_AfterEviction() {
+        principalCacheService.resolve("token");
+
+        user.setStatus(AccountStatus.BLOCKED);
+        principalCacheService.evictUser(1L);
+
+        InvalidCredentialsException exception = assertThrows(InvalidCredentialsException.class,
+                () -> principalCacheService.resolve("token"));
+        assertEquals("Your account has been blocked. Please contact support.", exception.getMessage());
+        verify(userRepository, times(2)).findByUsername("user1");
+    }
+
+    @Test
+    void resolve_ShouldNotCache_WhenTokenAlreadyExpired() {
+        when(jwtService.parseClaims("old")).thenReturn(Jwts.claims()
+                .add("username", "user1")
+                .expiration(Date.from(Instant.now().minusSeconds(1)))
+                .build());
+
+        principalCacheService.resolve("old");
+        principalCacheService.resolve("old");
+
+        verify(jwtService, times(2)).parseClaims("old");
+    }
+
+    @Test
+    void resolve_ShouldPropagate_WhenTokenInvalid() {
+        when(jwtService.parseClaims("bad")).thenThrow(new InvalidCredentialsException("Invalid or expired token"));
+
+        assertThrows(InvalidCredentialsException.class, () -> principalCacheService.resolve("bad"));
+        assertEquals(0, principalCacheService.size());
+    }
+}
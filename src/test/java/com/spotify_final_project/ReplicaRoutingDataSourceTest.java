@@ -0,0 +1,163 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.config.ReplicaRoutingDataSource;
+import com.spotify_final_project.enums.AccountStatus;
+import com.spotify_final_project.enums.Role;
+import com.spotify_final_project.exception.auth.InvalidCredentialsException;
+import com.spotify_final_project.model.User;
+import com.spotify_final_project.repository.UserRepository;
+import com.spotify_final_project.service.JwtService;
+import com.spotify_final_project.service.PrincipalCacheService;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and a replica; each knows its own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate replicaAdmin;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = node("primary");
+        DataSource replica = node("replica");
+        replicaAdmin = new JdbcTemplate(replica);
+        replicaAdmin.execute("CREATE TABLE replica_lag (seconds DOUBLE)");
+        replicaAdmin.update("INSERT INTO replica_lag VALUES (0)");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica),
+                Duration.ofSeconds(5), Duration.ofMinutes(1), "SELECT seconds FROM replica_lag");
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(node("primary")).execute("SHUTDOWN");
+        replicaAdmin.execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldGoToTheReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+        assertEquals("primary", currentNode()); // no transaction
+    }
+
+    @Test
+    void reads_ShouldStickToThePrimary_AfterTheUserWrote() {
+        loginAs("alice");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        loginAs("bob");
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void reads_ShouldFallBackToThePrimary_WhileTheReplicaLags() {
+        replicaAdmin.update("UPDATE replica_lag SET seconds = 30");
+        routingDataSource.checkReplicaLag();
+
+        assertEquals(Map.of("replica-0", false), routingDataSource.getReplicaHealth());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        replicaAdmin.update("UPDATE replica_lag SET seconds = 0.5");
+        routingDataSource.checkReplicaLag();
+
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void onPrimary_ShouldRouteReadOnlyTransactionsToThePrimary() {
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(() -> readOnly.execute(status -> currentNode())));
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void resolve_ShouldRejectBlockedUser_WhileTheReplicaIsStale() {
+        // The block has reached the primary but not the replica, which still lags inside max-lag
+        new JdbcTemplate(node("primary")).execute("CREATE TABLE users (username VARCHAR(20), status VARCHAR(20))");
+        replicaAdmin.execute("CREATE TABLE users (username VARCHAR(20), status VARCHAR(20))");
+        new JdbcTemplate(node("primary")).update("INSERT INTO users VALUES ('alice', 'BLOCKED')");
+        replicaAdmin.update("INSERT INTO users VALUES ('alice', 'ACTIVE')");
+        replicaAdmin.update("UPDATE replica_lag SET seconds = 2");
+        routingDataSource.checkReplicaLag();
+
+        // Same read-only transaction Spring Data opens around findByUsername
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("alice")).thenAnswer(invocation -> readOnly.execute(status -> {
+            User user = new User();
+            user.setId(1L);
+            user.setUsername("alice");
+            user.setRole(Role.LISTENER);
+            user.setStatus(AccountStatus.valueOf(jdbcTemplate.queryForObject(
+                    "SELECT status FROM users WHERE username = 'alice'", String.class)));
+            return Optional.of(user);
+        }));
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.parseClaims("token")).thenReturn(Jwts.claims().add("username", "alice").build());
+        PrincipalCacheService principalCacheService = new PrincipalCacheService(jwtService, userRepository, 300, 100);
+
+        assertEquals("ACTIVE", readOnly.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT status FROM users WHERE username = 'alice'", String.class)));
+        assertThrows(InvalidCredentialsException.class, () -> principalCacheService.resolve("token"));
+    }
+
+    @Test
+    void reads_ShouldGoToThePrimary_WhileHeldAfterACacheEviction() {
+        routingDataSource.holdReadsOnPrimary();
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        if (jdbc.queryForObject("SELECT COUNT(*) FROM node", Integer.class) == 0) {
+            jdbc.update("INSERT INTO node VALUES (?)", name);
+        }
+        return dataSource;
+    }
+
+    private static void loginAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
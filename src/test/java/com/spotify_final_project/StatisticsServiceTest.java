@@ -1,63 +1,110 @@
 package com.spotify_final_project;
 
-import com.spotify_final_project.model.Listen;
-import com.spotify_final_project.model.Music;
-import com.spotify_final_project.model.User;
+import com.spotify_final_project.dto.listen.ListenStatRow;
 import com.spotify_final_project.repository.ListenRepository;
 import com.spotify_final_project.service.StatisticsService;
+import com.spotify_final_project.service.statistics.CsvStatisticsSink;
+import com.spotify_final_project.service.statistics.StatisticsSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class StatisticsServiceTest {
 
     private ListenRepository listenRepository;
+    private StatisticsSink statisticsSink;
+    private SimpleMeterRegistry meterRegistry;
     private StatisticsService statisticsService;
 
     @BeforeEach
     void setUp() {
         listenRepository = mock(ListenRepository.class);
-        statisticsService = new StatisticsService(listenRepository);
+        statisticsSink = mock(StatisticsSink.class);
+        meterRegistry = new SimpleMeterRegistry();
+        statisticsService = new StatisticsService(listenRepository, statisticsSink, meterRegistry);
     }
 
     @Test
-    void printWeeklyStatistics_ShouldCallRepository() {
-        User user = new User();
-        user.setUsername("john");
+    void printWeeklyStatistics_ShouldStreamRowsToSink() throws IOException {
+        when(listenRepository.streamStatRows()).thenReturn(Stream.of(new ListenStatRow("john", "Song 1", 3L)));
 
-        Music music = new Music();
-        music.setTitle("Song 1");
+        statisticsService.printWeeklyStatistics();
 
-        Listen listen = new Listen();
-        listen.setListener(user);
-        listen.setMusic(music);
-        listen.setCount(3L);
+        verify(listenRepository, times(1)).streamStatRows();
+        verify(listenRepository, never()).findAll();
+        verify(statisticsSink, times(1)).export(eq("weekly-listens"), any());
+    }
 
-        when(listenRepository.findAll()).thenReturn(List.of(listen));
+    @Test
+    void printStatisticsForTesting_ShouldCloseStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Stream<ListenStatRow> rows = Stream.of(new ListenStatRow("alice", "Song 2", 5L))
+                .onClose(() -> closed.set(true));
+        when(listenRepository.streamStatRows()).thenReturn(rows);
 
-        statisticsService.printWeeklyStatistics();
-        verify(listenRepository, times(1)).findAll();
+        statisticsService.printStatisticsForTesting();
+
+        verify(statisticsSink, times(1)).export(eq("test-listens"), any());
+        assertTrue(closed.get());
     }
 
     @Test
-    void printStatisticsForTesting_ShouldCallRepository() {
-        User user = new User();
-        user.setUsername("alice");
+    void printWeeklyStatistics_ShouldNotThrow_WhenSinkFails() throws IOException {
+        when(listenRepository.streamStatRows()).thenReturn(Stream.empty());
+        doThrow(new IOException("disk full")).when(statisticsSink).export(any(), any());
 
-        Music music = new Music();
-        music.setTitle("Song 2");
+        assertDoesNotThrow(() -> statisticsService.printWeeklyStatistics());
+        assertEquals(1, meterRegistry.get("statistics.report").tag("outcome", "failure").timer().count());
+    }
 
-        Listen listen = new Listen();
-        listen.setListener(user);
-        listen.setMusic(music);
-        listen.setCount(5L);
+    @Test
+    void printWeeklyStatistics_ShouldRecordDurationAndRows() throws IOException {
+        when(listenRepository.streamStatRows()).thenReturn(Stream.of(
+                new ListenStatRow("john", "Song 1", 3L),
+                new ListenStatRow("alice", "Song 2", 5L)));
+        doAnswer(inv -> {
+            Stream<ListenStatRow> rows = inv.getArgument(1);
+            rows.forEach(row -> {});
+            return null;
+        }).when(statisticsSink).export(any(), any());
 
-        when(listenRepository.findAll()).thenReturn(List.of(listen));
+        statisticsService.printWeeklyStatistics();
 
-        statisticsService.printStatisticsForTesting();
-        verify(listenRepository, times(1)).findAll();
+        assertEquals(1, meterRegistry.get("statistics.report").tags("report", "weekly-listens", "outcome", "success").timer().count());
+        assertEquals(2, meterRegistry.get("statistics.report.rows").tag("report", "weekly-listens").counter().count());
+    }
+
+    @Test
+    void csvSink_ShouldWriteHeaderAndEscapedRows(@TempDir Path tempDir) throws Exception {
+        CsvStatisticsSink sink = new CsvStatisticsSink();
+        Field outputDirField = CsvStatisticsSink.class.getDeclaredField("outputDir");
+        outputDirField.setAccessible(true);
+        outputDirField.set(sink, tempDir);
+
+        sink.export("weekly-listens", Stream.of(
+                new ListenStatRow("john", "Song 1", 3L),
+                new ListenStatRow("alice", "Hello, \"World\"", 5L)));
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            Path report = files.findFirst().orElseThrow();
+            assertTrue(report.getFileName().toString().startsWith("weekly-listens-"));
+            assertEquals(List.of(
+                    "username,song,count",
+                    "john,Song 1,3",
+                    "alice,\"Hello, \"\"World\"\"\",5"
+            ), Files.readAllLines(report));
+        }
     }
 }
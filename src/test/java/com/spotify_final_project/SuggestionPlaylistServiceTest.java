@@ -1,11 +1,12 @@
 package com.spotify_final_project;
 
+import com.spotify_final_project.dto.music.MusicResponse;
 import com.spotify_final_project.enums.GenreType;
-import com.spotify_final_project.model.Listen;
 import com.spotify_final_project.model.Music;
 import com.spotify_final_project.model.User;
-import com.spotify_final_project.repository.ListenRepository;
+import com.spotify_final_project.model.UserGenreAffinity;
 import com.spotify_final_project.repository.MusicRepository;
+import com.spotify_final_project.repository.UserGenreAffinityRepository;
 import com.spotify_final_project.repository.UserRepository;
 import com.spotify_final_project.service.SuggestionPlaylistService;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,76 +21,73 @@ import static org.mockito.Mockito.*;
 
 class SuggestionPlaylistServiceTest {
 
-    private ListenRepository listenRepository;
+    private UserGenreAffinityRepository userGenreAffinityRepository;
     private MusicRepository musicRepository;
     private UserRepository userRepository;
     private SuggestionPlaylistService suggestionService;
 
     @BeforeEach
     void setUp() {
-        listenRepository = mock(ListenRepository.class);
+        userGenreAffinityRepository = mock(UserGenreAffinityRepository.class);
         musicRepository = mock(MusicRepository.class);
         userRepository = mock(UserRepository.class);
 
-        suggestionService = new SuggestionPlaylistService(listenRepository, musicRepository, userRepository);
+        suggestionService = new SuggestionPlaylistService(userGenreAffinityRepository, musicRepository, userRepository);
     }
 
     @Test
     void generateSessionPlaylists_ShouldReturnEmpty_WhenNoListens() {
-        User user = new User();
-        user.setId(1L);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userGenreAffinityRepository.findTop3ByUserIdOrderByScoreDesc(1L)).thenReturn(List.of());
 
-        when(userRepository.findById(1L)).thenReturn(java.util.Optional.of(user));
-        when(listenRepository.findAllByListener(user)).thenReturn(List.of());
-
-        Map<GenreType, List<Music>> result = suggestionService.generateSessionPlaylists(1L, 0, 5);
+        Map<GenreType, List<MusicResponse>> result = suggestionService.generateSessionPlaylists(1L, 0, 5);
 
         assertTrue(result.isEmpty());
     }
 
     @Test
     void generateSessionPlaylists_ShouldReturnTopGenres() {
-        User user = new User();
-        user.setId(1L);
+        User artist = new User();
+        artist.setUsername("artist");
 
         Music music1 = new Music();
+        music1.setId(1L);
         music1.setGenre(GenreType.ROCK);
+        music1.setArtist(artist);
 
         Music music2 = new Music();
+        music2.setId(2L);
         music2.setGenre(GenreType.POP);
+        music2.setArtist(artist);
 
-        Listen listen1 = new Listen();
-        listen1.setListener(user);
-        listen1.setMusic(music1);
-        listen1.setCount(5L);
-
-        Listen listen2 = new Listen();
-        listen2.setListener(user);
-        listen2.setMusic(music2);
-        listen2.setCount(2L);
+        UserGenreAffinity rock = new UserGenreAffinity().setUserId(1L).setGenre(GenreType.ROCK).setScore(5L);
+        UserGenreAffinity pop = new UserGenreAffinity().setUserId(1L).setGenre(GenreType.POP).setScore(2L);
 
-        when(userRepository.findById(1L)).thenReturn(java.util.Optional.of(user));
-        when(listenRepository.findAllByListener(user)).thenReturn(List.of(listen1, listen2));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userGenreAffinityRepository.findTop3ByUserIdOrderByScoreDesc(1L)).thenReturn(List.of(rock, pop));
 
         when(musicRepository.findAllByGenre(eq(GenreType.ROCK), any(PageRequest.class)))
                 .thenReturn(List.of(music1));
         when(musicRepository.findAllByGenre(eq(GenreType.POP), any(PageRequest.class)))
                 .thenReturn(List.of(music2));
 
-        Map<GenreType, List<Music>> result = suggestionService.generateSessionPlaylists(1L, 0, 5);
+        Map<GenreType, List<MusicResponse>> result = suggestionService.generateSessionPlaylists(1L, 0, 5);
 
         assertEquals(2, result.size());
-        assertEquals(List.of(music1), result.get(GenreType.ROCK));
-        assertEquals(List.of(music2), result.get(GenreType.POP));
+        assertEquals(List.of(GenreType.ROCK, GenreType.POP), List.copyOf(result.keySet()));
+        assertEquals(List.of(1L), result.get(GenreType.ROCK).stream().map(MusicResponse::getId).toList());
+        assertEquals(List.of(2L), result.get(GenreType.POP).stream().map(MusicResponse::getId).toList());
+        assertEquals("artist", result.get(GenreType.ROCK).get(0).getArtistUsername());
     }
 
     @Test
     void generateSessionPlaylists_ShouldThrow_WhenUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(java.util.Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
                 suggestionService.generateSessionPlaylists(1L, 0, 5));
 
         assertEquals("User not found", exception.getMessage());
+        verifyNoInteractions(userGenreAffinityRepository);
     }
 }
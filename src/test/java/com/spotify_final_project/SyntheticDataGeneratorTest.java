@@ -0,0 +1,149 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.config.DataGeneratorProperties;
+import com.spotify_final_project.service.generator.SyntheticDataGenerator;
+import com.spotify_final_project.service.generator.SyntheticDataGenerator.IdOffsets;
+import com.spotify_final_project.service.generator.TableWriter;
+import com.spotify_final_project.service.generator.ZipfDistribution;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTest {
+
+    private static final IdOffsets OFFSETS = new IdOffsets(3, 0, 0, 0, 50);
+
+    @Test
+    void generate_ShouldProduceSameRows_WhenSeedIsTheSame() throws IOException {
+        assertEquals(generate(42), generate(42));
+        assertNotEquals(generate(42).get("listens"), generate(7).get("listens"));
+    }
+
+    @Test
+    void generate_ShouldWriteRequestedCounts_AfterIdOffsets() throws IOException {
+        Map<String, List<List<String>>> tables = generate(42);
+
+        assertEquals(List.of("users", "albums", "music", "playlists", "playlist_music", "listens", "user_genre_affinity"),
+                List.copyOf(tables.keySet()));
+        assertEquals(220, tables.get("users").size());
+        assertEquals("4", tables.get("users").get(0).get(0));
+        assertEquals("gen_artist_1", tables.get("users").get(0).get(1));
+        assertEquals("gen_listener_1", tables.get("users").get(20).get(1));
+        assertEquals(50, tables.get("albums").size());
+        assertEquals(500, tables.get("music").size());
+        assertEquals(30, tables.get("playlists").size());
+        assertEquals(5000, tables.get("listens").size());
+        assertEquals("51", tables.get("playlist_music").get(0).get(0));
+    }
+
+    @Test
+    void generate_ShouldKeepListensUniqueAndAffinitiesConsistent() throws IOException {
+        Map<String, List<List<String>>> tables = generate(42);
+
+        Set<String> pairs = new HashSet<>();
+        Map<String, Long> playsPerUser = new HashMap<>();
+        for (List<String> listen : tables.get("listens")) {
+            assertTrue(pairs.add(listen.get(0) + "/" + listen.get(1)), "duplicate listen " + listen);
+            playsPerUser.merge(listen.get(0), Long.parseLong(listen.get(2)), Long::sum);
+        }
+        Map<String, Long> affinityPerUser = tables.get("user_genre_affinity").stream()
+                .collect(Collectors.groupingBy(row -> row.get(0), Collectors.summingLong(row -> Long.parseLong(row.get(2)))));
+        assertEquals(playsPerUser, affinityPerUser);
+    }
+
+    @Test
+    void generate_ShouldSkewListensTowardsPopularTracks() throws IOException {
+        Map<String, Long> rowsPerTrack = generate(42).get("listens").stream()
+                .collect(Collectors.groupingBy(row -> row.get(1), Collectors.counting()));
+
+        long mostPlayed = rowsPerTrack.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+        // 5000 rows over 500 tracks average 10 per track
+        assertTrue(mostPlayed > 100, "most listened track has only " + mostPlayed + " rows");
+    }
+
+    @Test
+    void generate_ShouldWritePlaylistsWithDistinctTracksInPositionOrder() throws IOException {
+        Map<String, List<List<String>>> tables = generate(42);
+
+        Map<String, List<List<String>>> entries = tables.get("playlist_music").stream()
+                .collect(Collectors.groupingBy(row -> row.get(1)));
+        for (List<List<String>> playlist : entries.values()) {
+            assertTrue(playlist.size() <= 50);
+            assertEquals(playlist.size(), playlist.stream().map(row -> row.get(2)).distinct().count());
+            for (int i = 0; i < playlist.size(); i++) {
+                assertEquals(String.valueOf(i), playlist.get(i).get(3));
+            }
+        }
+    }
+
+    @Test
+    void zipf_ShouldFavourLowRanks() {
+        ZipfDistribution zipf = new ZipfDistribution(100, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] hits = new int[101];
+        for (int i = 0; i < 100_000; i++) {
+            hits[zipf.sample(random)]++;
+        }
+
+        assertEquals(0, hits[0]);
+        // P(1) = 1 / H(100) ~ 0.193 and P(2) = P(1) / 2
+        assertEquals(0.193, hits[1] / 100_000.0, 0.01);
+        assertEquals(2.0, (double) hits[1] / hits[2], 0.15);
+        assertTrue(hits[100] > 0);
+    }
+
+    private static Map<String, List<List<String>>> generate(long seed) throws IOException {
+        DataGeneratorProperties properties = new DataGeneratorProperties(true, seed, 20, 50, 500, 200, 5000, 30, 50,
+                1.0, 2.0, 1.5, "password");
+        RecordingWriter writer = new RecordingWriter();
+        Map<String, Long> rows = new SyntheticDataGenerator(properties, "hash").generate(writer, OFFSETS);
+        writer.tables.forEach((table, written) -> assertEquals(written.size(), rows.get(table)));
+        return writer.tables;
+    }
+
+    private static final class RecordingWriter implements TableWriter {
+        private final Map<String, List<List<String>>> tables = new LinkedHashMap<>();
+        private List<List<String>> current;
+        private List<String> row = new ArrayList<>();
+
+        @Override
+        public void startTable(String table, List<String> columns) {
+            current = new ArrayList<>();
+            tables.put(table, current);
+        }
+
+        @Override
+        public TableWriter add(long value) {
+            row.add(String.valueOf(value));
+            return this;
+        }
+
+        @Override
+        public TableWriter add(String value) {
+            row.add(value);
+            return this;
+        }
+
+        @Override
+        public void endRow() {
+            current.add(row);
+            row = new ArrayList<>();
+        }
+
+        @Override
+        public long finishTable() {
+            return current.size();
+        }
+    }
+}
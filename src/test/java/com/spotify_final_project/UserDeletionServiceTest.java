@@ -0,0 +1,208 @@
+package com.spotify_final_project;
+
+import com.spotify_final_project.dto.user.UserDeletionStatus;
+import com.spotify_final_project.enums.DeletionState;
+import com.spotify_final_project.repository.UserDeletionRepository;
+import com.spotify_final_project.service.ArtistGenreIndex;
+import com.spotify_final_project.service.EntityCacheService;
+import com.spotify_final_project.service.ListenService;
+import com.spotify_final_project.service.PrincipalCacheService;
+import com.spotify_final_project.service.UserDeletionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserDeletionServiceTest {
+
+    private UserDeletionRepository userDeletionRepository;
+    private PrincipalCacheService principalCacheService;
+    private EntityCacheService entityCacheService;
+    private ArtistGenreIndex artistGenreIndex;
+    private ListenService listenService;
+    private UserDeletionService userDeletionService;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        userDeletionRepository = mock(UserDeletionRepository.class);
+        principalCacheService = mock(PrincipalCacheService.class);
+        entityCacheService = mock(EntityCacheService.class);
+        artistGenreIndex = mock(ArtistGenreIndex.class);
+        listenService = mock(ListenService.class);
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        userDeletionService = new UserDeletionService(userDeletionRepository, mock(PlatformTransactionManager.class),
+                principalCacheService, entityCacheService, artistGenreIndex, listenService, 2, Duration.ofHours(1), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userDeletionService.shutdown();
+    }
+
+    @Test
+    void deleteUser_ShouldDeleteInOnePass_WhenUserOwnsFewTracks() {
+        when(userDeletionRepository.countTracks(1L)).thenReturn(2L);
+        when(userDeletionRepository.deleteAllTracks(1L)).thenReturn(List.of(10L, 11L));
+
+        UserDeletionStatus status = userDeletionService.deleteUser(1L);
+
+        assertEquals(DeletionState.COMPLETED, status.state());
+        InOrder inOrder = inOrder(userDeletionRepository);
+        inOrder.verify(userDeletionRepository).deleteAllTracks(1L);
+        inOrder.verify(userDeletionRepository).deleteUserRows(1L);
+        verify(userDeletionRepository, never()).deleteTrackChunk(anyLong(), anyInt());
+        verify(listenService).discardUser(1L);
+        verify(listenService).discardTracks(List.of(10L, 11L));
+        verify(principalCacheService).evictUser(1L);
+        verify(entityCacheService).evictUser(1L);
+        verify(entityCacheService).evictCatalog();
+        verify(artistGenreIndex).invalidate();
+    }
+
+    @Test
+    void deleteUser_ShouldDeleteInChunksInBackground_WhenUserOwnsManyTracks() throws InterruptedException {
+        when(userDeletionRepository.countTracks(1L)).thenReturn(5L);
+        when(userDeletionRepository.deleteTrackChunk(1L, 2)).thenReturn(List.of(10L, 11L), List.of(12L, 13L), List.of(14L));
+
+        UserDeletionStatus started = userDeletionService.deleteUser(1L);
+        assertEquals(DeletionState.RUNNING, started.state());
+        verify(userDeletionRepository).blockUser(1L);
+
+        UserDeletionStatus finished = awaitFinished(1L);
+
+        assertEquals(DeletionState.COMPLETED, finished.state());
+        assertEquals(5, finished.totalTracks());
+        assertEquals(5, finished.deletedTracks());
+        verify(userDeletionRepository, times(3)).deleteTrackChunk(1L, 2);
+        verify(userDeletionRepository).deleteUserRows(1L);
+        verify(userDeletionRepository, never()).deleteAllTracks(anyLong());
+        verify(listenService).discardTracks(List.of(12L, 13L));
+        verify(listenService).discardTracks(List.of(14L));
+        verify(artistGenreIndex).invalidate();
+    }
+
+    @Test
+    void deleteUser_ShouldReportFailure_WhenChunkFails() throws InterruptedException {
+        when(userDeletionRepository.countTracks(1L)).thenReturn(5L);
+        when(userDeletionRepository.deleteTrackChunk(1L, 2))
+                .thenReturn(List.of(10L, 11L))
+                .thenThrow(new RuntimeException("lock timeout"));
+
+        userDeletionService.deleteUser(1L);
+        UserDeletionStatus finished = awaitFinished(1L);
+
+        assertEquals(DeletionState.FAILED, finished.state());
+        assertEquals(2, finished.deletedTracks());
+        assertEquals("lock timeout", finished.error());
+        verify(userDeletionRepository, never()).deleteUserRows(anyLong());
+    }
+
+    @Test
+    void getStatus_ShouldBeEmpty_WhenNothingWasDeleted() {
+        assertTrue(userDeletionService.getStatus(1L).isEmpty());
+    }
+
+    @Test
+    void deleteUser_ShouldStartOnlyOneDeletion_WhenCalledConcurrently() throws Exception {
+        CountDownLatch counting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userDeletionRepository.countTracks(1L)).thenAnswer(invocation -> {
+            counting.countDown();
+            release.await();
+            return 1L;
+        });
+
+        ExecutorService first = Executors.newSingleThreadExecutor();
+        try {
+            Future<UserDeletionStatus> firstCall = first.submit(() -> userDeletionService.deleteUser(1L));
+            assertTrue(counting.await(5, TimeUnit.SECONDS));
+
+            // The first call is between its check and its delete; the second must not start another one
+            assertEquals(DeletionState.RUNNING, userDeletionService.deleteUser(1L).state());
+            release.countDown();
+            assertEquals(DeletionState.COMPLETED, firstCall.get(5, TimeUnit.SECONDS).state());
+        } finally {
+            first.shutdownNow();
+        }
+        verify(userDeletionRepository, times(1)).countTracks(1L);
+        verify(userDeletionRepository, times(1)).deleteAllTracks(1L);
+    }
+
+    @Test
+    void getStatus_ShouldForgetFinishedDeletions_AfterRetention() {
+        when(userDeletionRepository.countTracks(1L)).thenReturn(1L);
+        userDeletionService.deleteUser(1L);
+
+        clock.advance(Duration.ofMinutes(59));
+        assertEquals(DeletionState.COMPLETED, userDeletionService.getStatus(1L).orElseThrow().state());
+
+        clock.advance(Duration.ofMinutes(2));
+        assertTrue(userDeletionService.getStatus(1L).isEmpty());
+    }
+
+    @Test
+    void deleteUser_ShouldReleaseTheUser_WhenStartingFails() {
+        when(userDeletionRepository.countTracks(1L)).thenThrow(new RuntimeException("connection refused")).thenReturn(1L);
+
+        assertThrows(RuntimeException.class, () -> userDeletionService.deleteUser(1L));
+        assertEquals(DeletionState.FAILED, userDeletionService.getStatus(1L).orElseThrow().state());
+
+        assertEquals(DeletionState.COMPLETED, userDeletionService.deleteUser(1L).state());
+    }
+
+    private UserDeletionStatus awaitFinished(Long userId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            UserDeletionStatus status = userDeletionService.getStatus(userId).orElseThrow();
+            if (status.state() != DeletionState.RUNNING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Deletion did not finish in time");
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -11,10 +11,12 @@ import com.spotify_final_project.model.User;
 import com.spotify_final_project.repository.UserRepository;
 import com.spotify_final_project.service.JwtService;
 import com.spotify_final_project.service.MailService;
+import com.spotify_final_project.service.PasswordHashingService;
 import com.spotify_final_project.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
@@ -24,7 +26,7 @@ import static org.mockito.Mockito.*;
 class UserServiceTest {
 
     private UserRepository userRepository;
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     private JwtService jwtService;
     private MailService mailService;
     private UserService userService;
@@ -32,11 +34,12 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
-        passwordEncoder = mock(PasswordEncoder.class);
+        passwordHashingService = mock(PasswordHashingService.class);
         jwtService = mock(JwtService.class);
         mailService = mock(MailService.class);
 
-        userService = new UserService(userRepository, passwordEncoder, jwtService, mailService);
+        userService = new UserService(userRepository, passwordHashingService, jwtService, mailService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
     }
 
     // ----------------- REGISTER TESTS -----------------
@@ -50,12 +53,12 @@ class UserServiceTest {
 
         when(userRepository.findByUsername("user1")).thenReturn(Optional.empty());
         when(userRepository.findByEmail("user1@example.com")).thenReturn(Optional.empty());
-        when(passwordEncoder.encode("1234")).thenReturn("encoded1234");
+        when(passwordHashingService.encode("1234")).thenReturn("encoded1234");
 
         String result = userService.register(request);
 
         assertTrue(result.contains("User registered successfully"));
-        verify(mailService, times(1)).sendVerificationEmail(eq("user1@example.com"), anyString());
+        verify(mailService, times(1)).queueVerificationEmail(eq("user1@example.com"), anyString());
         verify(userRepository, times(1)).save(any(User.class));
     }
 
@@ -124,7 +127,7 @@ class UserServiceTest {
         user.setStatus(AccountStatus.ACTIVE);
 
         when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("pass", "encodedPass")).thenReturn(true);
+        when(passwordHashingService.matches("pass", "encodedPass")).thenReturn(true);
         when(jwtService.generateToken(any(), any(), any())).thenReturn("jwt-token");
         when(jwtService.getExpirationTimestamp()).thenReturn(999999L);
 
@@ -132,6 +135,30 @@ class UserServiceTest {
 
         assertEquals("jwt-token", response.token());
         assertEquals(999999L, response.expiresAt());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void login_ShouldRehashPassword_WhenWorkFactorWasRaised() {
+        UserLoginRequest request = new UserLoginRequest();
+        request.setUsername("user1");
+        request.setPassword("pass");
+
+        User user = new User();
+        user.setUsername("user1");
+        user.setPassword("weakHash");
+        user.setVerified(true);
+        user.setStatus(AccountStatus.ACTIVE);
+
+        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("pass", "weakHash")).thenReturn(true);
+        when(passwordHashingService.upgradeEncoding("weakHash")).thenReturn(true);
+        when(passwordHashingService.encode("pass")).thenReturn("strongHash");
+
+        userService.login(request);
+
+        assertEquals("strongHash", user.getPassword());
+        verify(userRepository).save(user);
     }
 
     @Test
@@ -161,7 +188,7 @@ class UserServiceTest {
         user.setStatus(AccountStatus.ACTIVE);
 
         when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("wrong", "encoded")).thenReturn(false);
+        when(passwordHashingService.matches("wrong", "encoded")).thenReturn(false);
 
         assertThrows(InvalidCredentialsException.class, () -> userService.login(request));
     }
@@ -178,7 +205,7 @@ class UserServiceTest {
         user.setStatus(AccountStatus.ACTIVE);
 
         when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(any(), any())).thenReturn(true);
+        when(passwordHashingService.matches(any(), any())).thenReturn(true);
 
         assertThrows(InvalidCredentialsException.class, () -> userService.login(request));
     }